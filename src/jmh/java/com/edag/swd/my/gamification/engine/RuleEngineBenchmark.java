@@ -0,0 +1,92 @@
+package com.edag.swd.my.gamification.engine;
+
+import com.edag.swd.my.gamification.GamificationApplication;
+import com.edag.swd.my.gamification.entity.Group;
+import com.edag.swd.my.gamification.entity.Person;
+import com.edag.swd.my.gamification.repository.GroupRepository;
+import com.edag.swd.my.gamification.repository.PersonRepository;
+import com.edag.swd.my.gamification.service.RuleService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures end-to-end event processing against the in-memory database: matching, locking,
+ * loading the participants, applying the outcomes and committing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RuleEngineBenchmark {
+
+    private static final String SINGLE_OUTCOME_ACTION = "benchmark_single";
+    private static final String MULTI_OUTCOME_ACTION = "benchmark_multi";
+
+    @Param({"50"})
+    private int groupCount;
+
+    @Param({"20"})
+    private int membersPerGroup;
+
+    private ConfigurableApplicationContext context;
+    private RuleService ruleService;
+    private final List<String> personIds = new ArrayList<>();
+    private int next;
+
+    @Setup
+    public void startApplication() {
+        context = new SpringApplicationBuilder(GamificationApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.jpa.show-sql=false", "logging.level.root=WARN")
+                .run();
+        ruleService = context.getBean(RuleService.class);
+
+        // Uncapped rules, so every invocation does the same amount of work
+        RuleEngine ruleEngine = context.getBean(RuleEngine.class);
+        ruleEngine.addRule(RuleIndexBenchmark.rule("Benchmark Single", SINGLE_OUTCOME_ACTION,
+                RuleIndexBenchmark.outcome("award", "individual", 1)));
+        ruleEngine.addRule(RuleIndexBenchmark.rule("Benchmark Multi", MULTI_OUTCOME_ACTION,
+                RuleIndexBenchmark.outcome("penalty", "offender", -1),
+                RuleIndexBenchmark.outcome("award", "compliant", 1)));
+
+        GroupRepository groupRepository = context.getBean(GroupRepository.class);
+        PersonRepository personRepository = context.getBean(PersonRepository.class);
+        for (int g = 0; g < groupCount; g++) {
+            Group group = groupRepository.save(new Group("bench-group" + g, "Benchmark Group " + g));
+            List<Person> members = new ArrayList<>();
+            for (int m = 0; m < membersPerGroup; m++) {
+                members.add(new Person("bench-person" + g + "-" + m, "Benchmark Person", group));
+            }
+            personRepository.saveAll(members).forEach(person -> personIds.add(person.getId()));
+        }
+    }
+
+    @TearDown
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public int singleOutcome() {
+        return ruleService.processEvent(SINGLE_OUTCOME_ACTION, Map.of("individual", nextPerson()));
+    }
+
+    @Benchmark
+    public int multiOutcome() {
+        return ruleService.processEvent(MULTI_OUTCOME_ACTION, Map.of("offender", nextPerson()));
+    }
+
+    private String nextPerson() {
+        next = (next + 1) % personIds.size();
+        return personIds.get(next);
+    }
+}
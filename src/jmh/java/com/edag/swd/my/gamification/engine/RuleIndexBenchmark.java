@@ -0,0 +1,71 @@
+package com.edag.swd.my.gamification.engine;
+
+import com.edag.swd.my.gamification.config.ConditionConfig;
+import com.edag.swd.my.gamification.config.OutcomeConfig;
+import com.edag.swd.my.gamification.config.RuleConfig;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long it takes to find the rules matching an action type as the rule set grows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RuleIndexBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int ruleCount;
+
+    private RuleIndex ruleIndex;
+    private String lastActionType;
+
+    @Setup
+    public void buildIndex() {
+        List<RuleConfig> rules = new ArrayList<>();
+        for (int i = 0; i < ruleCount; i++) {
+            rules.add(rule("Rule " + i, "action_" + i));
+        }
+        ruleIndex = RuleIndex.EMPTY.withRules(rules);
+        lastActionType = "ACTION_" + (ruleCount - 1);
+    }
+
+    @Benchmark
+    public List<CompiledRule> matchExisting() {
+        return ruleIndex.match(lastActionType);
+    }
+
+    @Benchmark
+    public List<CompiledRule> matchMissing() {
+        return ruleIndex.match("unknown_action");
+    }
+
+    static RuleConfig rule(String ruleName, String actionType, OutcomeConfig... outcomes) {
+        ConditionConfig condition = new ConditionConfig();
+        condition.setType("action");
+        condition.setValue(actionType);
+
+        RuleConfig rule = new RuleConfig();
+        rule.setRuleName(ruleName);
+        rule.setDescription(ruleName);
+        rule.setActive(true);
+        rule.setConditions(List.of(condition));
+        rule.setOutcomes(outcomes.length > 0 ? List.of(outcomes) : List.of(outcome("award", "individual", 1)));
+        return rule;
+    }
+
+    static OutcomeConfig outcome(String type, String target, int points) {
+        OutcomeConfig outcome = new OutcomeConfig();
+        outcome.setType(type);
+        outcome.setTarget(target);
+        outcome.setPoints(points);
+        outcome.setReason("Benchmark");
+        return outcome;
+    }
+}
@@ -0,0 +1,42 @@
+package com.edag.swd.my.gamification.entity;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the lookup of a group's capped points for one rule as the number of tracked activities grows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GroupActivityPointsBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int activityCount;
+
+    private Group group;
+    private String lastRuleName;
+
+    @Setup
+    public void createGroup() {
+        group = new Group("bench-group", "Benchmark Group");
+        for (int i = 0; i < activityCount; i++) {
+            group.updateActivityPoints("Rule " + i, i);
+        }
+        lastRuleName = "Rule " + (activityCount - 1);
+    }
+
+    @Benchmark
+    public int currentPointsForLastActivity() {
+        return group.getCurrentPointsForActivity(lastRuleName);
+    }
+
+    @Benchmark
+    public int currentPointsForMissingActivity() {
+        return group.getCurrentPointsForActivity("Unknown Rule");
+    }
+}
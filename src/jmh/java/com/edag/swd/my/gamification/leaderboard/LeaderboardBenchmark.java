@@ -0,0 +1,74 @@
+package com.edag.swd.my.gamification.leaderboard;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures leaderboard updates and queries on synthetic person rankings, and compares ordering the
+ * persons page from the leaderboard with sorting all persons by points.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LeaderboardBenchmark {
+
+    @Param({"10000", "100000"})
+    private int personCount;
+
+    private Leaderboard leaderboard;
+    private Map<String, Integer> points;
+    private List<String> ids;
+
+    @Setup
+    public void createLeaderboard() {
+        Random random = new Random(42);
+        points = new HashMap<>();
+        ids = new ArrayList<>();
+        for (int i = 0; i < personCount; i++) {
+            String id = "person" + i;
+            ids.add(id);
+            points.put(id, random.nextInt(10_000));
+        }
+        leaderboard = new Leaderboard();
+        leaderboard.reset(points);
+    }
+
+    @Benchmark
+    public void update() {
+        String id = ids.get(ThreadLocalRandom.current().nextInt(personCount));
+        leaderboard.update(id, ThreadLocalRandom.current().nextInt(10_000));
+    }
+
+    @Benchmark
+    public Optional<LeaderboardEntry> rankOf() {
+        return leaderboard.get(ids.get(ThreadLocalRandom.current().nextInt(personCount)));
+    }
+
+    @Benchmark
+    public List<LeaderboardEntry> top10() {
+        return leaderboard.top(10);
+    }
+
+    @Benchmark
+    public List<LeaderboardEntry> around() {
+        return leaderboard.around(ids.get(ThreadLocalRandom.current().nextInt(personCount)), 5);
+    }
+
+    @Benchmark
+    public List<String> renderFromLeaderboard() {
+        return leaderboard.sortByRank(ids, id -> id);
+    }
+
+    @Benchmark
+    public List<String> renderBySorting() {
+        List<String> sorted = new ArrayList<>(ids);
+        sorted.sort(Comparator.<String>comparingInt(points::get).reversed());
+        return sorted;
+    }
+}
@@ -0,0 +1,13 @@
+package com.edag.swd.my.gamification.audit;
+
+/**
+ * Severity of an audit record. Records below the configured level are not written.
+ */
+public enum AuditLevel {
+    // Diagnostic details of how a rule was evaluated
+    DEBUG,
+    // Point changes; together these form the audit trail
+    INFO,
+    // Unexpected conditions such as retried events
+    WARN
+}
@@ -0,0 +1,237 @@
+package com.edag.swd.my.gamification.audit;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous audit log written as newline-delimited JSON.
+ * Callers only enqueue records into a lock-free ring buffer; a single writer thread serializes them and
+ * appends them to a rolling file, so rule processing never waits on file or console I/O.
+ * <p>
+ * Records created within a transaction are only written once it commits, so the log never contains
+ * points that were rolled back or recorded twice by a retried event. DEBUG records can be sampled;
+ * INFO and WARN records, which form the audit trail, are always written.
+ */
+@Component
+public class AuditLog {
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final boolean enabled;
+    private final AuditLevel level;
+    private final double debugSampleRate;
+    private final boolean blockWhenFull;
+    private final AuditRingBuffer<AuditRecord> buffer;
+    private final AtomicLong droppedRecords = new AtomicLong();
+    private final RollingFile file;
+    private final Thread writer;
+    private volatile boolean running = true;
+    private volatile boolean writerStopped;
+
+    @Autowired
+    public AuditLog(@Value("${gamification.audit.enabled:true}") boolean enabled,
+                    @Value("${gamification.audit.level:INFO}") AuditLevel level,
+                    @Value("${gamification.audit.debug-sample-rate:1.0}") double debugSampleRate,
+                    @Value("${gamification.audit.buffer-capacity:65536}") int bufferCapacity,
+                    @Value("${gamification.audit.block-when-full:true}") boolean blockWhenFull,
+                    @Value("${gamification.audit.file:logs/audit.ndjson}") String file,
+                    @Value("${gamification.audit.max-file-size:10MB}") DataSize maxFileSize,
+                    @Value("${gamification.audit.max-files:10}") int maxFiles) throws IOException {
+        this.enabled = enabled;
+        this.level = level;
+        this.debugSampleRate = debugSampleRate;
+        this.blockWhenFull = blockWhenFull;
+        this.buffer = new AuditRingBuffer<>(bufferCapacity);
+
+        if (enabled) {
+            this.file = new RollingFile(Path.of(file), maxFileSize.toBytes(), maxFiles);
+            this.writer = new Thread(this::writeRecords, "audit-writer");
+            this.writer.setDaemon(true);
+            this.writer.start();
+        } else {
+            this.file = null;
+            this.writer = null;
+        }
+    }
+
+    /**
+     * Checks whether records of the given level are written.
+     *
+     * @param recordLevel The level to check
+     * @return true if records of this level are written
+     */
+    public boolean isEnabled(AuditLevel recordLevel) {
+        return enabled && recordLevel.compareTo(level) >= 0;
+    }
+
+    /**
+     * Adds a record to the audit log.
+     *
+     * @param record The record to write
+     */
+    public void record(AuditRecord record) {
+        if (!isEnabled(record.level())) return;
+        if (record.level() == AuditLevel.DEBUG && debugSampleRate < 1.0
+                && ThreadLocalRandom.current().nextDouble() >= debugSampleRate) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(record);
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<AuditRecord> pending = (List<AuditRecord>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<AuditRecord> records = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, records);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(AuditLog.this);
+                    if (status == STATUS_COMMITTED) {
+                        records.forEach(AuditLog.this::enqueue);
+                    }
+                }
+            });
+            pending = records;
+        }
+        pending.add(record);
+    }
+
+    /**
+     * Gets the number of records waiting to be written.
+     *
+     * @return The number of buffered records
+     */
+    public int getPendingCount() {
+        return buffer.size();
+    }
+
+    /**
+     * Gets the number of records discarded because the buffer was full or the writer has stopped.
+     *
+     * @return The number of dropped records
+     */
+    public long getDroppedCount() {
+        return droppedRecords.get();
+    }
+
+    private void enqueue(AuditRecord record) {
+        if (writerStopped) {
+            droppedRecords.incrementAndGet();
+            return;
+        }
+        while (!buffer.offer(record)) {
+            if (!blockWhenFull || !running || writerStopped) {
+                droppedRecords.incrementAndGet();
+                return;
+            }
+            // Only reached when the writer cannot keep up; wait for it instead of losing the record
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+    }
+
+    private void writeRecords() {
+        ByteArrayOutputStream line = new ByteArrayOutputStream(256);
+        try (JsonGenerator json = new JsonFactory().createGenerator(line).setRootValueSeparator(null)) {
+            // Drains the buffer after shutdown, unless interrupted because draining takes too long
+            while ((running || buffer.size() > 0) && !Thread.currentThread().isInterrupted()) {
+                AuditRecord record = buffer.poll();
+                if (record == null) {
+                    flush();
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                    continue;
+                }
+                try {
+                    writeRecord(json, record);
+                    json.flush();
+                    line.write('\n');
+                    file.write(line.toByteArray(), line.size());
+                } catch (IOException e) {
+                    System.err.println("Error writing audit record: " + e.getMessage());
+                } finally {
+                    line.reset();
+                }
+            }
+            flush();
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Audit log writer stopped: " + e.getMessage());
+        } finally {
+            // Without a writer the buffer never drains, so enqueue must stop waiting for space
+            writerStopped = true;
+        }
+    }
+
+    private void flush() {
+        try {
+            file.flush();
+        } catch (IOException e) {
+            System.err.println("Error flushing audit log: " + e.getMessage());
+        }
+    }
+
+    private static void writeRecord(JsonGenerator json, AuditRecord record) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("ts", Instant.ofEpochMilli(record.timestamp()).toString());
+        json.writeStringField("level", record.level().name());
+        json.writeStringField("type", record.type().name());
+        writeField(json, "rule", record.ruleName());
+        writeField(json, "id", record.subjectId());
+        writeField(json, "name", record.subjectName());
+        writeField(json, "points", record.points());
+        writeField(json, "total", record.total());
+        writeField(json, "cap", record.cap());
+        writeField(json, "detail", record.detail());
+        json.writeEndObject();
+    }
+
+    private static void writeField(JsonGenerator json, String name, String value) throws IOException {
+        if (value != null) json.writeStringField(name, value);
+    }
+
+    private static void writeField(JsonGenerator json, String name, Integer value) throws IOException {
+        if (value != null) json.writeNumberField(name, value);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException, IOException {
+        running = false;
+        if (writer == null) return;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        if (writer.isAlive()) {
+            writer.interrupt();
+            writer.join(TimeUnit.SECONDS.toMillis(1));
+        }
+
+        int unwritten = buffer.size();
+        if (unwritten > 0) {
+            droppedRecords.addAndGet(unwritten);
+            System.err.println(unwritten + " audit records were not written before shutdown");
+        }
+        // The file is only closed once nothing writes to it anymore
+        if (writer.isAlive()) {
+            System.err.println("Audit log writer did not stop; leaving the audit file open");
+            return;
+        }
+        file.close();
+    }
+}
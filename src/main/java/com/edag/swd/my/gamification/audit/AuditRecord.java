@@ -0,0 +1,59 @@
+package com.edag.swd.my.gamification.audit;
+
+import com.edag.swd.my.gamification.entity.Group;
+import com.edag.swd.my.gamification.entity.Person;
+
+/**
+ * A single entry of the audit log. Fields that do not apply to the type of the record are null.
+ *
+ * @param timestamp   Time the record was created, in epoch milliseconds
+ * @param level       Severity of the record
+ * @param type        What happened
+ * @param ruleName    The rule being applied
+ * @param subjectId   The ID of the affected person or group
+ * @param subjectName The name of the affected person or group
+ * @param points      The points recorded or awarded
+ * @param total       The total points of the subject after the change, or the capped points so far
+ * @param cap         The cap of the rule
+ * @param detail      Free-form details
+ */
+public record AuditRecord(long timestamp, AuditLevel level, AuditType type, String ruleName,
+                          String subjectId, String subjectName, Integer points, Integer total, Integer cap,
+                          String detail) {
+
+    public static AuditRecord event(String actionType) {
+        return new AuditRecord(System.currentTimeMillis(), AuditLevel.DEBUG, AuditType.EVENT, null,
+                null, null, null, null, null, actionType);
+    }
+
+    public static AuditRecord rule(String ruleName, String detail) {
+        return new AuditRecord(System.currentTimeMillis(), AuditLevel.DEBUG, AuditType.RULE, ruleName,
+                null, null, null, null, null, detail);
+    }
+
+    public static AuditRecord contribution(String ruleName, Person person, int points) {
+        return new AuditRecord(System.currentTimeMillis(), AuditLevel.INFO, AuditType.CONTRIBUTION, ruleName,
+                person.getId(), person.getName(), points, person.getTotalAccumulatedPoints(), null, null);
+    }
+
+    public static AuditRecord groupPoints(String ruleName, Group group, int points) {
+        return new AuditRecord(System.currentTimeMillis(), AuditLevel.INFO, AuditType.GROUP_POINTS, ruleName,
+                group.getId(), group.getName(), points, group.getTotalGroupPoints(), null, null);
+    }
+
+    public static AuditRecord cap(String ruleName, Group group, int cap, int currentPoints, int awardedPoints) {
+        return new AuditRecord(System.currentTimeMillis(), AuditLevel.INFO, AuditType.CAP, ruleName,
+                group.getId(), group.getName(), awardedPoints, currentPoints, cap, null);
+    }
+
+    public static AuditRecord capReset(String ruleName, int resetGroups) {
+        return new AuditRecord(System.currentTimeMillis(), AuditLevel.INFO, AuditType.CAP_RESET, ruleName,
+                null, null, null, null, null, "Reset capped points of " + resetGroups + " groups");
+    }
+
+    public static AuditRecord retry(int attempt, int maxAttempts) {
+        return new AuditRecord(System.currentTimeMillis(), AuditLevel.WARN, AuditType.RETRY, null,
+                null, null, null, null, null,
+                "Concurrent modification detected, attempt " + attempt + " of " + maxAttempts);
+    }
+}
@@ -0,0 +1,11 @@
+package com.edag.swd.my.gamification.audit;
+
+public enum AuditType {
+    EVENT,
+    RULE,
+    CONTRIBUTION,
+    GROUP_POINTS,
+    CAP,
+    CAP_RESET,
+    RETRY
+}
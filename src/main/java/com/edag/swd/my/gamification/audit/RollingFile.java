@@ -0,0 +1,91 @@
+package com.edag.swd.my.gamification.audit;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Append-only file that is rolled over when it reaches a maximum size.
+ * Rolled files are renamed with an increasing index (audit.ndjson, audit.1.ndjson, audit.2.ndjson, ...)
+ * and the oldest file is deleted once the maximum number of files is reached. Not thread-safe.
+ */
+class RollingFile implements Closeable {
+    private final Path file;
+    private final long maxBytes;
+    private final int maxFiles;
+    private OutputStream out;
+    private long written;
+
+    RollingFile(Path file, long maxBytes, int maxFiles) throws IOException {
+        this.file = file;
+        this.maxBytes = maxBytes;
+        this.maxFiles = Math.max(1, maxFiles);
+        Path directory = file.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        open();
+    }
+
+    /**
+     * Writes a complete record. The file is rolled before the record if it would exceed the maximum size,
+     * so records are never split across files.
+     */
+    void write(byte[] bytes, int length) throws IOException {
+        if (written > 0 && written + length > maxBytes) {
+            roll();
+        }
+        out.write(bytes, 0, length);
+        written += length;
+    }
+
+    void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    Path rolledFile(int index) {
+        String name = file.getFileName().toString();
+        int extension = name.lastIndexOf('.');
+        String rolledName = extension > 0
+                ? name.substring(0, extension) + "." + index + name.substring(extension)
+                : name + "." + index;
+        return file.resolveSibling(rolledName);
+    }
+
+    private void roll() throws IOException {
+        out.close();
+        try {
+            if (maxFiles == 1) {
+                Files.delete(file);
+            } else {
+                Files.deleteIfExists(rolledFile(maxFiles - 1));
+                for (int i = maxFiles - 2; i >= 1; i--) {
+                    Path rolled = rolledFile(i);
+                    if (Files.exists(rolled)) {
+                        Files.move(rolled, rolledFile(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                    }
+                }
+                Files.move(file, rolledFile(1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            // If a move failed, keep appending to the current file and try rolling again with the next record
+            open();
+        }
+    }
+
+    private void open() throws IOException {
+        out = new BufferedOutputStream(Files.newOutputStream(file,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND), 64 * 1024);
+        written = Files.size(file);
+    }
+}
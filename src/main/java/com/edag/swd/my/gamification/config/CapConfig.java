@@ -1,10 +1,15 @@
 package com.edag.swd.my.gamification.config;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 
 @Data
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class CapConfig {
     private int maxPoints;
-}
\ No newline at end of file
+
+    // When the capped points are reset: "daily", "weekly", "monthly" or a cron expression; never if not set
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String resetPeriod;
+}
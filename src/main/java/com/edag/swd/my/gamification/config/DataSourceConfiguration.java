@@ -0,0 +1,33 @@
+package com.edag.swd.my.gamification.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+public class DataSourceConfiguration {
+
+    /**
+     * Wraps the pooled data source so callers wait for a connection on a semaphore instead of inside the pool.
+     * The limit defaults to the size of the pool.
+     */
+    @Bean
+    public static BeanPostProcessor connectionLimiter(
+            @Value("${gamification.jdbc.max-connections:${spring.datasource.hikari.maximum-pool-size:10}}")
+            int maxConnections,
+            @Value("${gamification.jdbc.acquire-timeout:5s}") Duration acquireTimeout) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConnectionLimitingDataSource)) {
+                    return new ConnectionLimitingDataSource(dataSource, maxConnections, acquireTimeout);
+                }
+                return bean;
+            }
+        };
+    }
+}
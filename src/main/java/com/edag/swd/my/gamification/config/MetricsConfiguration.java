@@ -0,0 +1,107 @@
+package com.edag.swd.my.gamification.config;
+
+import com.edag.swd.my.gamification.audit.AuditLog;
+import com.edag.swd.my.gamification.engine.RuleEngine;
+import com.edag.swd.my.gamification.eventlog.EventDeduplicator;
+import com.edag.swd.my.gamification.leaderboard.LeaderboardFeed;
+import com.edag.swd.my.gamification.service.AsyncEventService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+@Configuration
+public class MetricsConfiguration {
+
+    /**
+     * Gauges for the work waiting in the asynchronous event queue and the audit log buffer.
+     */
+    @Bean
+    public MeterBinder queueMetrics(AsyncEventService asyncEventService, AuditLog auditLog) {
+        return registry -> {
+            Gauge.builder("gamification.events.queue.depth", asyncEventService, AsyncEventService::getQueueDepth)
+                    .description("Events waiting for an asynchronous worker")
+                    .register(registry);
+            Gauge.builder("gamification.audit.pending", auditLog, AuditLog::getPendingCount)
+                    .description("Audit records waiting to be written")
+                    .register(registry);
+            FunctionCounter.builder("gamification.audit.dropped", auditLog, AuditLog::getDroppedCount)
+                    .description("Audit records dropped because the buffer was full")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Events rejected as duplicates, and the idempotency keys they are checked against.
+     */
+    @Bean
+    public MeterBinder deduplicationMetrics(EventDeduplicator eventDeduplicator) {
+        return registry -> {
+            FunctionCounter.builder("gamification.events.duplicates", eventDeduplicator,
+                            EventDeduplicator::getDuplicateCount)
+                    .description("Events rejected because their idempotency key was already seen")
+                    .register(registry);
+            Gauge.builder("gamification.events.dedup.keys", eventDeduplicator, EventDeduplicator::getWindowSize)
+                    .description("Idempotency keys in the deduplication window")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Clients of the live leaderboard feed and the frames written to them.
+     */
+    @Bean
+    public MeterBinder leaderboardFeedMetrics(LeaderboardFeed leaderboardFeed) {
+        return registry -> {
+            Gauge.builder("gamification.feed.clients", leaderboardFeed, LeaderboardFeed::getClientCount)
+                    .description("Clients connected to the live leaderboard feed")
+                    .register(registry);
+            FunctionCounter.builder("gamification.feed.frames", leaderboardFeed, LeaderboardFeed::getFramesSent)
+                    .description("Leaderboard feed events written, once per client")
+                    .register(registry);
+            FunctionCounter.builder("gamification.feed.slow-clients", leaderboardFeed,
+                            LeaderboardFeed::getSlowClientCount)
+                    .description("Leaderboard feed clients disconnected because their outbox was full")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Database connections in use, callers waiting for one, and callers that gave up waiting.
+     */
+    @Bean
+    public MeterBinder connectionLimitMetrics(DataSource dataSource) throws SQLException {
+        if (!dataSource.isWrapperFor(ConnectionLimitingDataSource.class)) {
+            return registry -> {
+            };
+        }
+        ConnectionLimitingDataSource limiter = dataSource.unwrap(ConnectionLimitingDataSource.class);
+        return registry -> {
+            Gauge.builder("gamification.jdbc.active", limiter, ConnectionLimitingDataSource::getActiveCount)
+                    .description("Database connections handed out")
+                    .register(registry);
+            Gauge.builder("gamification.jdbc.waiting", limiter, ConnectionLimitingDataSource::getWaitingCount)
+                    .description("Threads waiting for a database connection")
+                    .register(registry);
+            FunctionCounter.builder("gamification.jdbc.timeouts", limiter,
+                            ConnectionLimitingDataSource::getTimeoutCount)
+                    .description("Callers that gave up waiting for a database connection")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * The version of the published rule set, which increases with every reload of the rules file.
+     */
+    @Bean
+    public MeterBinder ruleVersionMetrics(RuleEngine ruleEngine) {
+        return registry -> Gauge.builder("gamification.rules.version", ruleEngine,
+                        engine -> engine.getRuleIndex().getVersion())
+                .description("Version of the published rule set")
+                .register(registry);
+    }
+}
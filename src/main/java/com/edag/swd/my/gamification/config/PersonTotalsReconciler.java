@@ -0,0 +1,27 @@
+package com.edag.swd.my.gamification.config;
+
+import com.edag.swd.my.gamification.engine.GroupLockManager;
+import com.edag.swd.my.gamification.engine.LockScope;
+import com.edag.swd.my.gamification.service.PersonService;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class PersonTotalsReconciler {
+
+    /**
+     * One-off job that rebuilds the stored total points of every person from the point history.
+     * Enable it with gamification.persons.reconcile-totals=true after importing history or fixing data by hand.
+     * All group locks are held while it runs, so no event can update a total in the meantime.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "gamification.persons.reconcile-totals", havingValue = "true")
+    public CommandLineRunner reconcilePersonTotals(PersonService personService, GroupLockManager groupLockManager) {
+        return args -> {
+            int updated = groupLockManager.runLocked(LockScope.all(), personService::reconcileTotalAccumulatedPoints);
+            System.out.println("Reconciled total points of " + updated + " persons from point history.");
+        };
+    }
+}
@@ -0,0 +1,27 @@
+package com.edag.swd.my.gamification.config;
+
+import com.edag.swd.my.gamification.engine.GroupLockManager;
+import com.edag.swd.my.gamification.engine.LockScope;
+import com.edag.swd.my.gamification.rollup.RollupService;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RollupRebuilder {
+
+    /**
+     * One-off job that rebuilds the daily, weekly and monthly point rollups from the point history.
+     * Enable it with gamification.rollups.rebuild=true after importing history or changing gamification.rollups.zone.
+     * All group locks are held while it runs, so no event can add history in the meantime.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "gamification.rollups.rebuild", havingValue = "true")
+    public CommandLineRunner rebuildRollups(RollupService rollupService, GroupLockManager groupLockManager) {
+        return args -> {
+            int rows = groupLockManager.runLocked(LockScope.all(), rollupService::rebuild);
+            System.out.println("Rebuilt " + rows + " point rollups from point history.");
+        };
+    }
+}
@@ -0,0 +1,124 @@
+package com.edag.swd.my.gamification.controller;
+
+import com.edag.swd.my.gamification.eventlog.ReplayResult;
+import com.edag.swd.my.gamification.eventlog.ReplayService;
+import com.edag.swd.my.gamification.models.BatchResult;
+import com.edag.swd.my.gamification.models.Event;
+import com.edag.swd.my.gamification.models.EventRequest;
+import com.edag.swd.my.gamification.models.EventStatus;
+import com.edag.swd.my.gamification.service.AsyncEventService;
+import com.edag.swd.my.gamification.service.EventBatchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * REST API for submitting events from upstream integrations.
+ */
+@RestController
+@RequestMapping("/api/events")
+public class EventApiController {
+
+    private final EventBatchService eventBatchService;
+    private final AsyncEventService asyncEventService;
+    private final ReplayService replayService;
+    private final int retryAfterSeconds;
+
+    @Autowired
+    public EventApiController(EventBatchService eventBatchService,
+                              AsyncEventService asyncEventService,
+                              ReplayService replayService,
+                              @Value("${gamification.async.retry-after-seconds:1}") int retryAfterSeconds) {
+        this.eventBatchService = eventBatchService;
+        this.asyncEventService = asyncEventService;
+        this.replayService = replayService;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Accepts an event for asynchronous processing.
+     * Responds with 202 and the location of the event status, with 409 and the location of the DUPLICATE status
+     * if an event with the same idempotency key was already submitted, or with 429 and a Retry-After header when
+     * the event queue is full.
+     *
+     * @param request        The event to process
+     * @param idempotencyKey Identifies retries of the same event; takes precedence over the key in the body
+     * @return The status of the accepted event
+     */
+    @PostMapping
+    public ResponseEntity<EventStatus> submitEvent(@RequestBody EventRequest request,
+                                                   @RequestHeader(name = "Idempotency-Key", required = false)
+                                                   String idempotencyKey) {
+        if (request.actionType() == null || request.actionType().isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "actionType is required");
+        }
+        String key = idempotencyKey != null ? idempotencyKey : request.idempotencyKey();
+        if (key != null && (key.isBlank() || key.length() > Event.MAX_KEY_LENGTH)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Idempotency key must have 1 to " + Event.MAX_KEY_LENGTH + " characters");
+        }
+
+        Event event = new Event(request.actionType());
+        event.setIdempotencyKey(key);
+        if (request.participants() != null) {
+            event.getParticipants().putAll(request.participants());
+        }
+
+        Optional<EventStatus> status = asyncEventService.submit(event);
+        if (status.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                    .build();
+        }
+        HttpStatus httpStatus = status.get().state() == EventStatus.State.DUPLICATE
+                ? HttpStatus.CONFLICT : HttpStatus.ACCEPTED;
+        return ResponseEntity.status(httpStatus)
+                .header(HttpHeaders.LOCATION, "/api/events/" + event.getId())
+                .body(status.get());
+    }
+
+    /**
+     * Gets the processing status of an event submitted for asynchronous processing.
+     *
+     * @param eventId The ID returned when the event was submitted
+     * @return The status of the event
+     */
+    @GetMapping("/{eventId}")
+    public EventStatus getEventStatus(@PathVariable String eventId) {
+        return asyncEventService.getStatus(eventId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown event: " + eventId));
+    }
+
+    /**
+     * Processes a batch of events.
+     *
+     * @param events The events to process, in order
+     * @return The per-event result codes and the throughput of the batch
+     */
+    @PostMapping("/batch")
+    public BatchResult processBatch(@RequestBody List<EventRequest> events) {
+        if (events.size() > eventBatchService.getMaxBatchSize()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Batch exceeds the maximum of " + eventBatchService.getMaxBatchSize() + " events");
+        }
+        return eventBatchService.processBatch(events);
+    }
+
+    /**
+     * Rebuilds all scores by replaying the event log with the current rules.
+     * Event processing waits until the replay is finished.
+     *
+     * @return The number of events replayed and the throughput of the replay
+     */
+    @PostMapping("/replay")
+    public ReplayResult replay() {
+        return replayService.replay();
+    }
+}
@@ -1,5 +1,6 @@
 package com.edag.swd.my.gamification.controller;
 
+import com.edag.swd.my.gamification.engine.RuleCatalog;
 import com.edag.swd.my.gamification.service.RuleService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.ui.Model;
@@ -21,11 +22,14 @@ public class GlobalControllerAdvice {
     }
 
     /**
-     * Add all rules to the model for all requests.
+     * Add all rules and their URL slugs to the model for all requests.
      * This makes the rules available to all templates, including layouts.
+     * Both come from the cached rule catalog, so nothing is computed per request.
      */
     @ModelAttribute
     public void addGlobalAttributes(Model model) {
-        model.addAttribute("allRules", ruleService.getRules().values());
+        RuleCatalog catalog = ruleService.getRuleCatalog();
+        model.addAttribute("allRules", catalog.getRules());
+        model.addAttribute("ruleSlugs", catalog.getSlugs());
     }
 }
\ No newline at end of file
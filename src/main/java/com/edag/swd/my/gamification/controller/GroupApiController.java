@@ -0,0 +1,44 @@
+package com.edag.swd.my.gamification.controller;
+
+import com.edag.swd.my.gamification.models.MemberPage;
+import com.edag.swd.my.gamification.service.GroupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * REST API for the members of groups, loaded page by page by the members dialog of the group list.
+ */
+@RestController
+@RequestMapping("/api/groups")
+public class GroupApiController {
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final GroupService groupService;
+
+    @Autowired
+    public GroupApiController(GroupService groupService) {
+        this.groupService = groupService;
+    }
+
+    /**
+     * Gets a page of the members of a group, ordered by ID.
+     *
+     * @param id     The ID of the group
+     * @param cursor The nextCursor of the previous page, omitted for the first page
+     * @param limit  The maximum number of members to return
+     * @return The page of members
+     */
+    @GetMapping("/{id}/members")
+    public MemberPage getMembers(@PathVariable String id,
+                                 @RequestParam(required = false) String cursor,
+                                 @RequestParam(defaultValue = "50") int limit) {
+        if (limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be positive");
+        }
+        return groupService.getMembers(id, cursor == null || cursor.isBlank() ? null : cursor,
+                Math.min(limit, MAX_PAGE_SIZE));
+    }
+}
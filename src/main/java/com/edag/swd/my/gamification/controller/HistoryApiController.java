@@ -0,0 +1,134 @@
+package com.edag.swd.my.gamification.controller;
+
+import com.edag.swd.my.gamification.history.HistoryCursor;
+import com.edag.swd.my.gamification.history.HistoryExporter;
+import com.edag.swd.my.gamification.history.HistoryFormat;
+import com.edag.swd.my.gamification.history.HistoryPage;
+import com.edag.swd.my.gamification.service.GroupService;
+import com.edag.swd.my.gamification.service.PersonService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Instant;
+
+/**
+ * REST API for reading the point history of persons and groups.
+ * Pages are addressed by an opaque cursor returned with the previous page rather than by an offset,
+ * so every page costs the same no matter how far into the history it is.
+ */
+@RestController
+@RequestMapping("/api/history")
+public class HistoryApiController {
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final PersonService personService;
+    private final GroupService groupService;
+    private final HistoryExporter historyExporter;
+
+    @Autowired
+    public HistoryApiController(PersonService personService, GroupService groupService,
+                                HistoryExporter historyExporter) {
+        this.personService = personService;
+        this.groupService = groupService;
+        this.historyExporter = historyExporter;
+    }
+
+    /**
+     * Gets a page of the point history of a person, newest first.
+     *
+     * @param id     The ID of the person
+     * @param cursor The nextCursor of the previous page, omitted for the first page
+     * @param limit  The maximum number of entries to return
+     * @return The page of history entries
+     */
+    @GetMapping("/persons/{id}")
+    public HistoryPage getPersonHistory(@PathVariable String id,
+                                        @RequestParam(required = false) String cursor,
+                                        @RequestParam(defaultValue = "50") int limit) {
+        return personService.getPersonPointHistory(id, parseCursor(cursor), pageSize(limit));
+    }
+
+    /**
+     * Gets a page of the point history of a group, newest first.
+     *
+     * @param id     The ID of the group
+     * @param cursor The nextCursor of the previous page, omitted for the first page
+     * @param limit  The maximum number of entries to return
+     * @return The page of history entries
+     */
+    @GetMapping("/groups/{id}")
+    public HistoryPage getGroupHistory(@PathVariable String id,
+                                       @RequestParam(required = false) String cursor,
+                                       @RequestParam(defaultValue = "50") int limit) {
+        return groupService.getGroupPointHistory(id, parseCursor(cursor), pageSize(limit));
+    }
+
+    /**
+     * Exports the point history of all persons or all groups in a time range, oldest first.
+     * The response is streamed while the history is read.
+     *
+     * @param board  Either "persons" or "groups"
+     * @param from   The start of the range (ISO-8601 instant, inclusive), the beginning of time if omitted
+     * @param to     The end of the range (ISO-8601 instant, exclusive), now if omitted
+     * @param format Either "ndjson" or "csv"
+     * @return The streamed export
+     */
+    @GetMapping("/export/{board}")
+    public ResponseEntity<StreamingResponseBody> export(
+            @PathVariable String board,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        HistoryFormat historyFormat = parseFormat(format);
+        Instant start = from != null ? from : Instant.EPOCH;
+        Instant end = to != null ? to : Instant.now();
+
+        StreamingResponseBody body = switch (board) {
+            case "persons" -> out -> historyExporter.exportPersonHistory(start, end, historyFormat, out);
+            case "groups" -> out -> historyExporter.exportGroupHistory(start, end, historyFormat, out);
+            default -> throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown history: " + board);
+        };
+
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename(board + "-history." + historyFormat.getExtension())
+                .build();
+        return ResponseEntity.ok()
+                .contentType(historyFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .body(body);
+    }
+
+    private static HistoryCursor parseCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return HistoryCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    private static int pageSize(int limit) {
+        if (limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be positive");
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    private static HistoryFormat parseFormat(String format) {
+        try {
+            return HistoryFormat.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown format: " + format);
+        }
+    }
+}
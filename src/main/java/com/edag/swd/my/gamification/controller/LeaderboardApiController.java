@@ -0,0 +1,108 @@
+package com.edag.swd.my.gamification.controller;
+
+import com.edag.swd.my.gamification.leaderboard.Leaderboard;
+import com.edag.swd.my.gamification.leaderboard.LeaderboardEntry;
+import com.edag.swd.my.gamification.leaderboard.LeaderboardFeed;
+import com.edag.swd.my.gamification.leaderboard.LeaderboardService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * REST API for querying the person and group leaderboards.
+ * The board path variable is either "persons" or "groups".
+ */
+@RestController
+@RequestMapping("/api/leaderboard")
+public class LeaderboardApiController {
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final LeaderboardService leaderboardService;
+    private final LeaderboardFeed leaderboardFeed;
+
+    @Autowired
+    public LeaderboardApiController(LeaderboardService leaderboardService, LeaderboardFeed leaderboardFeed) {
+        this.leaderboardService = leaderboardService;
+        this.leaderboardFeed = leaderboardFeed;
+    }
+
+    /**
+     * Streams the changes of both leaderboards as Server-Sent Events.
+     * The stream starts with a "snapshot" event holding the top entries of both leaderboards, followed by a
+     * "delta" event with the latest total and rank of every person and group that changed since the previous
+     * event. Responds with 503 when the maximum number of clients is connected.
+     *
+     * @param interval The minimum time between two events in milliseconds
+     * @param top      The number of entries of each leaderboard in snapshots
+     * @return The event stream
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestParam(defaultValue = "1000") long interval,
+                             @RequestParam(defaultValue = "10") int top) {
+        int entries = Math.max(0, Math.min(top, MAX_PAGE_SIZE));
+        return leaderboardFeed.subscribe(Duration.ofMillis(Math.max(0, interval)), entries)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                        "Too many leaderboard stream clients"));
+    }
+
+    /**
+     * Gets a page of the leaderboard, highest points first.
+     *
+     * @param board  The leaderboard to query
+     * @param offset The 0-based position of the first entry
+     * @param limit  The maximum number of entries to return
+     * @return The ranked entries
+     */
+    @GetMapping("/{board}")
+    public List<LeaderboardEntry> getPage(@PathVariable String board,
+                                          @RequestParam(defaultValue = "0") int offset,
+                                          @RequestParam(defaultValue = "10") int limit) {
+        return leaderboard(board).range(offset, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Gets the rank of a person or group.
+     *
+     * @param board The leaderboard to query
+     * @param id    The ID of the person or group
+     * @return The ranked entry
+     */
+    @GetMapping("/{board}/{id}")
+    public LeaderboardEntry getEntry(@PathVariable String board, @PathVariable String id) {
+        return leaderboard(board).get(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Not ranked: " + id));
+    }
+
+    /**
+     * Gets the entries ranked around a person or group.
+     *
+     * @param board  The leaderboard to query
+     * @param id     The ID of the person or group
+     * @param radius The number of entries to include above and below
+     * @return The ranked entries
+     */
+    @GetMapping("/{board}/{id}/around")
+    public List<LeaderboardEntry> getAround(@PathVariable String board, @PathVariable String id,
+                                            @RequestParam(defaultValue = "5") int radius) {
+        List<LeaderboardEntry> entries = leaderboard(board).around(id, Math.min(radius, MAX_PAGE_SIZE / 2));
+        if (entries.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Not ranked: " + id);
+        }
+        return entries;
+    }
+
+    private Leaderboard leaderboard(String board) {
+        return switch (board) {
+            case "persons" -> leaderboardService.getPersons();
+            case "groups" -> leaderboardService.getGroups();
+            default -> throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown leaderboard: " + board);
+        };
+    }
+}
@@ -0,0 +1,86 @@
+package com.edag.swd.my.gamification.controller;
+
+import com.edag.swd.my.gamification.rollup.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * REST API for daily, weekly and monthly point totals, answered from the point rollups.
+ * The board path variable is either "persons" or "groups".
+ */
+@RestController
+@RequestMapping("/api/rollups")
+public class RollupApiController {
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final RollupService rollupService;
+
+    @Autowired
+    public RollupApiController(RollupService rollupService) {
+        this.rollupService = rollupService;
+    }
+
+    /**
+     * Gets the persons or groups with the most points in a day, week or month.
+     *
+     * @param board       The subjects to rank
+     * @param granularity Either "day", "week" or "month"
+     * @param at          An instant within the period (ISO-8601), now if omitted
+     * @param rule        The rule to count points of, all rules if omitted
+     * @param limit       The maximum number of totals to return
+     * @return The period and its totals, highest points first
+     */
+    @GetMapping("/{board}")
+    public RollupTotals getTotals(@PathVariable String board,
+                                  @RequestParam(defaultValue = "week") String granularity,
+                                  @RequestParam(required = false)
+                                  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant at,
+                                  @RequestParam(required = false) String rule,
+                                  @RequestParam(defaultValue = "10") int limit) {
+        return rollupService.getTotals(parseGranularity(granularity), at != null ? at : Instant.now(),
+                subjectType(board), rule, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+    }
+
+    /**
+     * Gets the per-rule points of a person or group for each day, week or month in a time range.
+     *
+     * @param board       The kind of subject
+     * @param id          The ID of the person or group
+     * @param granularity Either "day", "week" or "month"
+     * @param from        An instant within the first period (ISO-8601)
+     * @param to          The end of the range (ISO-8601, exclusive), now if omitted
+     * @return The buckets, oldest first
+     */
+    @GetMapping("/{board}/{id}")
+    public List<RollupBucket> getBuckets(@PathVariable String board, @PathVariable String id,
+                                         @RequestParam(defaultValue = "day") String granularity,
+                                         @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                         @RequestParam(required = false)
+                                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        return rollupService.getBuckets(subjectType(board), id, parseGranularity(granularity), from,
+                to != null ? to : Instant.now());
+    }
+
+    private static SubjectType subjectType(String board) {
+        return switch (board) {
+            case "persons" -> SubjectType.PERSON;
+            case "groups" -> SubjectType.GROUP;
+            default -> throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown rollup: " + board);
+        };
+    }
+
+    private static Granularity parseGranularity(String granularity) {
+        try {
+            return Granularity.valueOf(granularity.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown granularity: " + granularity);
+        }
+    }
+}
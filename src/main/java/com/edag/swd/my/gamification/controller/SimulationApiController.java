@@ -0,0 +1,40 @@
+package com.edag.swd.my.gamification.controller;
+
+import com.edag.swd.my.gamification.simulation.SimulationRequest;
+import com.edag.swd.my.gamification.simulation.SimulationResult;
+import com.edag.swd.my.gamification.simulation.SimulationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * REST API for trying out rule changes against past events before publishing them.
+ */
+@RestController
+@RequestMapping("/api/simulations")
+public class SimulationApiController {
+
+    private final SimulationService simulationService;
+
+    @Autowired
+    public SimulationApiController(SimulationService simulationService) {
+        this.simulationService = simulationService;
+    }
+
+    /**
+     * Projects the point and rank changes a candidate rule set would have made to the events of a time range.
+     * Nothing is changed. Responds with 400 if the range is empty or a candidate rule is invalid.
+     *
+     * @param request The time range and candidate rules
+     * @return The projected changes, by projected rank
+     */
+    @PostMapping
+    public SimulationResult simulate(@RequestBody SimulationRequest request) {
+        try {
+            return simulationService.simulate(request);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+}
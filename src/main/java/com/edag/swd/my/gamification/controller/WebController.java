@@ -1,10 +1,12 @@
 package com.edag.swd.my.gamification.controller;
 
-import com.edag.swd.my.gamification.config.ConditionConfig;
-import com.edag.swd.my.gamification.config.OutcomeConfig;
 import com.edag.swd.my.gamification.config.RuleConfig;
-import com.edag.swd.my.gamification.entity.Group;
-import com.edag.swd.my.gamification.entity.Person;
+import com.edag.swd.my.gamification.engine.RuleCatalog;
+import com.edag.swd.my.gamification.engine.RuleValidator;
+import com.edag.swd.my.gamification.models.Event;
+import com.edag.swd.my.gamification.models.GroupCount;
+import com.edag.swd.my.gamification.models.GroupSummary;
+import com.edag.swd.my.gamification.models.PersonSummary;
 import com.edag.swd.my.gamification.service.GroupService;
 import com.edag.swd.my.gamification.service.PersonService;
 import com.edag.swd.my.gamification.service.RuleService;
@@ -19,7 +21,6 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Controller("/api/")
 public class WebController {
@@ -42,19 +43,14 @@ public class WebController {
 
     @GetMapping("/persons")
     public String listPersons(Model model) {
-        List<Person> persons = personService.getAllPersons();
+        // Persons in leaderboard order (highest points first); the history dialog loads its entries on demand
+        List<PersonSummary> sortedPersons = personService.getPersonSummariesRankedByPoints();
 
-        // Sort persons by total accumulated points (highest first)
-        List<Person> sortedPersons = new ArrayList<>(persons);
-        sortedPersons.sort(Comparator.comparingInt(Person::getTotalAccumulatedPoints).reversed());
-
-        // Group persons by group (null-safe)
-        Map<String, Long> groupCounts = sortedPersons.stream()
-                .collect(Collectors.groupingBy(
-                        p -> p.getGroup() != null ? p.getGroup().getName() : "None",
-                        LinkedHashMap::new,
-                        Collectors.counting()
-                ));
+        // Persons per group, counted by the database
+        Map<String, Long> groupCounts = new LinkedHashMap<>();
+        for (GroupCount count : personService.countPersonsByGroup()) {
+            groupCounts.put(count.groupName() != null ? count.groupName() : "None", count.persons());
+        }
 
         model.addAttribute("groupCounts", groupCounts);
 
@@ -64,29 +60,25 @@ public class WebController {
 
     @GetMapping("/groups")
     public String listGroups(Model model) {
-        List<Group> allGroups = groupService.getAllGroups();
+        // The members and history dialogs load their entries on demand
+        List<GroupSummary> allGroups = groupService.getGroupSummaries();
         model.addAttribute("groups", allGroups);
 
-        List<Group> sortedGroupsForRanking = new ArrayList<>(allGroups);
-        sortedGroupsForRanking.sort(Comparator.comparingInt(Group::getTotalGroupPoints).reversed());
-        model.addAttribute("rankedGroups", sortedGroupsForRanking);
+        model.addAttribute("rankedGroups", groupService.getGroupSummariesRankedByPoints(allGroups));
         return "groups/list";
     }
 
     @GetMapping("/rules")
     public String listRules(Model model) {
-        model.addAttribute("rules", ruleService.getRules().values());
+        model.addAttribute("rules", ruleService.getRuleCatalog().getRules());
         return "rules/list";
     }
 
     // Dynamic rule form handler
     @GetMapping("/rules/{ruleName}")
     public String ruleForm(@PathVariable String ruleName, Model model) {
-        // Find the rule by name
-        var rule = ruleService.getRules().values().stream()
-                .filter(r -> r.getRuleName().replace(" ", "-").toLowerCase().equals(ruleName))
-                .findFirst()
-                .orElse(null);
+        // Find the rule by its URL slug
+        RuleConfig rule = ruleService.getRuleCatalog().findBySlug(ruleName).orElse(null);
 
         if (rule == null) {
             // If rule not found, redirect to rules list
@@ -95,7 +87,10 @@ public class WebController {
 
         // Add rule and persons to model
         model.addAttribute("rule", rule);
-        model.addAttribute("persons", personService.getAllPersons());
+        model.addAttribute("persons", personService.getPersonSummaries());
+
+        // A new key per rendered form, so resubmitting the same form is recognized as a duplicate
+        model.addAttribute("idempotencyKey", UUID.randomUUID().toString());
 
         return "rules/rule-form";
     }
@@ -106,17 +101,14 @@ public class WebController {
             @PathVariable String actionType,
             @RequestParam(required = false) List<String> penaltyIds,
             @RequestParam(required = false) List<String> awardIds,
+            @RequestParam(required = false) String idempotencyKey,
             @RequestParam(required = false) Map<String, String> allParams,
             RedirectAttributes redirectAttributes) {
 
         Map<String, String> participants = new HashMap<>();
 
         // Find the rule by action type
-        RuleConfig rule = ruleService.getRules().values().stream()
-                .filter(r -> r.getConditions().stream()
-                        .anyMatch(c -> c.getValue().equals(actionType)))
-                .findFirst()
-                .orElse(null);
+        RuleConfig rule = ruleService.getRuleCatalog().findByActionType(actionType).orElse(null);
 
         // If rule is not found or not active, redirect to a rule list
         if (rule == null || !rule.isActive()) {
@@ -160,23 +152,30 @@ public class WebController {
             }
         }
 
-        // Process the event
-        ruleService.processEvent(actionType, participants);
+        // Process the event, unless this form was already submitted
+        if (idempotencyKey != null && idempotencyKey.length() > Event.MAX_KEY_LENGTH) {
+            redirectAttributes.addFlashAttribute("error",
+                    "Idempotency key must have 1 to " + Event.MAX_KEY_LENGTH + " characters");
+            return "redirect:/rules/" + RuleCatalog.slugOf(rule.getRuleName());
+        }
+        boolean duplicate;
+        if (idempotencyKey != null && !idempotencyKey.isBlank()) {
+            duplicate = ruleService.processUniqueEvent(idempotencyKey, actionType, participants).isEmpty();
+        } else {
+            ruleService.processEvent(actionType, participants);
+            duplicate = false;
+        }
 
-        // Find the rule name from the action type
-        String ruleName = ruleService.getRules().values().stream()
-                .filter(r -> r.getConditions().stream()
-                        .anyMatch(c -> c.getValue().equals(actionType)))
-                .findFirst()
-                .map(RuleConfig::getRuleName)
-                .orElse("Rule");
+        String ruleName = rule.getRuleName();
 
         // Add success message
-        redirectAttributes.addFlashAttribute("success", ruleName + " rule executed successfully");
+        if (duplicate) {
+            redirectAttributes.addFlashAttribute("error", ruleName + " rule was already executed for this form");
+        } else {
+            redirectAttributes.addFlashAttribute("success", ruleName + " rule executed successfully");
+        }
 
-        // Convert rule name to URL format
-        String ruleUrl = ruleName.replace(" ", "-").toLowerCase();
-        return "redirect:/rules/" + ruleUrl;
+        return "redirect:/rules/" + RuleCatalog.slugOf(ruleName);
     }
 
     /**
@@ -205,7 +204,7 @@ public class WebController {
             RuleConfig rule = mapper.readValue(ruleJson, RuleConfig.class);
 
             // Validate the rule
-            if (!validateRule(rule)) {
+            if (!RuleValidator.isValid(rule)) {
                 redirectAttributes.addFlashAttribute("error", "Invalid rule configuration");
                 return "redirect:/rules/create";
             }
@@ -225,56 +224,4 @@ public class WebController {
             return "redirect:/rules/create";
         }
     }
-
-    /**
-     * Validates a rule configuration.
-     *
-     * @param rule The rule to validate
-     * @return true if the rule is valid, false otherwise
-     */
-    private boolean validateRule(RuleConfig rule) {
-        // Check if rule name is provided
-        if (rule.getRuleName() == null || rule.getRuleName().trim().isEmpty()) {
-            return false;
-        }
-
-        // Check if description is provided
-        if (rule.getDescription() == null || rule.getDescription().trim().isEmpty()) {
-            return false;
-        }
-
-        // Check if at least one condition is provided
-        if (rule.getConditions() == null || rule.getConditions().isEmpty()) {
-            return false;
-        }
-
-        // Check if all conditions have a type and value
-        for (ConditionConfig condition : rule.getConditions()) {
-            if (condition.getType() == null || condition.getType().trim().isEmpty() ||
-                    condition.getValue() == null || condition.getValue().trim().isEmpty()) {
-                return false;
-            }
-        }
-
-        // Check if at least one outcome is provided
-        if (rule.getOutcomes() == null || rule.getOutcomes().isEmpty()) {
-            return false;
-        }
-
-        // Check if all outcomes have a type, points, target, and reason
-        for (OutcomeConfig outcome : rule.getOutcomes()) {
-            if (outcome.getType() == null || outcome.getType().trim().isEmpty() ||
-                    outcome.getTarget() == null || outcome.getTarget().trim().isEmpty() ||
-                    outcome.getReason() == null || outcome.getReason().trim().isEmpty()) {
-                return false;
-            }
-        }
-
-        // Check if cap is valid
-        if (rule.getCap() != null && rule.getCap().getMaxPoints() <= 0) {
-            return false;
-        }
-
-        return true;
-    }
-}
\ No newline at end of file
+}
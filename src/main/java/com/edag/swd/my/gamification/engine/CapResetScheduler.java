@@ -0,0 +1,207 @@
+package com.edag.swd.my.gamification.engine;
+
+import com.edag.swd.my.gamification.audit.AuditLog;
+import com.edag.swd.my.gamification.audit.AuditRecord;
+import com.edag.swd.my.gamification.config.RuleConfig;
+import com.edag.swd.my.gamification.entity.CapReset;
+import com.edag.swd.my.gamification.metrics.RuleMetrics;
+import com.edag.swd.my.gamification.repository.ActivityPointsRepository;
+import com.edag.swd.my.gamification.repository.CapResetRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Resets the capped activity points of rules at the boundaries of their reset period.
+ * Each rule with a {@code cap.resetPeriod} gets one scheduled task, which deletes the activity points of
+ * all groups for that rule in a single statement and records the boundary it reset at. Resets missed while
+ * the application was down are caught up on startup, so event processing never has to check for them.
+ */
+@Component
+public class CapResetScheduler {
+    private final RuleEngine ruleEngine;
+    private final ActivityPointsRepository activityPointsRepository;
+    private final CapResetRepository capResetRepository;
+    private final GroupLockManager groupLockManager;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditLog auditLog;
+    private final RuleMetrics ruleMetrics;
+    private final ZoneId zone;
+    private final ScheduledExecutorService executor;
+
+    // Scheduled reset of each rule, with the reset period it was scheduled for
+    private final Map<String, ScheduledReset> scheduledResets = new HashMap<>();
+
+    private record ScheduledReset(String resetPeriod, ScheduledFuture<?> future) {
+    }
+
+    @Autowired
+    public CapResetScheduler(RuleEngine ruleEngine,
+                             ActivityPointsRepository activityPointsRepository,
+                             CapResetRepository capResetRepository,
+                             GroupLockManager groupLockManager,
+                             PlatformTransactionManager transactionManager,
+                             AuditLog auditLog,
+                             RuleMetrics ruleMetrics,
+                             @Value("${gamification.caps.reset-zone:}") String zone) {
+        this.ruleEngine = ruleEngine;
+        this.activityPointsRepository = activityPointsRepository;
+        this.capResetRepository = capResetRepository;
+        this.groupLockManager = groupLockManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.auditLog = auditLog;
+        this.ruleMetrics = ruleMetrics;
+        this.zone = zone.isBlank() ? ZoneId.systemDefault() : ZoneId.of(zone);
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cap-reset");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Converts a reset period to the cron expression of its boundaries.
+     * Daily resets happen at midnight, weekly resets on Monday at midnight and monthly resets at midnight
+     * on the first day of the month.
+     *
+     * @param resetPeriod "daily", "weekly", "monthly" or a cron expression
+     * @return The cron expression
+     * @throws IllegalArgumentException If the reset period is not valid
+     */
+    public static CronExpression toCronExpression(String resetPeriod) {
+        return switch (resetPeriod.trim().toLowerCase(Locale.ROOT)) {
+            case "daily" -> CronExpression.parse("@daily");
+            case "weekly" -> CronExpression.parse("0 0 0 * * MON");
+            case "monthly" -> CronExpression.parse("@monthly");
+            default -> CronExpression.parse(resetPeriod.trim());
+        };
+    }
+
+    /**
+     * Schedules the resets of all rules with a reset period, and cancels those of rules that no longer have one.
+     * Rules whose last recorded reset is older than their latest boundary are reset right away.
+     * Call it whenever the rules change.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void refresh() {
+        Map<String, RuleConfig> rules = ruleEngine.getRules();
+        Instant now = Instant.now();
+
+        scheduledResets.entrySet().removeIf(entry -> {
+            boolean unchanged = Objects.equals(resetPeriod(rules.get(entry.getKey())), entry.getValue().resetPeriod());
+            if (!unchanged) {
+                entry.getValue().future().cancel(false);
+            }
+            return !unchanged;
+        });
+
+        for (RuleConfig rule : rules.values()) {
+            String resetPeriod = resetPeriod(rule);
+            if (resetPeriod == null) continue;
+
+            CronExpression cron;
+            try {
+                cron = toCronExpression(resetPeriod);
+            } catch (IllegalArgumentException e) {
+                System.err.println("Invalid reset period '" + resetPeriod + "' for rule " + rule.getRuleName()
+                        + ": " + e.getMessage());
+                continue;
+            }
+
+            catchUp(rule.getRuleName(), cron, now);
+            if (!scheduledResets.containsKey(rule.getRuleName())) {
+                schedule(rule.getRuleName(), resetPeriod, cron, now);
+            }
+        }
+    }
+
+    /**
+     * Resets the capped activity points of a rule for all groups.
+     * Holds all group locks while resetting, so no event sees a partially reset rule.
+     *
+     * @param ruleName The name of the rule
+     * @param boundary The reset period boundary to record as the last reset
+     * @return The number of groups whose capped points were reset
+     */
+    public int reset(String ruleName, Instant boundary) {
+        int resetGroups = groupLockManager.runLocked(LockScope.all(), () -> transactionTemplate.execute(status -> {
+            int deleted = activityPointsRepository.deleteAllByRuleName(ruleName);
+            capResetRepository.save(new CapReset(ruleName, boundary));
+            return deleted;
+        }));
+        auditLog.record(AuditRecord.capReset(ruleName, resetGroups));
+        ruleMetrics.capReset(ruleName, resetGroups);
+        return resetGroups;
+    }
+
+    // Resets a rule once if one or more of its boundaries passed since the last recorded reset
+    private void catchUp(String ruleName, CronExpression cron, Instant now) {
+        Optional<CapReset> lastReset = capResetRepository.findById(ruleName);
+        if (lastReset.isEmpty()) {
+            // First time the rule is scheduled; its current points count towards the running period
+            transactionTemplate.executeWithoutResult(status -> capResetRepository.save(new CapReset(ruleName, now)));
+            return;
+        }
+
+        Instant boundary = null;
+        ZonedDateTime next = cron.next(lastReset.get().getLastResetAt().atZone(zone));
+        while (next != null && !next.toInstant().isAfter(now)) {
+            boundary = next.toInstant();
+            next = cron.next(next);
+        }
+        if (boundary != null) {
+            reset(ruleName, boundary);
+        }
+    }
+
+    private void schedule(String ruleName, String resetPeriod, CronExpression cron, Instant after) {
+        ZonedDateTime next = cron.next(after.atZone(zone));
+        if (next == null) return;
+
+        Instant boundary = next.toInstant();
+        long delayMillis = Math.max(0, Duration.between(Instant.now(), boundary).toMillis());
+        ScheduledFuture<?> future = executor.schedule(() -> resetAndReschedule(ruleName, resetPeriod, cron, boundary),
+                delayMillis, TimeUnit.MILLISECONDS);
+        scheduledResets.put(ruleName, new ScheduledReset(resetPeriod, future));
+    }
+
+    private void resetAndReschedule(String ruleName, String resetPeriod, CronExpression cron, Instant boundary) {
+        try {
+            reset(ruleName, boundary);
+        } catch (RuntimeException e) {
+            System.err.println("Error resetting caps of rule " + ruleName + ": " + e.getMessage());
+        }
+
+        synchronized (this) {
+            ScheduledReset current = scheduledResets.get(ruleName);
+            // The rule may have changed or been removed while it was being reset
+            if (current != null && current.resetPeriod().equals(resetPeriod)) {
+                schedule(ruleName, resetPeriod, cron, boundary);
+            }
+        }
+    }
+
+    private static String resetPeriod(RuleConfig rule) {
+        if (rule == null || rule.getCap() == null) return null;
+        String resetPeriod = rule.getCap().getResetPeriod();
+        return resetPeriod == null || resetPeriod.isBlank() ? null : resetPeriod;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,108 @@
+package com.edag.swd.my.gamification.engine;
+
+import com.edag.swd.my.gamification.config.ConditionConfig;
+import com.edag.swd.my.gamification.config.OutcomeConfig;
+import com.edag.swd.my.gamification.config.RuleConfig;
+
+import java.util.*;
+
+/**
+ * Immutable, pre-analysed form of a {@link RuleConfig}.
+ * Everything the engine used to derive from the configuration on every event (outcome type
+ * classification, award/penalty targets and the outcome per target) is computed once at load time.
+ *
+ * @param config          The rule configuration this rule was compiled from
+ * @param actionType      The lower-cased action type the rule is triggered by, or null if the rule matches any action
+ * @param multiOutcome    Whether the rule has both award and penalty outcomes
+ * @param outcomes        The outcomes of the rule, in configuration order
+ * @param awardTargets    The distinct targets of the award outcomes
+ * @param penaltyTargets  The distinct targets of the penalty outcomes
+ * @param awardOutcomes   The first award outcome for each target
+ * @param penaltyOutcomes The first penalty outcome for each target
+ */
+public record CompiledRule(RuleConfig config,
+                           String actionType,
+                           boolean multiOutcome,
+                           List<CompiledOutcome> outcomes,
+                           List<String> awardTargets,
+                           List<String> penaltyTargets,
+                           Map<String, OutcomeConfig> awardOutcomes,
+                           Map<String, OutcomeConfig> penaltyOutcomes) {
+
+    /**
+     * An outcome together with its pre-computed type classification.
+     *
+     * @param config The outcome configuration
+     * @param award  true if the outcome is an award, false otherwise
+     */
+    public record CompiledOutcome(OutcomeConfig config, boolean award) {
+    }
+
+    /**
+     * Compiles a rule configuration.
+     *
+     * @param rule The rule to compile
+     * @return The compiled rule, or null if the rule can never match an action
+     */
+    public static CompiledRule compile(RuleConfig rule) {
+        // A rule matches when all of its conditions are "action" conditions for the same action type
+        String actionType = null;
+        List<ConditionConfig> conditions = rule.getConditions() != null ? rule.getConditions() : List.of();
+        for (ConditionConfig condition : conditions) {
+            if (!"action".equalsIgnoreCase(condition.getType()) || condition.getValue() == null) {
+                return null;
+            }
+            String value = normalize(condition.getValue());
+            if (actionType != null && !actionType.equals(value)) {
+                return null;
+            }
+            actionType = value;
+        }
+
+        List<CompiledOutcome> outcomes = new ArrayList<>();
+        Map<String, OutcomeConfig> awardOutcomes = new LinkedHashMap<>();
+        Map<String, OutcomeConfig> penaltyOutcomes = new LinkedHashMap<>();
+        boolean hasAward = false;
+        boolean hasPenalty = false;
+
+        for (OutcomeConfig outcome : rule.getOutcomes() != null ? rule.getOutcomes() : List.<OutcomeConfig>of()) {
+            boolean award = "award".equalsIgnoreCase(outcome.getType());
+            boolean penalty = "penalty".equalsIgnoreCase(outcome.getType());
+            hasAward |= award;
+            hasPenalty |= penalty;
+            outcomes.add(new CompiledOutcome(outcome, award));
+
+            if (outcome.getTarget() != null) {
+                if (award) {
+                    awardOutcomes.putIfAbsent(outcome.getTarget(), outcome);
+                } else if (penalty) {
+                    penaltyOutcomes.putIfAbsent(outcome.getTarget(), outcome);
+                }
+            }
+        }
+
+        return new CompiledRule(
+                rule,
+                actionType,
+                hasAward && hasPenalty,
+                List.copyOf(outcomes),
+                List.copyOf(awardOutcomes.keySet()),
+                List.copyOf(penaltyOutcomes.keySet()),
+                Collections.unmodifiableMap(awardOutcomes),
+                Collections.unmodifiableMap(penaltyOutcomes));
+    }
+
+    /**
+     * Normalizes an action type for case-insensitive lookups.
+     *
+     * @param actionType The action type to normalize
+     * @return The lower-cased action type
+     */
+    public static String normalize(String actionType) {
+        return actionType.toLowerCase(Locale.ROOT);
+    }
+
+    public String ruleName() {
+        return config.getRuleName();
+    }
+}
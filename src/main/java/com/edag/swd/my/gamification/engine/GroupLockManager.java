@@ -0,0 +1,92 @@
+package com.edag.swd.my.gamification.engine;
+
+import com.edag.swd.my.gamification.audit.AuditLog;
+import com.edag.swd.my.gamification.audit.AuditRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Serializes work on the same group while letting work on different groups run in parallel.
+ * Groups are mapped onto a fixed number of lock stripes by ID. Stripes are always acquired in ascending
+ * order, so callers locking overlapping sets of groups cannot deadlock.
+ * <p>
+ * The locks only coordinate threads of this application; updates from elsewhere are caught by the
+ * optimistic {@code @Version} checks on the entities, and the work is retried.
+ */
+@Component
+public class GroupLockManager {
+    private final ReentrantLock[] stripes;
+    private final int maxAttempts;
+    private final AuditLog auditLog;
+
+    @Autowired
+    public GroupLockManager(@Value("${gamification.locking.stripes:64}") int stripeCount,
+                            @Value("${gamification.locking.max-attempts:3}") int maxAttempts,
+                            AuditLog auditLog) {
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.maxAttempts = maxAttempts;
+        this.auditLog = auditLog;
+    }
+
+    /**
+     * Runs an action while holding the locks of the given groups.
+     * The action must commit its own transaction before returning, otherwise other threads may read
+     * the groups before the changes are visible. If the action fails with an optimistic locking
+     * failure, it is retried up to the configured number of attempts.
+     *
+     * @param scope  The groups the action may modify
+     * @param action The action to run
+     * @return The result of the action
+     */
+    public <T> T runLocked(LockScope scope, Supplier<T> action) {
+        int[] stripeIndexes = stripeIndexes(scope);
+
+        for (int attempt = 1; ; attempt++) {
+            lock(stripeIndexes);
+            try {
+                return action.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                auditLog.record(AuditRecord.retry(attempt + 1, maxAttempts));
+            } finally {
+                unlock(stripeIndexes);
+            }
+        }
+    }
+
+    private int[] stripeIndexes(LockScope scope) {
+        if (scope.allGroups()) {
+            int[] all = new int[stripes.length];
+            Arrays.setAll(all, i -> i);
+            return all;
+        }
+        return scope.groupIds().stream()
+                .mapToInt(groupId -> Math.floorMod(groupId.hashCode(), stripes.length))
+                .distinct()
+                .sorted()
+                .toArray();
+    }
+
+    private void lock(int[] stripeIndexes) {
+        for (int index : stripeIndexes) {
+            stripes[index].lock();
+        }
+    }
+
+    private void unlock(int[] stripeIndexes) {
+        for (int i = stripeIndexes.length - 1; i >= 0; i--) {
+            stripes[stripeIndexes[i]].unlock();
+        }
+    }
+}
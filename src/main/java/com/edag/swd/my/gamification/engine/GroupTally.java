@@ -0,0 +1,92 @@
+package com.edag.swd.my.gamification.engine;
+
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * The in-memory score of a group and its members, as built by a {@link ScoreEvaluator}.
+ * Not thread-safe; a tally must only be evaluated by one thread at a time.
+ */
+public final class GroupTally {
+    private final String groupId;
+    private final List<String> memberIds;
+    private final Map<String, Integer> memberPoints = new HashMap<>();
+    private final Map<String, Integer> activityPoints = new HashMap<>();
+
+    // When the capped points of each rule with a reset period are reset next
+    private final Map<String, Instant> capResetAt = new HashMap<>();
+
+    private int points;
+
+    GroupTally(String groupId, List<String> memberIds) {
+        this.groupId = groupId;
+        this.memberIds = List.copyOf(memberIds);
+    }
+
+    public String getGroupId() {
+        return groupId;
+    }
+
+    public List<String> getMemberIds() {
+        return memberIds;
+    }
+
+    /**
+     * Gets the total points of the group.
+     *
+     * @return The total points
+     */
+    public int getPoints() {
+        return points;
+    }
+
+    /**
+     * Gets the total points of a member.
+     *
+     * @param personId The ID of the member
+     * @return The total points, 0 for persons without points
+     */
+    public int getMemberPoints(String personId) {
+        return memberPoints.getOrDefault(personId, 0);
+    }
+
+    /**
+     * Gets the capped points of each rule that have not been reset by a given instant.
+     *
+     * @param at The instant
+     * @return Map of rule names to capped points
+     */
+    public Map<String, Integer> getActivityPoints(Instant at) {
+        Map<String, Integer> current = new HashMap<>(activityPoints);
+        capResetAt.forEach((ruleName, resetAt) -> {
+            if (!at.isBefore(resetAt)) {
+                current.remove(ruleName);
+            }
+        });
+        return current;
+    }
+
+    void addPoints(int pointsToAdd) {
+        points += pointsToAdd;
+    }
+
+    void addMemberPoints(String personId, int pointsToAdd) {
+        memberPoints.merge(personId, pointsToAdd, Integer::sum);
+    }
+
+    int getActivityPoints(String ruleName, Instant at) {
+        Instant resetAt = capResetAt.get(ruleName);
+        if (resetAt != null && !at.isBefore(resetAt)) {
+            activityPoints.remove(ruleName);
+            capResetAt.remove(ruleName);
+        }
+        return activityPoints.getOrDefault(ruleName, 0);
+    }
+
+    void setActivityPoints(String ruleName, int activity, Instant resetAt) {
+        activityPoints.put(ruleName, activity);
+        if (resetAt != null) {
+            capResetAt.putIfAbsent(ruleName, resetAt);
+        }
+    }
+}
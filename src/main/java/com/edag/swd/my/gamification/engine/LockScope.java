@@ -0,0 +1,37 @@
+package com.edag.swd.my.gamification.engine;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The set of groups an event may modify, used to decide which group locks it needs.
+ *
+ * @param allGroups true if the event may modify any group
+ * @param groupIds  The IDs of the groups the event may modify, if not all groups
+ */
+public record LockScope(boolean allGroups, Set<String> groupIds) {
+    private static final LockScope ALL = new LockScope(true, Set.of());
+
+    public static LockScope all() {
+        return ALL;
+    }
+
+    public static LockScope of(Set<String> groupIds) {
+        return new LockScope(false, Set.copyOf(groupIds));
+    }
+
+    /**
+     * Combines this scope with another scope.
+     *
+     * @param other The scope to combine with
+     * @return A scope covering the groups of both scopes
+     */
+    public LockScope merge(LockScope other) {
+        if (allGroups || other.allGroups) {
+            return ALL;
+        }
+        Set<String> merged = new HashSet<>(groupIds);
+        merged.addAll(other.groupIds);
+        return of(merged);
+    }
+}
@@ -0,0 +1,10 @@
+package com.edag.swd.my.gamification.engine;
+
+/**
+ * The group a person belongs to, as loaded to build a {@link Scoreboard}.
+ *
+ * @param personId The ID of the person
+ * @param groupId  The ID of the person's group
+ */
+public record Membership(String personId, String groupId) {
+}
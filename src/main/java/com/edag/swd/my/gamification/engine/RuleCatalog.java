@@ -0,0 +1,100 @@
+package com.edag.swd.my.gamification.engine;
+
+import com.edag.swd.my.gamification.config.ConditionConfig;
+import com.edag.swd.my.gamification.config.RuleConfig;
+
+import java.util.*;
+
+/**
+ * Lookups of the web interface over one version of the rules: the rule behind each URL slug and behind each action
+ * type submitted by a rule form. Built once per {@link RuleIndex} version, so requests look rules up in constant time
+ * instead of scanning and re-deriving slugs.
+ */
+public final class RuleCatalog {
+    private final long version;
+    private final Collection<RuleConfig> rules;
+    private final Map<String, String> slugsByRuleName;
+    private final Map<String, RuleConfig> rulesBySlug;
+    private final Map<String, RuleConfig> rulesByActionType;
+
+    /**
+     * Creates the catalog of a rule set.
+     *
+     * @param ruleIndex The rules
+     */
+    public RuleCatalog(RuleIndex ruleIndex) {
+        Map<String, String> slugs = new HashMap<>();
+        Map<String, RuleConfig> bySlug = new HashMap<>();
+        Map<String, RuleConfig> byActionType = new HashMap<>();
+        for (RuleConfig rule : ruleIndex.getRules().values()) {
+            String slug = slugOf(rule.getRuleName());
+            slugs.put(rule.getRuleName(), slug);
+            // Like a scan in rule order, the first rule wins a shared slug or action type
+            bySlug.putIfAbsent(slug, rule);
+            if (rule.getConditions() == null) continue;
+            for (ConditionConfig condition : rule.getConditions()) {
+                if (condition.getValue() != null) {
+                    byActionType.putIfAbsent(condition.getValue(), rule);
+                }
+            }
+        }
+
+        this.version = ruleIndex.getVersion();
+        this.rules = ruleIndex.getRules().values();
+        this.slugsByRuleName = Map.copyOf(slugs);
+        this.rulesBySlug = Map.copyOf(bySlug);
+        this.rulesByActionType = Map.copyOf(byActionType);
+    }
+
+    /**
+     * Derives the URL slug of a rule name, e.g. "SAP Hours" becomes "sap-hours".
+     *
+     * @param ruleName The name of the rule
+     * @return The slug
+     */
+    public static String slugOf(String ruleName) {
+        return ruleName.replace(" ", "-").toLowerCase();
+    }
+
+    /**
+     * Gets the version of the rule index the catalog was built from.
+     *
+     * @return The version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public Collection<RuleConfig> getRules() {
+        return rules;
+    }
+
+    /**
+     * Gets the URL slug of every rule.
+     *
+     * @return Map of rule names to slugs
+     */
+    public Map<String, String> getSlugs() {
+        return slugsByRuleName;
+    }
+
+    /**
+     * Finds the rule with a URL slug.
+     *
+     * @param slug The slug
+     * @return The rule, or empty if no rule has the slug
+     */
+    public Optional<RuleConfig> findBySlug(String slug) {
+        return Optional.ofNullable(rulesBySlug.get(slug));
+    }
+
+    /**
+     * Finds the rule with a condition on an action type.
+     *
+     * @param actionType The action type (case-sensitive)
+     * @return The rule, or empty if no rule has a condition on the action type
+     */
+    public Optional<RuleConfig> findByActionType(String actionType) {
+        return Optional.ofNullable(rulesByActionType.get(actionType));
+    }
+}
@@ -1,22 +1,22 @@
 package com.edag.swd.my.gamification.engine;
 
+import com.edag.swd.my.gamification.audit.AuditLevel;
+import com.edag.swd.my.gamification.audit.AuditLog;
+import com.edag.swd.my.gamification.audit.AuditRecord;
 import com.edag.swd.my.gamification.config.OutcomeConfig;
 import com.edag.swd.my.gamification.config.RuleConfig;
 import com.edag.swd.my.gamification.entity.Group;
 import com.edag.swd.my.gamification.entity.Person;
+import com.edag.swd.my.gamification.eventlog.EventLog;
+import com.edag.swd.my.gamification.metrics.RuleMetrics;
 import com.edag.swd.my.gamification.repository.GroupRepository;
 import com.edag.swd.my.gamification.repository.PersonRepository;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.io.InputStream;
-import java.time.Duration;
-import java.time.Instant;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * EntityRuleEngine is a version of RuleEngine that works with entity classes and repositories
@@ -24,143 +24,178 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 @Service
 public class RuleEngine {
-    private final Map<String, RuleConfig> rules = new ConcurrentHashMap<>();
+    // Immutable rule index, replaced as a whole whenever the rule set changes
+    private final AtomicReference<RuleIndex> ruleIndex = new AtomicReference<>(RuleIndex.EMPTY);
     private final PersonRepository personRepository;
     private final GroupRepository groupRepository;
-
-    // Map to track the last reset time for each group's "sap_hours_compliant" rule
-    // Key format: groupId + "_" + ruleName
-    private final Map<String, Instant> lastResetTimeMap = new HashMap<>();
-
-    // The rule name that should have weekly reset
-    private static final String WEEKLY_RESET_RULE = "SAP Hours";
-
-    // Path to the rules.json file
-    private static final String RULES_JSON_PATH = "/rules.json";
+    private final AuditLog auditLog;
+    private final RuleMetrics ruleMetrics;
+    private final EventLog eventLog;
 
     @Autowired
-    public RuleEngine(PersonRepository personRepository, GroupRepository groupRepository) {
+    public RuleEngine(PersonRepository personRepository, GroupRepository groupRepository, AuditLog auditLog,
+                      RuleMetrics ruleMetrics, EventLog eventLog) {
         this.personRepository = personRepository;
         this.groupRepository = groupRepository;
+        this.auditLog = auditLog;
+        this.ruleMetrics = ruleMetrics;
+        this.eventLog = eventLog;
     }
 
     /**
-     * Ensures that rules are loaded before processing any rule-related request.
-     * If rules are not loaded, loads them from rules.json.
+     * Replaces all loaded rules with a new rule set.
+     * Events that are already being processed finish with the rules they started with. The rules are published by
+     * the {@link RuleFileWatcher}, which validates them and loads the rules file on startup.
+     *
+     * @param rules The new rule set
+     * @return The published rule index
      */
-    private void ensureRulesLoaded() {
-        if (rules.isEmpty()) {
-            try {
-                loadRules(RULES_JSON_PATH);
-            } catch (Exception e) {
-                System.err.println("Error loading rules: " + e.getMessage());
-                e.printStackTrace();
-            }
-        }
+    public RuleIndex publishRules(Collection<RuleConfig> rules) {
+        RuleIndex published = ruleIndex.updateAndGet(index -> index.replacedBy(rules));
+        System.out.println("Loaded " + rules.size() + " rules (version " + published.getVersion() + ").");
+        return published;
     }
 
     /**
-     * Loads rules from a JSON file.
+     * Adds a rule to the loaded rules, replacing any rule with the same name.
      *
-     * @param resourcePath Path to the JSON file containing rules
-     * @throws Exception If there's an error loading the rules
+     * @param rule The rule to add
      */
-    public void loadRules(String resourcePath) throws Exception {
-        ObjectMapper mapper = new ObjectMapper();
-        try (InputStream inputStream = TypeReference.class.getResourceAsStream(resourcePath)) {
-            if (inputStream == null) {
-                throw new IllegalArgumentException("Resource not found: " + resourcePath);
+    public void addRule(RuleConfig rule) {
+        ruleIndex.updateAndGet(index -> index.withRules(List.of(rule)));
+    }
+
+    /**
+     * Determines which groups processing events may modify.
+     * Rules with both award and penalty outcomes award members of every group, so they need all groups;
+     * other rules only modify the groups of the participants.
+     *
+     * @param actionTypes The action types of the events
+     * @param personIds   The IDs of the participants of the events
+     * @return The groups the events may modify
+     */
+    public LockScope resolveLockScope(Collection<String> actionTypes, Collection<String> personIds) {
+        return resolveLockScope(getRuleIndex(), actionTypes, personIds);
+    }
+
+    /**
+     * Determines which groups processing events with a given rule set may modify.
+     *
+     * @param index       The rules the events will be processed with
+     * @param actionTypes The action types of the events
+     * @param personIds   The IDs of the participants of the events
+     * @return The groups the events may modify
+     */
+    public LockScope resolveLockScope(RuleIndex index, Collection<String> actionTypes, Collection<String> personIds) {
+        for (String actionType : actionTypes) {
+            if (index.match(actionType).stream().anyMatch(CompiledRule::multiOutcome)) {
+                return LockScope.all();
             }
-            List<RuleConfig> ruleList = mapper.readValue(inputStream, new TypeReference<>() {
-            });
-            ruleList.forEach(rule -> this.rules.put(rule.getRuleName(), rule));
-            System.out.println("Loaded " + ruleList.size() + " rules.");
         }
+
+        if (personIds.isEmpty()) {
+            return LockScope.of(Set.of());
+        }
+        return LockScope.of(new HashSet<>(personRepository.findGroupIdsByPersonIds(personIds)));
     }
 
     /**
      * Processes an event with the given action type and participants.
+     * The event is appended to the event log in the same transaction, whether or not any rule matches it,
+     * so it is replayed if a rule for it is added later.
      *
      * @param actionType   The type of action to process
      * @param participants Map of participant roles to person IDs
+     * @return The number of rules that matched the event
      */
     @Transactional
-    public void processEvent(String actionType, Map<String, String> participants) {
-        // Ensure rules are loaded before processing the event
-        ensureRulesLoaded();
-
-        System.out.println("\n-> Processing event: " + actionType);
-
-        // Process all matching rules
-        this.rules.values().stream()
-                .filter(RuleConfig::isActive)
-                .filter(rule -> matches(rule, actionType))
-                .forEach(rule -> {
-                    // Check if the rule has multiple outcome types (both award and penalty)
-                    if (hasMultipleOutcomeTypes(rule)) {
-                        // Use the generic method for rules with multiple outcome types
-                        processMultiOutcomeRule(rule, participants);
-                    } else {
-                        // Use the standard method for rules with a single outcome type
-                        applyOutcomes(rule, participants);
-                    }
-                });
+    public int processEvent(String actionType, Map<String, String> participants) {
+        return processEvent(UUID.randomUUID().toString(), actionType, participants);
     }
 
     /**
-     * Checks if a rule has multiple outcome types (both award and penalty).
+     * Processes an event with the given ID, action type and participants.
+     * The event is logged under its ID, which must not have been logged before.
      *
-     * @param rule The rule to check
-     * @return true if the rule has both award and penalty outcomes, false otherwise
+     * @param eventId      The ID of the event, or its idempotency key
+     * @param actionType   The type of action to process
+     * @param participants Map of participant roles to person IDs
+     * @return The number of rules that matched the event
      */
-    private boolean hasMultipleOutcomeTypes(RuleConfig rule) {
-        boolean hasAward = false;
-        boolean hasPenalty = false;
-
-        for (OutcomeConfig outcome : rule.getOutcomes()) {
-            if ("award".equalsIgnoreCase(outcome.getType())) {
-                hasAward = true;
-            } else if ("penalty".equalsIgnoreCase(outcome.getType())) {
-                hasPenalty = true;
-            }
+    @Transactional
+    public int processEvent(String eventId, String actionType, Map<String, String> participants) {
+        return processEvent(getRuleIndex(), eventId, actionType, participants);
+    }
 
-            // If we've found both types, we can return early
-            if (hasAward && hasPenalty) {
-                return true;
+    /**
+     * Processes an event with a given rule set.
+     * Callers that resolved the lock scope of the event pass the rule index they resolved it with, so a rule
+     * change published in the meantime cannot make the event modify groups that are not locked.
+     *
+     * @param index        The rules to apply
+     * @param eventId      The ID of the event, or its idempotency key
+     * @param actionType   The type of action to process
+     * @param participants Map of participant roles to person IDs
+     * @return The number of rules that matched the event
+     */
+    @Transactional
+    public int processEvent(RuleIndex index, String eventId, String actionType, Map<String, String> participants) {
+        auditLog.record(AuditRecord.event(actionType));
+        eventLog.append(eventId, actionType, participants);
+
+        // Process all active rules indexed under this action type
+        List<CompiledRule> matchingRules = index.match(actionType);
+        for (CompiledRule rule : matchingRules) {
+            long start = System.nanoTime();
+            // Check if the rule has multiple outcome types (both award and penalty)
+            if (rule.multiOutcome()) {
+                // Use the generic method for rules with multiple outcome types
+                processMultiOutcomeRule(rule, participants);
+            } else {
+                // Use the standard method for rules with a single outcome type
+                applyOutcomes(rule, participants);
             }
+            ruleMetrics.ruleApplied(rule.ruleName(), System.nanoTime() - start);
         }
-
-        return false;
+        return matchingRules.size();
     }
 
     /**
      * Processes a rule with multiple outcome types (both award and penalty).
      * This is a generic implementation that can handle any rule with multiple outcome types,
      * not just the SAP Hours rule.
+     * <p>
+     * All groups, their members and (for capped rules) their activity points are prefetched up front,
+     * so the number of queries does not depend on the number of groups or participants. Changes are
+     * flushed by dirty checking instead of saving each entity, which would cascade a merge into
+     * (and load) every history collection.
      *
-     * @param rule         The rule to process
+     * @param compiledRule The rule to process
      * @param participants Map of participant roles to person IDs
      */
     @Transactional
-    private void processMultiOutcomeRule(RuleConfig rule, Map<String, String> participants) {
-        System.out.println("   - SPECIAL PROCESSING: Generic processing for rule with multiple outcome types: " + rule.getRuleName());
-
-        // Get all penalty targets from the rule's outcomes
-        List<String> penaltyTargets = rule.getOutcomes().stream()
-                .filter(outcome -> "penalty".equalsIgnoreCase(outcome.getType()))
-                .map(OutcomeConfig::getTarget)
-                .distinct()
-                .toList();
-
-        // Get all award targets from the rule's outcomes
-        List<String> awardTargets = rule.getOutcomes().stream()
-                .filter(outcome -> "award".equalsIgnoreCase(outcome.getType()))
-                .map(OutcomeConfig::getTarget)
-                .distinct()
-                .toList();
+    private void processMultiOutcomeRule(CompiledRule compiledRule, Map<String, String> participants) {
+        RuleConfig rule = compiledRule.config();
+        auditLog.record(AuditRecord.rule(rule.getRuleName(), "Generic processing for rule with multiple outcome types"));
+
+        // Penalty and award targets are precomputed when the rule is compiled
+        List<String> penaltyTargets = compiledRule.penaltyTargets();
+        List<String> awardTargets = compiledRule.awardTargets();
+
+        // Prefetch all groups with their members; every participant with a group is one of these members
+        List<Group> allGroups = groupRepository.findAllWithMembers();
+        if (rule.getCap() != null) {
+            groupRepository.findAllWithActivityPoints();
+        }
+        Map<String, Person> personsById = new HashMap<>();
+        for (Group group : allGroups) {
+            for (Person member : group.getMembers()) {
+                personsById.put(member.getId(), member);
+            }
+        }
 
         // Process penalties first
-        List<String> penalizedPersonIds = new ArrayList<>();
+        Set<String> penalizedPersonIds = new HashSet<>();
 
         // Apply penalties to all penalty targets
         for (String penaltyTarget : penaltyTargets) {
@@ -171,46 +206,33 @@ public class RuleEngine {
                     penalizedPersonIds.add(personId);
 
                     // Find the penalty outcome for this target
-                    OutcomeConfig penaltyOutcome = rule.getOutcomes().stream()
-                            .filter(outcome -> "penalty".equalsIgnoreCase(outcome.getType()) &&
-                                    penaltyTarget.equals(outcome.getTarget()))
-                            .findFirst()
-                            .orElse(null);
+                    OutcomeConfig penaltyOutcome = compiledRule.penaltyOutcomes().get(penaltyTarget);
 
                     if (penaltyOutcome == null) continue;
 
                     // Apply penalty to the person and their group
-                    Optional<Person> optionalPerson = personRepository.findById(personId);
-                    if (optionalPerson.isEmpty()) continue;
+                    Person person = personsById.get(personId);
+                    if (person == null) continue;
 
-                    Person person = optionalPerson.get();
-                    String groupId = person.getGroupId();
-                    Optional<Group> optionalGroup = groupRepository.findById(groupId);
-                    if (optionalGroup.isEmpty()) continue;
-
-                    Group group = optionalGroup.get();
+                    Group group = person.getGroup();
 
                     // Record the individual's contribution
                     person.recordContribution(penaltyOutcome.getPoints(), penaltyOutcome.getReason(), rule.getRuleName());
-                    personRepository.save(person);
-                    System.out.printf("   - AUDIT: Recorded %+d points for %s due to '%s'.\n",
-                            penaltyOutcome.getPoints(), person.getName(), rule.getRuleName());
+                    auditLog.record(AuditRecord.contribution(rule.getRuleName(), person, penaltyOutcome.getPoints()));
+                    ruleMetrics.outcomeApplied(rule.getRuleName(), penaltyOutcome.getPoints());
 
                     // Update the group's total score
                     group.addPoints(penaltyOutcome.getPoints(), penaltyOutcome.getReason(), rule.getRuleName());
-                    groupRepository.save(group);
-                    System.out.printf("   - ACTION: Group '%s' score changed by %+d. New Total: %d.\n",
-                            group.getName(), penaltyOutcome.getPoints(), group.getTotalGroupPoints());
+                    auditLog.record(AuditRecord.groupPoints(rule.getRuleName(), group, penaltyOutcome.getPoints()));
                 }
             }
         }
 
         // Process awards for all groups
-        List<Group> allGroups = groupRepository.findAll();
         for (Group group : allGroups) {
             // For each award target, find all eligible persons in the group
             for (String awardTarget : awardTargets) {
-                List<Person> groupMembers = personRepository.findByGroupId(group.getId());
+                Set<Person> groupMembers = group.getMembers();
                 List<Person> eligiblePersons;
 
                 // Special handling for "compliant" target
@@ -224,32 +246,28 @@ public class RuleEngine {
                         eligiblePersons = new ArrayList<>();
                         for (Map.Entry<String, String> entry : participants.entrySet()) {
                             if ("compliant".equals(entry.getKey())) {
-                                String personId = entry.getValue();
-                                Optional<Person> optionalPerson = personRepository.findById(personId);
-                                if (optionalPerson.isPresent() &&
-                                        group.getId().equals(optionalPerson.get().getGroupId())) {
-                                    eligiblePersons.add(optionalPerson.get());
+                                Person person = personsById.get(entry.getValue());
+                                if (person != null && group.getId().equals(person.getGroupId())) {
+                                    eligiblePersons.add(person);
                                 }
                             }
                         }
-                        System.out.println("   - SPECIAL HANDLING: Using specified compliant participants for rule: " + rule.getRuleName());
+                        auditLog.record(AuditRecord.rule(rule.getRuleName(), "Using specified compliant participants"));
                     } else {
                         // Default behavior: all persons who are not in the penalized list
                         eligiblePersons = groupMembers.stream()
                                 .filter(person -> !penalizedPersonIds.contains(person.getId()))
                                 .toList();
-                        System.out.println("   - DEFAULT HANDLING: Using all non-penalized persons as compliant for rule: " + rule.getRuleName());
+                        auditLog.record(AuditRecord.rule(rule.getRuleName(), "Using all non-penalized persons as compliant"));
                     }
                 } else {
                     // For other targets, check if they are in the participants map
                     eligiblePersons = new ArrayList<>();
                     for (Map.Entry<String, String> entry : participants.entrySet()) {
                         if (awardTarget.equals(entry.getKey())) {
-                            String personId = entry.getValue();
-                            Optional<Person> optionalPerson = personRepository.findById(personId);
-                            if (optionalPerson.isPresent() &&
-                                    group.getId().equals(optionalPerson.get().getGroupId())) {
-                                eligiblePersons.add(optionalPerson.get());
+                            Person person = personsById.get(entry.getValue());
+                            if (person != null && group.getId().equals(person.getGroupId())) {
+                                eligiblePersons.add(person);
                             }
                         }
                     }
@@ -257,38 +275,19 @@ public class RuleEngine {
 
                 if (eligiblePersons.isEmpty()) continue;
 
-                System.out.printf("   - REWARD: Found %d eligible persons for target '%s' in group '%s'\n",
-                        eligiblePersons.size(), awardTarget, group.getName());
+                if (auditLog.isEnabled(AuditLevel.DEBUG)) {
+                    auditLog.record(AuditRecord.rule(rule.getRuleName(), String.format(
+                            "Found %d eligible persons for target '%s' in group '%s'",
+                            eligiblePersons.size(), awardTarget, group.getName())));
+                }
 
                 // Find the award outcome for this target
-                OutcomeConfig awardOutcome = rule.getOutcomes().stream()
-                        .filter(outcome -> "award".equalsIgnoreCase(outcome.getType()) &&
-                                awardTarget.equals(outcome.getTarget()))
-                        .findFirst()
-                        .orElse(null);
+                OutcomeConfig awardOutcome = compiledRule.awardOutcomes().get(awardTarget);
 
                 if (awardOutcome == null) continue;
 
                 // Apply capping logic if the rule has a cap
                 if (rule.getCap() != null) {
-                    // Check if this rule needs a weekly reset
-                    if (WEEKLY_RESET_RULE.equals(rule.getRuleName())) {
-                        String resetKey = group.getId() + "_" + rule.getRuleName();
-                        Instant now = Instant.now();
-                        Instant lastResetTime = lastResetTimeMap.getOrDefault(resetKey, Instant.EPOCH);
-
-                        // Check if a week (7 days) has passed since the last reset
-                        if (Duration.between(lastResetTime, now).toDays() >= 7) {
-                            // Reset the cap for this rule
-                            group.resetActivityCap(rule.getRuleName());
-                            System.out.printf("   - WEEKLY RESET: Resetting cap for rule '%s' for group '%s' as a week has passed.\n",
-                                    rule.getRuleName(), group.getName());
-
-                            // Update the last reset time
-                            lastResetTimeMap.put(resetKey, now);
-                        }
-                    }
-
                     int maxPoints = rule.getCap().getMaxPoints();
                     int currentPointsForActivity = group.getCurrentPointsForActivity(rule.getRuleName());
 
@@ -297,17 +296,13 @@ public class RuleEngine {
 
                     if (currentPointsForActivity >= maxPoints) {
                         pointsToAward = 0; // Cap already reached, no more points for the group
-                        System.out.printf("   - CAPPING: Rule '%s' has a cap of %d. Group already has %d. No points awarded.\n",
-                                rule.getRuleName(), maxPoints, currentPointsForActivity);
-                        continue;
+                        ruleMetrics.capHit(rule.getRuleName());
                     } else if (currentPointsForActivity + pointsToAward > maxPoints) {
                         pointsToAward = maxPoints - currentPointsForActivity; // Award partial points to hit the cap
-                        System.out.printf("   - CAPPING: Rule '%s' has a cap of %d. Group already has %d. Awarding %d points (partial).\n",
-                                rule.getRuleName(), maxPoints, currentPointsForActivity, pointsToAward);
-                    } else {
-                        System.out.printf("   - CAPPING: Rule '%s' has a cap of %d. Group already has %d. Awarding %d points.\n",
-                                rule.getRuleName(), maxPoints, currentPointsForActivity, pointsToAward);
+                        ruleMetrics.capHit(rule.getRuleName());
                     }
+                    auditLog.record(AuditRecord.cap(rule.getRuleName(), group, maxPoints, currentPointsForActivity, pointsToAward));
+                    if (currentPointsForActivity >= maxPoints) continue;
 
                     // Update the group's tracking for this capped activity
                     group.updateActivityPoints(rule.getRuleName(), currentPointsForActivity + pointsToAward);
@@ -315,19 +310,14 @@ public class RuleEngine {
                     // Record contributions for each eligible person
                     for (Person eligiblePerson : eligiblePersons) {
                         eligiblePerson.recordContribution(awardOutcome.getPoints(), awardOutcome.getReason(), rule.getRuleName());
-                        personRepository.save(eligiblePerson);
-                        System.out.printf("   - AUDIT: Recorded %+d point for %s due to '%s'.\n",
-                                awardOutcome.getPoints(), eligiblePerson.getName(), rule.getRuleName());
+                        auditLog.record(AuditRecord.contribution(rule.getRuleName(), eligiblePerson, awardOutcome.getPoints()));
+                        ruleMetrics.outcomeApplied(rule.getRuleName(), awardOutcome.getPoints());
                     }
 
                     // Update the group's total score
                     if (pointsToAward > 0) {
                         group.addPoints(pointsToAward, awardOutcome.getReason(), rule.getRuleName());
-                        groupRepository.save(group);
-                        System.out.printf("   - ACTION: Group '%s' score changed by %+d. New Total: %d.\n",
-                                group.getName(), pointsToAward, group.getTotalGroupPoints());
-                    } else {
-                        System.out.println("   - ACTION: No points awarded to group due to cap.");
+                        auditLog.record(AuditRecord.groupPoints(rule.getRuleName(), group, pointsToAward));
                     }
                 } else {
                     // For uncapped awards, simply add the points for each eligible person
@@ -336,44 +326,31 @@ public class RuleEngine {
                     // Record contributions for each eligible person
                     for (Person eligiblePerson : eligiblePersons) {
                         eligiblePerson.recordContribution(awardOutcome.getPoints(), awardOutcome.getReason(), rule.getRuleName());
-                        personRepository.save(eligiblePerson);
-                        System.out.printf("   - AUDIT: Recorded %+d point for %s due to '%s'.\n",
-                                awardOutcome.getPoints(), eligiblePerson.getName(), rule.getRuleName());
+                        auditLog.record(AuditRecord.contribution(rule.getRuleName(), eligiblePerson, awardOutcome.getPoints()));
+                        ruleMetrics.outcomeApplied(rule.getRuleName(), awardOutcome.getPoints());
                     }
 
                     // Update the group's total score
                     group.addPoints(totalPoints, awardOutcome.getReason(), rule.getRuleName());
-                    groupRepository.save(group);
-                    System.out.printf("   - ACTION: Group '%s' score changed by %+d. New Total: %d.\n",
-                            group.getName(), totalPoints, group.getTotalGroupPoints());
+                    auditLog.record(AuditRecord.groupPoints(rule.getRuleName(), group, totalPoints));
                 }
             }
         }
     }
 
-    /**
-     * Checks if a rule matches the given action type.
-     *
-     * @param rule       The rule to check
-     * @param actionType The action type to match
-     * @return true if the rule matches the action type, false otherwise
-     */
-    private boolean matches(RuleConfig rule, String actionType) {
-        return rule.getConditions().stream().allMatch(condition ->
-                "action".equalsIgnoreCase(condition.getType()) &&
-                        actionType.equalsIgnoreCase(condition.getValue())
-        );
-    }
-
     /**
      * Applies the outcomes of a rule to the participants.
+     * The loaded person and group are managed entities, so their changes and new history entries are
+     * written at flush time in JDBC batches rather than saved one by one.
      *
-     * @param rule         The rule to apply
+     * @param compiledRule The rule to apply
      * @param participants Map of participant roles to person IDs
      */
     @Transactional
-    private void applyOutcomes(RuleConfig rule, Map<String, String> participants) {
-        for (OutcomeConfig outcome : rule.getOutcomes()) {
+    private void applyOutcomes(CompiledRule compiledRule, Map<String, String> participants) {
+        RuleConfig rule = compiledRule.config();
+        for (CompiledRule.CompiledOutcome compiledOutcome : compiledRule.outcomes()) {
+            OutcomeConfig outcome = compiledOutcome.config();
             String personId = participants.get(outcome.getTarget());
             if (personId == null) continue;
 
@@ -382,6 +359,7 @@ public class RuleEngine {
 
             Person person = optionalPerson.get();
             String groupId = person.getGroupId();
+            if (groupId == null) continue;
             Optional<Group> optionalGroup = groupRepository.findById(groupId);
             if (optionalGroup.isEmpty()) continue;
 
@@ -389,32 +367,13 @@ public class RuleEngine {
 
             // Record the individual's contribution
             person.recordContribution(outcome.getPoints(), outcome.getReason(), rule.getRuleName());
-            personRepository.save(person);
-            System.out.printf("   - AUDIT: Recorded %+d points for %s due to '%s'.\n",
-                    outcome.getPoints(), person.getName(), rule.getRuleName());
+            auditLog.record(AuditRecord.contribution(rule.getRuleName(), person, outcome.getPoints()));
+            ruleMetrics.outcomeApplied(rule.getRuleName(), outcome.getPoints());
 
             // Check if this is an award outcome
-            if ("award".equalsIgnoreCase(outcome.getType())) {
+            if (compiledOutcome.award()) {
                 // Apply capping logic if the rule has a cap
                 if (rule.getCap() != null) {
-                    // Check if this is the rule that should have weekly reset
-                    if (WEEKLY_RESET_RULE.equals(rule.getRuleName())) {
-                        String resetKey = groupId + "_" + rule.getRuleName();
-                        Instant now = Instant.now();
-                        Instant lastResetTime = lastResetTimeMap.getOrDefault(resetKey, Instant.EPOCH);
-
-                        // Check if a week (7 days) has passed since the last reset
-                        if (Duration.between(lastResetTime, now).toDays() >= 7) {
-                            // Reset the cap for this rule
-                            group.resetActivityCap(rule.getRuleName());
-                            System.out.printf("   - WEEKLY RESET: Resetting cap for rule '%s' for group '%s' as a week has passed.\n",
-                                    rule.getRuleName(), group.getName());
-
-                            // Update the last reset time
-                            lastResetTimeMap.put(resetKey, now);
-                        }
-                    }
-
                     int maxPoints = rule.getCap().getMaxPoints();
                     int currentPointsForActivity = group.getCurrentPointsForActivity(rule.getRuleName());
 
@@ -423,16 +382,12 @@ public class RuleEngine {
 
                     if (currentPointsForActivity >= maxPoints) {
                         pointsToAward = 0; // Cap already reached, no more points
-                        System.out.printf("   - CAPPING: Rule '%s' has a cap of %d. Group already has %d. No points awarded.\n",
-                                rule.getRuleName(), maxPoints, currentPointsForActivity);
+                        ruleMetrics.capHit(rule.getRuleName());
                     } else if (currentPointsForActivity + pointsToAward > maxPoints) {
                         pointsToAward = maxPoints - currentPointsForActivity; // Award partial points to hit the cap
-                        System.out.printf("   - CAPPING: Rule '%s' has a cap of %d. Group already has %d. Awarding %d points (partial).\n",
-                                rule.getRuleName(), maxPoints, currentPointsForActivity, pointsToAward);
-                    } else {
-                        System.out.printf("   - CAPPING: Rule '%s' has a cap of %d. Group already has %d. Awarding %d points.\n",
-                                rule.getRuleName(), maxPoints, currentPointsForActivity, pointsToAward);
+                        ruleMetrics.capHit(rule.getRuleName());
                     }
+                    auditLog.record(AuditRecord.cap(rule.getRuleName(), group, maxPoints, currentPointsForActivity, pointsToAward));
 
                     // Update the group's tracking for this capped activity
                     group.updateActivityPoints(rule.getRuleName(), currentPointsForActivity + pointsToAward);
@@ -440,37 +395,37 @@ public class RuleEngine {
                     // Update the group's total score
                     if (pointsToAward > 0) {
                         group.addPoints(pointsToAward, outcome.getReason(), rule.getRuleName());
-                        groupRepository.save(group);
-                        System.out.printf("   - ACTION: Group '%s' score changed by %+d. New Total: %d.\n",
-                                group.getName(), pointsToAward, group.getTotalGroupPoints());
+                        auditLog.record(AuditRecord.groupPoints(rule.getRuleName(), group, pointsToAward));
                     }
                 } else {
                     // For uncapped awards, simply add the points
-                    System.out.println("   - UNCAPPED AWARD: Adding " + outcome.getPoints() + " points for rule: " + rule.getRuleName());
                     group.addPoints(outcome.getPoints(), outcome.getReason(), rule.getRuleName());
-                    groupRepository.save(group);
-                    System.out.printf("   - ACTION: Group '%s' score changed by %+d. New Total: %d.\n",
-                            group.getName(), outcome.getPoints(), group.getTotalGroupPoints());
+                    auditLog.record(AuditRecord.groupPoints(rule.getRuleName(), group, outcome.getPoints()));
                 }
             } else {
                 // For penalties, simply add the points (which will be negative)
                 group.addPoints(outcome.getPoints(), outcome.getReason(), rule.getRuleName());
-                groupRepository.save(group);
-                System.out.printf("   - ACTION: Group '%s' score changed by %+d. New Total: %d.\n",
-                        group.getName(), outcome.getPoints(), group.getTotalGroupPoints());
+                auditLog.record(AuditRecord.groupPoints(rule.getRuleName(), group, outcome.getPoints()));
             }
         }
     }
 
 
+    /**
+     * Gets the index of the loaded rules, as applied to the next event.
+     *
+     * @return The current rule index
+     */
+    public RuleIndex getRuleIndex() {
+        return ruleIndex.get();
+    }
+
     /**
      * Gets the loaded rules.
      *
      * @return Map of rule names to rule configurations
      */
     public Map<String, RuleConfig> getRules() {
-        // Ensure rules are loaded before returning them
-        ensureRulesLoaded();
-        return Collections.unmodifiableMap(this.rules);
+        return ruleIndex.get().getRules();
     }
 }
\ No newline at end of file
@@ -0,0 +1,193 @@
+package com.edag.swd.my.gamification.engine;
+
+import com.edag.swd.my.gamification.config.RuleConfig;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.*;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads the rules from an external rules file and reloads them whenever the file changes.
+ * <p>
+ * The directory of the file is watched with a {@link WatchService} on a background thread, which parses and
+ * validates the changed file and publishes it to the {@link RuleEngine} as a new {@link RuleIndex}. Events that
+ * are being processed keep the index they started with. A file that cannot be parsed or holds an invalid rule is
+ * rejected and the current rules stay active. If the file does not exist on startup, it is created from the
+ * rules.json on the classpath.
+ */
+@Component
+public class RuleFileWatcher {
+    private static final TypeReference<List<RuleConfig>> RULE_LIST_TYPE = new TypeReference<>() {
+    };
+
+    // Editors often write a file in several steps; changes are read once the file has been quiet this long
+    private static final long SETTLE_MILLIS = 100;
+
+    private final RuleEngine ruleEngine;
+    private final CapResetScheduler capResetScheduler;
+    private final Path rulesFile;
+    private final String defaultRulesResource;
+    private final boolean watch;
+    private final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final ExecutorService executor;
+    private WatchService watchService;
+
+    // The content of the file as last published, so writes of identical content are not published again
+    private byte[] publishedContent;
+
+    @Autowired
+    public RuleFileWatcher(RuleEngine ruleEngine,
+                           CapResetScheduler capResetScheduler,
+                           @Value("${gamification.rules.file:config/rules.json}") String rulesFile,
+                           @Value("${rules.json.path:/rules.json}") String defaultRulesResource,
+                           @Value("${gamification.rules.watch:true}") boolean watch) {
+        this.ruleEngine = ruleEngine;
+        this.capResetScheduler = capResetScheduler;
+        this.rulesFile = Path.of(rulesFile).toAbsolutePath();
+        this.defaultRulesResource = defaultRulesResource;
+        this.watch = watch;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rules-watcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Loads the rules file, creating it from the classpath rules if it does not exist, and starts watching it.
+     *
+     * @throws IOException If the rules file cannot be created or the watch cannot be registered
+     */
+    @PostConstruct
+    public void start() throws IOException {
+        if (Files.notExists(rulesFile)) {
+            try (InputStream defaults = RuleFileWatcher.class.getResourceAsStream(defaultRulesResource)) {
+                if (defaults == null) {
+                    throw new IllegalStateException("Resource not found: " + defaultRulesResource);
+                }
+                Files.createDirectories(rulesFile.getParent());
+                Files.copy(defaults, rulesFile);
+                System.out.println("Created " + rulesFile + " from " + defaultRulesResource);
+            }
+        }
+        // Cap resets are scheduled once the application is ready
+        load(false);
+
+        if (watch) {
+            watchService = rulesFile.getFileSystem().newWatchService();
+            rulesFile.getParent().register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            executor.execute(this::watchLoop);
+        }
+    }
+
+    public Path getRulesFile() {
+        return rulesFile;
+    }
+
+    /**
+     * Reads, validates and publishes the rules file, unless its content was already published.
+     *
+     * @return true if a new rule set was published
+     */
+    public boolean reload() {
+        return load(true);
+    }
+
+    private synchronized boolean load(boolean refreshCapResets) {
+        byte[] content;
+        List<RuleConfig> rules;
+        try {
+            content = Files.readAllBytes(rulesFile);
+            if (Arrays.equals(content, publishedContent)) return false;
+            rules = mapper.readValue(content, RULE_LIST_TYPE);
+            RuleValidator.validate(rules);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Rejected rules file " + rulesFile + ", keeping the current rules: " + e.getMessage());
+            return false;
+        }
+        publish(rules, content, refreshCapResets);
+        return true;
+    }
+
+    /**
+     * Replaces the rules file with a new rule set and publishes it.
+     * The file is written to a temporary file and moved into place, so the watcher never reads a partial file.
+     *
+     * @param rules The new rule set
+     * @throws IOException If the file cannot be written
+     * @throws IllegalArgumentException If a rule is invalid
+     */
+    public synchronized void save(Collection<RuleConfig> rules) throws IOException {
+        RuleValidator.validate(rules);
+        byte[] content = mapper.writeValueAsBytes(rules);
+
+        Path tempFile = Files.createTempFile(rulesFile.getParent(), rulesFile.getFileName().toString(), ".tmp");
+        try {
+            Files.write(tempFile, content);
+            Files.move(tempFile, rulesFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+        System.out.println("Saved " + rules.size() + " rules to " + rulesFile);
+        publish(List.copyOf(rules), content, true);
+    }
+
+    private void publish(List<RuleConfig> rules, byte[] content, boolean refreshCapResets) {
+        ruleEngine.publishRules(rules);
+        publishedContent = content;
+        if (refreshCapResets) {
+            capResetScheduler.refresh();
+        }
+    }
+
+    private void watchLoop() {
+        Path fileName = rulesFile.getFileName();
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                do {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        changed |= fileName.equals(event.context());
+                    }
+                    key.reset();
+                    key = watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS);
+                } while (key != null);
+
+                if (changed) {
+                    try {
+                        reload();
+                    } catch (RuntimeException e) {
+                        // Keep watching; the next change of the file is read again
+                        System.err.println("Error reloading rules file " + rulesFile + ": " + e.getMessage());
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Stopped
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        executor.shutdownNow();
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+}
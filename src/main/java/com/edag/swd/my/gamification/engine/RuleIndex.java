@@ -0,0 +1,108 @@
+package com.edag.swd.my.gamification.engine;
+
+import com.edag.swd.my.gamification.config.RuleConfig;
+
+import java.util.*;
+
+/**
+ * Immutable snapshot of the loaded rules, indexed by action type.
+ * A new index is built whenever the rule set changes and swapped in atomically, so event processing
+ * never observes a partially loaded rule set and never has to scan rules that cannot match.
+ * Each index carries a version, one higher than the index it replaced.
+ */
+public final class RuleIndex {
+    public static final RuleIndex EMPTY = new RuleIndex(Map.of(), 0);
+
+    private final long version;
+    private final Map<String, RuleConfig> rules;
+    private final Map<String, List<CompiledRule>> rulesByActionType;
+    private final List<CompiledRule> rulesForAnyAction;
+
+    private RuleIndex(Map<String, RuleConfig> rules, long version) {
+        this.version = version;
+        Map<String, List<CompiledRule>> byActionType = new HashMap<>();
+        List<CompiledRule> anyAction = new ArrayList<>();
+
+        for (RuleConfig rule : rules.values()) {
+            if (!rule.isActive()) continue;
+
+            CompiledRule compiled = CompiledRule.compile(rule);
+            if (compiled == null) continue;
+
+            if (compiled.actionType() == null) {
+                anyAction.add(compiled);
+            } else {
+                byActionType.computeIfAbsent(compiled.actionType(), k -> new ArrayList<>()).add(compiled);
+            }
+        }
+
+        // Rules without conditions match every action, so they are appended to each action type's list
+        Map<String, List<CompiledRule>> index = new HashMap<>();
+        byActionType.forEach((actionType, compiledRules) -> {
+            List<CompiledRule> matching = new ArrayList<>(compiledRules);
+            matching.addAll(anyAction);
+            index.put(actionType, List.copyOf(matching));
+        });
+
+        this.rules = Collections.unmodifiableMap(new LinkedHashMap<>(rules));
+        this.rulesByActionType = Map.copyOf(index);
+        this.rulesForAnyAction = List.copyOf(anyAction);
+    }
+
+    /**
+     * Returns a new index containing the rules of this index plus the given rules.
+     * Rules with the same name as an existing rule replace it.
+     *
+     * @param additionalRules The rules to add
+     * @return The new index
+     */
+    public RuleIndex withRules(Collection<RuleConfig> additionalRules) {
+        Map<String, RuleConfig> merged = new LinkedHashMap<>(this.rules);
+        additionalRules.forEach(rule -> merged.put(rule.getRuleName(), rule));
+        return new RuleIndex(merged, version + 1);
+    }
+
+    /**
+     * Returns a new index containing only the given rules, replacing all rules of this index.
+     *
+     * @param newRules The rules of the new index
+     * @return The new index
+     */
+    public RuleIndex replacedBy(Collection<RuleConfig> newRules) {
+        Map<String, RuleConfig> replaced = new LinkedHashMap<>();
+        newRules.forEach(rule -> replaced.put(rule.getRuleName(), rule));
+        return new RuleIndex(replaced, version + 1);
+    }
+
+    /**
+     * Gets the active rules that match the given action type.
+     *
+     * @param actionType The action type to match (case-insensitive)
+     * @return The matching compiled rules
+     */
+    public List<CompiledRule> match(String actionType) {
+        return rulesByActionType.getOrDefault(CompiledRule.normalize(actionType), rulesForAnyAction);
+    }
+
+    /**
+     * Gets all rules in this index, including inactive ones.
+     *
+     * @return Unmodifiable map of rule names to rule configurations
+     */
+    public Map<String, RuleConfig> getRules() {
+        return rules;
+    }
+
+    /**
+     * Gets the version of this index; 0 until rules are first loaded.
+     *
+     * @return The version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public boolean isEmpty() {
+        return rules.isEmpty();
+    }
+}
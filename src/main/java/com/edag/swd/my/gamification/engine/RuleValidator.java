@@ -0,0 +1,104 @@
+package com.edag.swd.my.gamification.engine;
+
+import com.edag.swd.my.gamification.config.ConditionConfig;
+import com.edag.swd.my.gamification.config.OutcomeConfig;
+import com.edag.swd.my.gamification.config.RuleConfig;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Checks rule configurations before they are published, whether they were created in the web interface or
+ * loaded from the rules file.
+ */
+public final class RuleValidator {
+
+    private RuleValidator() {
+    }
+
+    /**
+     * Validates a rule configuration.
+     *
+     * @param rule The rule to validate
+     * @return true if the rule is valid, false otherwise
+     */
+    public static boolean isValid(RuleConfig rule) {
+        // A rules file may contain null entries
+        if (rule == null) {
+            return false;
+        }
+
+        // Check if rule name is provided
+        if (rule.getRuleName() == null || rule.getRuleName().trim().isEmpty()) {
+            return false;
+        }
+
+        // Check if description is provided
+        if (rule.getDescription() == null || rule.getDescription().trim().isEmpty()) {
+            return false;
+        }
+
+        // Check if at least one condition is provided
+        if (rule.getConditions() == null || rule.getConditions().isEmpty()) {
+            return false;
+        }
+
+        // Check if all conditions have a type and value
+        for (ConditionConfig condition : rule.getConditions()) {
+            if (condition == null || condition.getType() == null || condition.getType().trim().isEmpty() ||
+                    condition.getValue() == null || condition.getValue().trim().isEmpty()) {
+                return false;
+            }
+        }
+
+        // Check if at least one outcome is provided
+        if (rule.getOutcomes() == null || rule.getOutcomes().isEmpty()) {
+            return false;
+        }
+
+        // Check if all outcomes have a type, points, target, and reason
+        for (OutcomeConfig outcome : rule.getOutcomes()) {
+            if (outcome == null || outcome.getType() == null || outcome.getType().trim().isEmpty() ||
+                    outcome.getTarget() == null || outcome.getTarget().trim().isEmpty() ||
+                    outcome.getReason() == null || outcome.getReason().trim().isEmpty()) {
+                return false;
+            }
+        }
+
+        // Check if cap is valid
+        if (rule.getCap() != null && rule.getCap().getMaxPoints() <= 0) {
+            return false;
+        }
+
+        // Check if the cap's reset period is valid
+        if (rule.getCap() != null && rule.getCap().getResetPeriod() != null) {
+            try {
+                CapResetScheduler.toCronExpression(rule.getCap().getResetPeriod());
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Validates a complete rule set.
+     *
+     * @param rules The rules to validate
+     * @throws IllegalArgumentException If a rule is invalid or two rules have the same name
+     */
+    public static void validate(Collection<RuleConfig> rules) {
+        Set<String> ruleNames = new HashSet<>();
+        for (RuleConfig rule : rules) {
+            if (!isValid(rule)) {
+                throw new IllegalArgumentException("Invalid rule configuration: "
+                        + (rule != null ? rule.getRuleName() : null));
+            }
+            if (!ruleNames.add(rule.getRuleName())) {
+                throw new IllegalArgumentException("Duplicate rule name: " + rule.getRuleName());
+            }
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.edag.swd.my.gamification.engine;
+
+import com.edag.swd.my.gamification.config.OutcomeConfig;
+import com.edag.swd.my.gamification.config.RuleConfig;
+import com.edag.swd.my.gamification.eventlog.LoggedEvent;
+import org.springframework.scheduling.support.CronExpression;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.*;
+
+/**
+ * In-memory counterpart of the {@link RuleEngine}, which applies events to a {@link Scoreboard} instead of
+ * the database. It follows the rule engine outcome for outcome, including caps, and resets capped points at
+ * the reset period boundaries that passed between events, as the {@link CapResetScheduler} does.
+ * <p>
+ * An event only changes the groups of its participants, or every group for rules with both award and
+ * penalty outcomes, and how it changes a group depends on nothing but that group's tally. Groups can
+ * therefore also be evaluated independently, one thread per group. The evaluator itself is immutable.
+ */
+public final class ScoreEvaluator {
+    private final RuleIndex ruleIndex;
+    private final ZoneId zone;
+    private final Map<String, CronExpression> capResets = new HashMap<>();
+
+    /**
+     * Creates an evaluator for a rule set.
+     *
+     * @param ruleIndex The rules to apply
+     * @param zone      The time zone of the cap reset periods
+     */
+    public ScoreEvaluator(RuleIndex ruleIndex, ZoneId zone) {
+        this.ruleIndex = ruleIndex;
+        this.zone = zone;
+        for (RuleConfig rule : ruleIndex.getRules().values()) {
+            if (rule.getCap() == null || rule.getCap().getResetPeriod() == null
+                    || rule.getCap().getResetPeriod().isBlank()) continue;
+            try {
+                capResets.put(rule.getRuleName(), CapResetScheduler.toCronExpression(rule.getCap().getResetPeriod()));
+            } catch (IllegalArgumentException e) {
+                // Like the scheduler, never reset rules with an invalid reset period
+            }
+        }
+    }
+
+    /**
+     * Applies an event to all groups it changes.
+     *
+     * @param event      The event to apply
+     * @param scoreboard The scores to change
+     * @param sink       Receives the point history of the event
+     */
+    public void apply(LoggedEvent event, Scoreboard scoreboard, ScoreSink sink) {
+        for (CompiledRule rule : ruleIndex.match(event.actionType())) {
+            if (rule.multiOutcome()) {
+                for (GroupTally group : scoreboard.getGroups()) {
+                    applyMultiOutcomeRule(rule, event, scoreboard, group, sink);
+                }
+            } else {
+                applyOutcomes(rule, event, scoreboard, null, sink);
+            }
+        }
+    }
+
+    /**
+     * Applies the changes an event makes to a single group.
+     * Applying every event to every group this way has the same result as {@link #apply(LoggedEvent,
+     * Scoreboard, ScoreSink)}, with the history entries of different groups in a different order.
+     *
+     * @param event      The event to apply
+     * @param scoreboard The scores, used to look up the groups of the participants
+     * @param group      The tally of the group to change
+     * @param sink       Receives the point history of the group
+     */
+    public void apply(LoggedEvent event, Scoreboard scoreboard, GroupTally group, ScoreSink sink) {
+        for (CompiledRule rule : ruleIndex.match(event.actionType())) {
+            if (rule.multiOutcome()) {
+                applyMultiOutcomeRule(rule, event, scoreboard, group, sink);
+            } else {
+                applyOutcomes(rule, event, scoreboard, group, sink);
+            }
+        }
+    }
+
+    /**
+     * Determines whether an event may change any group, so events that match no rule can be skipped.
+     *
+     * @param event The event
+     * @return true if a rule matches the action type of the event
+     */
+    public boolean matches(LoggedEvent event) {
+        return !ruleIndex.match(event.actionType()).isEmpty();
+    }
+
+    /**
+     * Determines whether an event may change every group rather than only the groups of its participants.
+     *
+     * @param event The event
+     * @return true if a rule with both award and penalty outcomes matches the action type of the event
+     */
+    public boolean affectsAllGroups(LoggedEvent event) {
+        return ruleIndex.match(event.actionType()).stream().anyMatch(CompiledRule::multiOutcome);
+    }
+
+    // Mirrors RuleEngine.processMultiOutcomeRule for one group
+    private void applyMultiOutcomeRule(CompiledRule compiledRule, LoggedEvent event, Scoreboard scoreboard,
+                                       GroupTally group, ScoreSink sink) {
+        RuleConfig rule = compiledRule.config();
+        Map<String, String> participants = event.participants();
+
+        // Penalties first; persons penalized in any group are not compliant
+        Set<String> penalizedPersonIds = new HashSet<>();
+        for (String penaltyTarget : compiledRule.penaltyTargets()) {
+            String personId = participants.get(penaltyTarget);
+            if (personId == null) continue;
+            penalizedPersonIds.add(personId);
+            if (scoreboard.getGroupOf(personId) != group) continue;
+
+            OutcomeConfig penaltyOutcome = compiledRule.penaltyOutcomes().get(penaltyTarget);
+            recordContribution(group, personId, penaltyOutcome, rule, event, sink);
+            addGroupPoints(group, penaltyOutcome.getPoints(), penaltyOutcome, rule, event, sink);
+        }
+
+        for (String awardTarget : compiledRule.awardTargets()) {
+            List<String> eligiblePersonIds;
+            if ("compliant".equals(awardTarget) && !participants.containsKey("compliant")) {
+                // Default behavior: all members who were not penalized
+                eligiblePersonIds = group.getMemberIds().stream()
+                        .filter(personId -> !penalizedPersonIds.contains(personId))
+                        .toList();
+            } else {
+                String personId = participants.get(awardTarget);
+                eligiblePersonIds = scoreboard.getGroupOf(personId) == group ? List.of(personId) : List.of();
+            }
+            if (eligiblePersonIds.isEmpty()) continue;
+
+            OutcomeConfig awardOutcome = compiledRule.awardOutcomes().get(awardTarget);
+            int pointsToAward = eligiblePersonIds.size() * awardOutcome.getPoints();
+
+            if (rule.getCap() != null) {
+                int maxPoints = rule.getCap().getMaxPoints();
+                int currentPointsForActivity = group.getActivityPoints(rule.getRuleName(), event.timestamp());
+                if (currentPointsForActivity >= maxPoints) continue;
+                if (currentPointsForActivity + pointsToAward > maxPoints) {
+                    pointsToAward = maxPoints - currentPointsForActivity;
+                }
+                setActivityPoints(group, rule, currentPointsForActivity + pointsToAward, event.timestamp());
+
+                for (String personId : eligiblePersonIds) {
+                    recordContribution(group, personId, awardOutcome, rule, event, sink);
+                }
+                if (pointsToAward > 0) {
+                    addGroupPoints(group, pointsToAward, awardOutcome, rule, event, sink);
+                }
+            } else {
+                for (String personId : eligiblePersonIds) {
+                    recordContribution(group, personId, awardOutcome, rule, event, sink);
+                }
+                addGroupPoints(group, pointsToAward, awardOutcome, rule, event, sink);
+            }
+        }
+    }
+
+    // Mirrors RuleEngine.applyOutcomes, limited to one group unless onlyGroup is null
+    private void applyOutcomes(CompiledRule compiledRule, LoggedEvent event, Scoreboard scoreboard,
+                               GroupTally onlyGroup, ScoreSink sink) {
+        RuleConfig rule = compiledRule.config();
+        for (CompiledRule.CompiledOutcome compiledOutcome : compiledRule.outcomes()) {
+            OutcomeConfig outcome = compiledOutcome.config();
+            if (outcome.getTarget() == null) continue;
+            String personId = event.participants().get(outcome.getTarget());
+            GroupTally group = scoreboard.getGroupOf(personId);
+            if (group == null || (onlyGroup != null && group != onlyGroup)) continue;
+
+            recordContribution(group, personId, outcome, rule, event, sink);
+
+            if (compiledOutcome.award() && rule.getCap() != null) {
+                int maxPoints = rule.getCap().getMaxPoints();
+                int currentPointsForActivity = group.getActivityPoints(rule.getRuleName(), event.timestamp());
+
+                int pointsToAward = outcome.getPoints();
+                if (currentPointsForActivity >= maxPoints) {
+                    pointsToAward = 0;
+                } else if (currentPointsForActivity + pointsToAward > maxPoints) {
+                    pointsToAward = maxPoints - currentPointsForActivity;
+                }
+                setActivityPoints(group, rule, currentPointsForActivity + pointsToAward, event.timestamp());
+
+                if (pointsToAward > 0) {
+                    addGroupPoints(group, pointsToAward, outcome, rule, event, sink);
+                }
+            } else {
+                // Uncapped awards and penalties
+                addGroupPoints(group, outcome.getPoints(), outcome, rule, event, sink);
+            }
+        }
+    }
+
+    private void setActivityPoints(GroupTally group, RuleConfig rule, int points, Instant timestamp) {
+        CronExpression cron = capResets.get(rule.getRuleName());
+        ZonedDateTime resetAt = cron != null ? cron.next(timestamp.atZone(zone)) : null;
+        group.setActivityPoints(rule.getRuleName(), points, resetAt != null ? resetAt.toInstant() : null);
+    }
+
+    private static void recordContribution(GroupTally group, String personId, OutcomeConfig outcome,
+                                           RuleConfig rule, LoggedEvent event, ScoreSink sink) {
+        group.addMemberPoints(personId, outcome.getPoints());
+        sink.personPoints(personId, outcome.getPoints(), outcome.getReason(), rule.getRuleName(), event.timestamp());
+    }
+
+    private static void addGroupPoints(GroupTally group, int points, OutcomeConfig outcome, RuleConfig rule,
+                                       LoggedEvent event, ScoreSink sink) {
+        // Like Group.addPoints, changes of zero points are not recorded
+        if (points == 0) return;
+        group.addPoints(points);
+        sink.groupPoints(group.getGroupId(), points, outcome.getReason(), rule.getRuleName(), event.timestamp());
+    }
+}
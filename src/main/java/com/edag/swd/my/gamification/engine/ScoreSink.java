@@ -0,0 +1,26 @@
+package com.edag.swd.my.gamification.engine;
+
+import java.time.Instant;
+
+/**
+ * Receives the point history produced by a {@link ScoreEvaluator}, one entry at a time.
+ */
+public interface ScoreSink {
+
+    /**
+     * A sink that discards the history, for callers that only need the totals.
+     */
+    ScoreSink NONE = new ScoreSink() {
+        @Override
+        public void personPoints(String personId, int points, String reason, String ruleName, Instant timestamp) {
+        }
+
+        @Override
+        public void groupPoints(String groupId, int points, String reason, String ruleName, Instant timestamp) {
+        }
+    };
+
+    void personPoints(String personId, int points, String reason, String ruleName, Instant timestamp);
+
+    void groupPoints(String groupId, int points, String reason, String ruleName, Instant timestamp);
+}
@@ -0,0 +1,59 @@
+package com.edag.swd.my.gamification.engine;
+
+import java.util.*;
+
+/**
+ * The in-memory scores of all groups and their members, evaluated by a {@link ScoreEvaluator}.
+ * Membership is fixed when the scoreboard is built.
+ */
+public final class Scoreboard {
+    private final Map<String, GroupTally> groups = new LinkedHashMap<>();
+    private final Map<String, GroupTally> groupsByPersonId = new HashMap<>();
+
+    /**
+     * Creates a scoreboard with zero points for every group and person.
+     *
+     * @param groupIds    The IDs of all groups
+     * @param memberships The group of each person; persons without a group never score
+     */
+    public Scoreboard(Collection<String> groupIds, Collection<Membership> memberships) {
+        Map<String, List<String>> memberIds = new LinkedHashMap<>();
+        groupIds.forEach(groupId -> memberIds.put(groupId, new ArrayList<>()));
+        for (Membership membership : memberships) {
+            List<String> members = memberIds.get(membership.groupId());
+            if (members != null) {
+                members.add(membership.personId());
+            }
+        }
+
+        memberIds.forEach((groupId, members) -> {
+            GroupTally tally = new GroupTally(groupId, members);
+            groups.put(groupId, tally);
+            members.forEach(personId -> groupsByPersonId.put(personId, tally));
+        });
+    }
+
+    public Collection<GroupTally> getGroups() {
+        return Collections.unmodifiableCollection(groups.values());
+    }
+
+    /**
+     * Gets the tally of a group.
+     *
+     * @param groupId The ID of the group
+     * @return The tally, or null if the group is unknown
+     */
+    public GroupTally getGroup(String groupId) {
+        return groups.get(groupId);
+    }
+
+    /**
+     * Gets the tally of the group a person belongs to.
+     *
+     * @param personId The ID of the person
+     * @return The tally, or null if the person is unknown or has no group
+     */
+    public GroupTally getGroupOf(String personId) {
+        return personId != null ? groupsByPersonId.get(personId) : null;
+    }
+}
@@ -6,18 +6,24 @@ import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "activity_points")
+// One row per group and capped rule; the unique index also serves lookups by group and rule
+@Table(name = "activity_points", uniqueConstraints = @UniqueConstraint(
+        name = "uk_activity_points_group_rule", columnNames = {"group_id", "rule_name"}))
 @Data
 @NoArgsConstructor
 @EqualsAndHashCode(of = "id")
 public class ActivityPoints {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "activity_points_seq")
+    @SequenceGenerator(name = "activity_points_seq", sequenceName = "activity_points_seq", allocationSize = 50)
     private Long id;
 
     private String ruleName;
     private int points;
 
+    @Version
+    private Long version;
+
     @ManyToOne
     @JoinColumn(name = "group_id")
     private Group group;
@@ -0,0 +1,29 @@
+package com.edag.swd.my.gamification.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * The last time the capped activity points of a rule were reset.
+ */
+@Entity
+@Table(name = "cap_resets")
+@Data
+@NoArgsConstructor
+public class CapReset {
+    @Id
+    private String ruleName;
+
+    // The reset period boundary the points were last reset at
+    private Instant lastResetAt;
+
+    public CapReset(String ruleName, Instant lastResetAt) {
+        this.ruleName = ruleName;
+        this.lastResetAt = lastResetAt;
+    }
+}
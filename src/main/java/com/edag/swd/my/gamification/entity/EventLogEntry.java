@@ -0,0 +1,52 @@
+package com.edag.swd.my.gamification.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.Instant;
+
+/**
+ * An event processed by the rule engine, as recorded in the append-only event log.
+ * Entries are written in the transaction that applies the event, so the log holds exactly the events the
+ * current scores are made of, and are never updated.
+ */
+@Entity
+@Immutable
+// Unique event IDs are the persistent index behind event deduplication; simulations read time ranges
+@Table(name = "event_log", indexes = {
+        @Index(name = "idx_event_log_event_id", columnList = "event_id", unique = true),
+        @Index(name = "idx_event_log_timestamp", columnList = "timestamp")
+})
+@Data
+@NoArgsConstructor
+@EqualsAndHashCode(of = "id")
+public class EventLogEntry {
+    // The position of the event in the log; pooled so events of a batch are appended in JDBC batches
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "event_log_seq")
+    @SequenceGenerator(name = "event_log_seq", sequenceName = "event_log_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String eventId;
+
+    @Column(nullable = false)
+    private String actionType;
+
+    // The participant roles mapped to person IDs, as a JSON object
+    @Column(nullable = false, length = 4000)
+    private String participants;
+
+    @Column(nullable = false)
+    private Instant timestamp;
+
+    public EventLogEntry(String eventId, String actionType, String participants, Instant timestamp) {
+        this.eventId = eventId;
+        this.actionType = actionType;
+        this.participants = participants;
+        this.timestamp = timestamp;
+    }
+}
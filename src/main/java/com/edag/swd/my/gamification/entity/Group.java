@@ -1,17 +1,16 @@
 package com.edag.swd.my.gamification.entity;
 
+import com.edag.swd.my.gamification.leaderboard.LeaderboardEntityListener;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
 
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
 
 @Entity
+@EntityListeners(LeaderboardEntityListener.class)
 @Table(name = "`groups`")
 @Data
 @NoArgsConstructor
@@ -25,14 +24,20 @@ public class Group {
 
     private int totalGroupPoints = 0;
 
+    // Optimistic lock version, guards the total and activity points against lost updates
+    @Version
+    private Long version;
+
     @OneToMany(mappedBy = "group", cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<Person> members = new HashSet<>();
 
     @OneToMany(mappedBy = "group", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<GroupPointHistoryEntry> groupPointHistory = new ArrayList<>();
 
+    // Keyed by rule name, so capped awards look up their activity in constant time
     @OneToMany(mappedBy = "group", cascade = CascadeType.ALL, orphanRemoval = true)
-    private List<ActivityPoints> activityPoints = new ArrayList<>();
+    @MapKey(name = "ruleName")
+    private Map<String, ActivityPoints> activityPoints = new HashMap<>();
 
     // Constructor with required fields
     public Group(String id, String name) {
@@ -60,32 +65,23 @@ public class Group {
     }
 
     public void resetActivityCap(String ruleName) {
-        // Find and remove the activity points for the given rule
-        this.activityPoints.removeIf(ap -> ap.getRuleName().equals(ruleName));
+        // Remove the activity points for the given rule
+        this.activityPoints.remove(ruleName);
     }
 
     // Helper method to get current points for an activity
     public int getCurrentPointsForActivity(String ruleName) {
-        return this.activityPoints.stream()
-                .filter(ap -> ap.getRuleName().equals(ruleName))
-                .findFirst()
-                .map(ActivityPoints::getPoints)
-                .orElse(0);
+        ActivityPoints activityPoint = this.activityPoints.get(ruleName);
+        return activityPoint != null ? activityPoint.getPoints() : 0;
     }
 
     // Helper method to update points for an activity
     public void updateActivityPoints(String ruleName, int points) {
-        ActivityPoints activityPoint = this.activityPoints.stream()
-                .filter(ap -> ap.getRuleName().equals(ruleName))
-                .findFirst()
-                .orElse(null);
+        ActivityPoints activityPoint = this.activityPoints.get(ruleName);
 
         if (activityPoint == null) {
-            activityPoint = new ActivityPoints();
-            activityPoint.setGroup(this);
-            activityPoint.setRuleName(ruleName);
-            activityPoint.setPoints(points);
-            this.activityPoints.add(activityPoint);
+            activityPoint = new ActivityPoints(ruleName, points, this);
+            this.activityPoints.put(ruleName, activityPoint);
         } else {
             activityPoint.setPoints(points);
         }
@@ -1,5 +1,6 @@
 package com.edag.swd.my.gamification.entity;
 
+import com.edag.swd.my.gamification.rollup.RollupEntityListener;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -8,13 +9,20 @@ import lombok.NoArgsConstructor;
 import java.time.Instant;
 
 @Entity
-@Table(name = "group_point_history")
+@EntityListeners(RollupEntityListener.class)
+// Indexes for the history queries by group, by rule and by time, each ordered by time
+@Table(name = "group_point_history", indexes = {
+        @Index(name = "idx_group_point_history_group_timestamp", columnList = "group_id, timestamp"),
+        @Index(name = "idx_group_point_history_rule_timestamp", columnList = "rule_name, timestamp"),
+        @Index(name = "idx_group_point_history_timestamp", columnList = "timestamp")
+})
 @Data
 @NoArgsConstructor
 @EqualsAndHashCode(of = "id")
 public class GroupPointHistoryEntry {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "group_point_history_seq")
+    @SequenceGenerator(name = "group_point_history_seq", sequenceName = "group_point_history_seq", allocationSize = 50)
     private Long id;
 
     private int pointsChanged;
@@ -1,5 +1,6 @@
 package com.edag.swd.my.gamification.entity;
 
+import com.edag.swd.my.gamification.leaderboard.LeaderboardEntityListener;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -10,6 +11,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@EntityListeners(LeaderboardEntityListener.class)
 @Table(name = "persons")
 @Data
 @NoArgsConstructor
@@ -21,6 +23,9 @@ public class Person {
 
     private String name;
 
+    // Running total of pointHistory, maintained by recordContribution so it can be read without loading the history
+    private int totalAccumulatedPoints = 0;
+
     @ManyToOne
     @JoinColumn(name = "group_id")
     private Group group;
@@ -50,17 +55,11 @@ public class Person {
         entry.setReason(reason);
         entry.setRuleName(ruleName);
         this.pointHistory.add(entry);
+        this.totalAccumulatedPoints += pointsValue;
     }
 
     // Helper method to get the group ID
     public String getGroupId() {
         return group != null ? group.getId() : null;
     }
-
-    // Calculate total accumulated points
-    public int getTotalAccumulatedPoints() {
-        return pointHistory.stream()
-                .mapToInt(PointHistoryEntry::getPointsValue)
-                .sum();
-    }
 }
\ No newline at end of file
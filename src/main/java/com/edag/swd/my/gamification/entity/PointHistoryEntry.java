@@ -1,5 +1,6 @@
 package com.edag.swd.my.gamification.entity;
 
+import com.edag.swd.my.gamification.rollup.RollupEntityListener;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -8,13 +9,20 @@ import lombok.NoArgsConstructor;
 import java.time.Instant;
 
 @Entity
-@Table(name = "point_history")
+@EntityListeners(RollupEntityListener.class)
+// Indexes for the history queries by person, by rule and by time, each ordered by time
+@Table(name = "point_history", indexes = {
+        @Index(name = "idx_point_history_person_timestamp", columnList = "person_id, timestamp"),
+        @Index(name = "idx_point_history_rule_timestamp", columnList = "rule_name, timestamp"),
+        @Index(name = "idx_point_history_timestamp", columnList = "timestamp")
+})
 @Data
 @NoArgsConstructor
 @EqualsAndHashCode(of = "id")
 public class PointHistoryEntry {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "point_history_seq")
+    @SequenceGenerator(name = "point_history_seq", sequenceName = "point_history_seq", allocationSize = 50)
     private Long id;
 
     private int pointsValue;
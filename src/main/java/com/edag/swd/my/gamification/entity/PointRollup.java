@@ -0,0 +1,29 @@
+package com.edag.swd.my.gamification.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The points a person or group received from one rule within one day, week or month.
+ * Rows are maintained incrementally as history entries are written, so period reports read
+ * a few rows per subject instead of the history.
+ */
+@Entity
+// Indexes for the period leaderboards and for the buckets of one subject
+@Table(name = "point_rollups", indexes = {
+        @Index(name = "idx_point_rollups_period", columnList = "granularity, bucket_start, subject_type"),
+        @Index(name = "idx_point_rollups_subject", columnList = "subject_type, subject_id, granularity, bucket_start")
+})
+@Data
+@NoArgsConstructor
+public class PointRollup {
+    @EmbeddedId
+    private PointRollupId id;
+
+    // Sum of the points of the history entries in the bucket
+    private long points;
+
+    // Number of history entries in the bucket
+    private long entries;
+}
@@ -0,0 +1,35 @@
+package com.edag.swd.my.gamification.entity;
+
+import com.edag.swd.my.gamification.rollup.Granularity;
+import com.edag.swd.my.gamification.rollup.SubjectType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PointRollupId implements Serializable {
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private Granularity granularity;
+
+    private Instant bucketStart;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private SubjectType subjectType;
+
+    private String subjectId;
+
+    // Empty for history entries without a rule, since key columns cannot be null
+    private String ruleName;
+}
@@ -0,0 +1,157 @@
+package com.edag.swd.my.gamification.eventlog;
+
+import com.edag.swd.my.gamification.repository.EventLogRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rejects events whose idempotency key was already seen, before they reach the rule engine.
+ * <p>
+ * The keys of recent events are kept in memory for {@code gamification.dedup.window}, up to
+ * {@code gamification.dedup.max-keys} keys, so a check is a single hash lookup. The event log is the persistent
+ * index behind the window: it stores every applied event under its key with a unique index, and the window is
+ * loaded from it on startup. A retry that arrives after its key has left the window fails on that unique index
+ * instead of being applied twice, and is then reported as a duplicate as well (see
+ * {@link #duplicateLogged(String)}).
+ */
+@Service
+public class EventDeduplicator {
+    private final EventLogRepository eventLogRepository;
+    private final long windowMillis;
+    private final int maxKeys;
+    private final AtomicLong duplicates = new AtomicLong();
+
+    // Claimed keys mapped to when they were claimed, in epoch milliseconds
+    private final Map<String, Long> claims = new ConcurrentHashMap<>();
+
+    // Claims in the order they were made, used to evict the oldest keys
+    private final Queue<Claim> claimOrder = new ConcurrentLinkedQueue<>();
+
+    private record Claim(String key, long claimedAt) {
+    }
+
+    @Autowired
+    public EventDeduplicator(EventLogRepository eventLogRepository,
+                             @Value("${gamification.dedup.window:24h}") Duration window,
+                             @Value("${gamification.dedup.max-keys:100000}") int maxKeys) {
+        this.eventLogRepository = eventLogRepository;
+        this.windowMillis = window.toMillis();
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * Loads the keys of the events logged within the window.
+     * Runs on startup, so retries of events applied before a restart are still rejected.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadRecentKeys() {
+        long since = System.currentTimeMillis() - windowMillis;
+        List<EventKey> recent = eventLogRepository.findRecentKeys(Limit.of(maxKeys));
+        // Newest first; add the keys oldest first so they are evicted in order
+        for (int i = recent.size() - 1; i >= 0; i--) {
+            EventKey key = recent.get(i);
+            long loggedAt = key.timestamp().toEpochMilli();
+            if (loggedAt < since) continue;
+            claims.put(key.eventId(), loggedAt);
+            claimOrder.add(new Claim(key.eventId(), loggedAt));
+        }
+        System.out.println("Event deduplication window loaded: " + claims.size() + " keys.");
+    }
+
+    /**
+     * Claims an idempotency key for an event that is about to be processed.
+     * Within a transaction, the claim is released if the transaction rolls back, so the event can be retried.
+     *
+     * @param key The idempotency key of the event
+     * @return true if the key is new, false if the event is a duplicate
+     */
+    public boolean claim(String key) {
+        long now = System.currentTimeMillis();
+        evict(now);
+
+        if (claims.putIfAbsent(key, now) != null) {
+            duplicates.incrementAndGet();
+            return false;
+        }
+        claimOrder.add(new Claim(key, now));
+        evict(now);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        claims.remove(key, now);
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    /**
+     * Records an event that was rejected by the unique index of the event log because its key had already left
+     * the window. The key is claimed again, so further retries are rejected in memory.
+     *
+     * @param key The idempotency key of the event
+     */
+    public void duplicateLogged(String key) {
+        duplicates.incrementAndGet();
+        long now = System.currentTimeMillis();
+        claims.put(key, now);
+        claimOrder.add(new Claim(key, now));
+        evict(now);
+    }
+
+    /**
+     * Releases a claimed key because its event failed, so a retry of the event is processed.
+     *
+     * @param key The idempotency key of the event
+     */
+    public void release(String key) {
+        claims.remove(key);
+    }
+
+    /**
+     * Gets the number of events rejected as duplicates.
+     *
+     * @return The number of duplicates
+     */
+    public long getDuplicateCount() {
+        return duplicates.get();
+    }
+
+    /**
+     * Gets the number of keys in the window.
+     *
+     * @return The number of keys
+     */
+    public int getWindowSize() {
+        return claims.size();
+    }
+
+    private void evict(long now) {
+        while (true) {
+            Claim oldest = claimOrder.peek();
+            if (oldest == null || (oldest.claimedAt() > now - windowMillis && claims.size() <= maxKeys)) break;
+            if (claimOrder.remove(oldest)) {
+                // A key released and claimed again has a newer claim, which is left in place
+                claims.remove(oldest.key(), oldest.claimedAt());
+            }
+        }
+    }
+}
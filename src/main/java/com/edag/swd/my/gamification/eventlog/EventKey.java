@@ -0,0 +1,12 @@
+package com.edag.swd.my.gamification.eventlog;
+
+import java.time.Instant;
+
+/**
+ * The ID of a logged event and when it was logged, as loaded into the deduplication window.
+ *
+ * @param eventId   The ID of the event, or its idempotency key
+ * @param timestamp When the event was applied
+ */
+public record EventKey(String eventId, Instant timestamp) {
+}
@@ -0,0 +1,80 @@
+package com.edag.swd.my.gamification.eventlog;
+
+import com.edag.swd.my.gamification.entity.EventLogEntry;
+import com.edag.swd.my.gamification.repository.EventLogRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * The append-only log of the events applied by the rule engine.
+ * Events are appended in the transaction that applies them, so an event that fails or is rolled back is not
+ * logged. Events that may modify the same group are applied one at a time under its lock, which gives them
+ * increasing sequence numbers; replaying the log in sequence order therefore reproduces the scores.
+ */
+@Service
+public class EventLog {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<Map<String, String>> PARTICIPANTS_TYPE = new TypeReference<>() {
+    };
+
+    // The unique index on event_log.event_id, see EventLogEntry
+    private static final String EVENT_ID_INDEX = "idx_event_log_event_id";
+
+    private final EventLogRepository eventLogRepository;
+
+    @Autowired
+    public EventLog(EventLogRepository eventLogRepository) {
+        this.eventLogRepository = eventLogRepository;
+    }
+
+    /**
+     * Appends an event to the log within the current transaction.
+     * Event IDs are unique, so appending an event whose ID is already logged fails the transaction.
+     *
+     * @param eventId      The ID of the event, or its idempotency key
+     * @param actionType   The action type of the event
+     * @param participants Map of participant roles to person IDs
+     */
+    public void append(String eventId, String actionType, Map<String, String> participants) {
+        String json;
+        try {
+            json = MAPPER.writeValueAsString(participants != null ? participants : Map.of());
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        eventLogRepository.save(new EventLogEntry(eventId, actionType, json, Instant.now()));
+    }
+
+    /**
+     * Checks whether a failure was caused by appending an event whose ID is already logged.
+     *
+     * @param failure The exception thrown while applying or committing the event
+     * @return true if the event ID violated the unique index of the log
+     */
+    public static boolean isDuplicateEventId(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            String constraint = cause instanceof ConstraintViolationException violation
+                    ? violation.getConstraintName() : cause.getMessage();
+            if (constraint != null && constraint.toLowerCase().contains(EVENT_ID_INDEX)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static Map<String, String> readParticipants(String json) {
+        try {
+            return MAPPER.readValue(json, PARTICIPANTS_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
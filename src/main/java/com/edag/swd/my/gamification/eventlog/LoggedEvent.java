@@ -0,0 +1,22 @@
+package com.edag.swd.my.gamification.eventlog;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * An event read back from the event log.
+ *
+ * @param sequence     The position of the event in the log
+ * @param eventId      The ID of the event
+ * @param actionType   The action type of the event
+ * @param participants The participant roles mapped to person IDs
+ * @param timestamp    When the event was applied
+ */
+public record LoggedEvent(long sequence, String eventId, String actionType, Map<String, String> participants,
+                          Instant timestamp) {
+
+    // Used by the JPQL constructor expression, which reads the participants as stored
+    public LoggedEvent(Long sequence, String eventId, String actionType, String participants, Instant timestamp) {
+        this(sequence, eventId, actionType, EventLog.readParticipants(participants), timestamp);
+    }
+}
@@ -0,0 +1,14 @@
+package com.edag.swd.my.gamification.eventlog;
+
+/**
+ * The outcome of replaying the event log.
+ *
+ * @param events               The number of events replayed
+ * @param personHistoryEntries The number of person history entries written
+ * @param groupHistoryEntries  The number of group history entries written
+ * @param durationMillis       The time the replay took, including writing the scores
+ * @param eventsPerSecond      The throughput of the replay
+ */
+public record ReplayResult(long events, long personHistoryEntries, long groupHistoryEntries, long durationMillis,
+                           double eventsPerSecond) {
+}
@@ -0,0 +1,259 @@
+package com.edag.swd.my.gamification.eventlog;
+
+import com.edag.swd.my.gamification.engine.*;
+import com.edag.swd.my.gamification.entity.ActivityPoints;
+import com.edag.swd.my.gamification.entity.GroupPointHistoryEntry;
+import com.edag.swd.my.gamification.entity.PointHistoryEntry;
+import com.edag.swd.my.gamification.leaderboard.LeaderboardService;
+import com.edag.swd.my.gamification.repository.*;
+import com.edag.swd.my.gamification.rollup.RollupService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Rebuilds all scores from the event log with the current rules, for example after a rule was fixed.
+ * <p>
+ * The log is streamed in sequence order through a {@link ScoreEvaluator}, which keeps every total and capped
+ * activity in memory, so no entity is loaded or updated per event. The point history is written as it is
+ * produced in JDBC batches, and the totals and capped points once at the end. History timestamps are those
+ * of the logged events. Scores are replayed for the current groups and members; events of persons that no
+ * longer exist are skipped.
+ */
+@Service
+public class ReplayService {
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String INSERT_PERSON_HISTORY = "INSERT INTO point_history " +
+            "(id, points_value, reason, rule_name, timestamp, person_id) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_GROUP_HISTORY = "INSERT INTO group_point_history " +
+            "(id, points_changed, reason, rule_name, timestamp, group_id) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_ACTIVITY_POINTS = "INSERT INTO activity_points " +
+            "(id, rule_name, points, version, group_id) VALUES (?, ?, ?, 0, ?)";
+
+    private final EventLogRepository eventLogRepository;
+    private final PersonRepository personRepository;
+    private final GroupRepository groupRepository;
+    private final PointHistoryEntryRepository pointHistoryEntryRepository;
+    private final GroupPointHistoryEntryRepository groupPointHistoryEntryRepository;
+    private final ActivityPointsRepository activityPointsRepository;
+    private final RuleEngine ruleEngine;
+    private final RollupService rollupService;
+    private final LeaderboardService leaderboardService;
+    private final GroupLockManager groupLockManager;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ZoneId zone;
+
+    @Autowired
+    public ReplayService(EventLogRepository eventLogRepository,
+                         PersonRepository personRepository,
+                         GroupRepository groupRepository,
+                         PointHistoryEntryRepository pointHistoryEntryRepository,
+                         GroupPointHistoryEntryRepository groupPointHistoryEntryRepository,
+                         ActivityPointsRepository activityPointsRepository,
+                         RuleEngine ruleEngine,
+                         RollupService rollupService,
+                         LeaderboardService leaderboardService,
+                         GroupLockManager groupLockManager,
+                         PlatformTransactionManager transactionManager,
+                         EntityManager entityManager,
+                         @Value("${gamification.caps.reset-zone:}") String zone) {
+        this.eventLogRepository = eventLogRepository;
+        this.personRepository = personRepository;
+        this.groupRepository = groupRepository;
+        this.pointHistoryEntryRepository = pointHistoryEntryRepository;
+        this.groupPointHistoryEntryRepository = groupPointHistoryEntryRepository;
+        this.activityPointsRepository = activityPointsRepository;
+        this.ruleEngine = ruleEngine;
+        this.rollupService = rollupService;
+        this.leaderboardService = leaderboardService;
+        this.groupLockManager = groupLockManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManager = entityManager;
+        this.zone = zone.isBlank() ? ZoneId.systemDefault() : ZoneId.of(zone);
+    }
+
+    /**
+     * Replaces the totals, point history, capped activity points and rollups of all persons and groups with
+     * those produced by replaying the event log.
+     * All group locks are held while it runs, so no event is applied in the meantime.
+     *
+     * @return The number of events replayed and history entries written
+     */
+    public ReplayResult replay() {
+        long start = System.nanoTime();
+        ReplayResult result = groupLockManager.runLocked(LockScope.all(),
+                () -> transactionTemplate.execute(status -> rebuild(start)));
+
+        // The totals were written with plain SQL, so the rankings are reloaded once they are committed
+        leaderboardService.rebuild();
+        return result;
+    }
+
+    private ReplayResult rebuild(long start) {
+        entityManager.flush();
+        entityManager.clear();
+
+        Scoreboard scoreboard = new Scoreboard(groupRepository.findAllIds(), personRepository.findAllMemberships());
+        ScoreEvaluator evaluator = new ScoreEvaluator(ruleEngine.getRuleIndex(), zone);
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+
+        activityPointsRepository.deleteAllInBatch();
+        groupPointHistoryEntryRepository.deleteAllInBatch();
+        pointHistoryEntryRepository.deleteAllInBatch();
+
+        long events = 0;
+        HistoryWriter history = new HistoryWriter(session);
+        try (Stream<LoggedEvent> log = eventLogRepository.streamAll()) {
+            for (LoggedEvent event : (Iterable<LoggedEvent>) log::iterator) {
+                evaluator.apply(event, scoreboard, history);
+                events++;
+            }
+        }
+        history.flush();
+        writeScores(session, scoreboard, Instant.now());
+
+        // The history was written with plain SQL, which bypasses the incremental rollups
+        rollupService.rebuild();
+
+        long durationNanos = System.nanoTime() - start;
+        double eventsPerSecond = durationNanos > 0 ? events * 1_000_000_000.0 / durationNanos : 0;
+        return new ReplayResult(events, history.personEntries, history.groupEntries, durationNanos / 1_000_000,
+                eventsPerSecond);
+    }
+
+    private static void writeScores(SessionImplementor session, Scoreboard scoreboard, Instant now) {
+        // Capped points whose reset period has ended by now have already been reset by the scheduler
+        IdentifierGenerator activityIds = identifierGenerator(session, ActivityPoints.class);
+        List<Object[]> activityRows = new ArrayList<>();
+        for (GroupTally group : scoreboard.getGroups()) {
+            for (Map.Entry<String, Integer> activity : group.getActivityPoints(now).entrySet()) {
+                activityRows.add(new Object[]{activityIds.generate(session, null), activity.getKey(),
+                        activity.getValue(), group.getGroupId()});
+            }
+        }
+
+        session.doWork(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("UPDATE persons SET total_accumulated_points = 0");
+            }
+            try (PreparedStatement persons = connection.prepareStatement(
+                    "UPDATE persons SET total_accumulated_points = ? WHERE id = ?");
+                 PreparedStatement groups = connection.prepareStatement(
+                         "UPDATE \"groups\" SET total_group_points = ?, version = version + 1 WHERE id = ?");
+                 PreparedStatement activityPoints = connection.prepareStatement(INSERT_ACTIVITY_POINTS)) {
+                for (GroupTally group : scoreboard.getGroups()) {
+                    groups.setInt(1, group.getPoints());
+                    groups.setString(2, group.getGroupId());
+                    groups.addBatch();
+                    for (String personId : group.getMemberIds()) {
+                        int points = group.getMemberPoints(personId);
+                        if (points == 0) continue;
+                        persons.setInt(1, points);
+                        persons.setString(2, personId);
+                        persons.addBatch();
+                    }
+                }
+                for (Object[] row : activityRows) {
+                    activityPoints.setLong(1, (Long) row[0]);
+                    activityPoints.setString(2, (String) row[1]);
+                    activityPoints.setInt(3, (Integer) row[2]);
+                    activityPoints.setString(4, (String) row[3]);
+                    activityPoints.addBatch();
+                }
+                groups.executeBatch();
+                persons.executeBatch();
+                activityPoints.executeBatch();
+            }
+        });
+    }
+
+    private static IdentifierGenerator identifierGenerator(SessionImplementor session, Class<?> entityClass) {
+        // The entities' own pooled sequence generators, so later inserts by Hibernate never reuse an ID
+        return (IdentifierGenerator) session.getFactory().getMappingMetamodel()
+                .getEntityDescriptor(entityClass).getGenerator();
+    }
+
+    /**
+     * Writes the point history produced by the evaluator in JDBC batches.
+     */
+    private static final class HistoryWriter implements ScoreSink {
+        private record Row(Long id, String subjectId, int points, String reason, String ruleName,
+                           Instant timestamp) {
+        }
+
+        private final SessionImplementor session;
+        private final IdentifierGenerator personHistoryIds;
+        private final IdentifierGenerator groupHistoryIds;
+        private final List<Row> personRows = new ArrayList<>(BATCH_SIZE);
+        private final List<Row> groupRows = new ArrayList<>(BATCH_SIZE);
+        private long personEntries;
+        private long groupEntries;
+
+        HistoryWriter(SessionImplementor session) {
+            this.session = session;
+            this.personHistoryIds = identifierGenerator(session, PointHistoryEntry.class);
+            this.groupHistoryIds = identifierGenerator(session, GroupPointHistoryEntry.class);
+        }
+
+        @Override
+        public void personPoints(String personId, int points, String reason, String ruleName, Instant timestamp) {
+            personRows.add(new Row((Long) personHistoryIds.generate(session, null), personId, points, reason,
+                    ruleName, timestamp));
+            personEntries++;
+            if (personRows.size() >= BATCH_SIZE) {
+                write(INSERT_PERSON_HISTORY, personRows);
+            }
+        }
+
+        @Override
+        public void groupPoints(String groupId, int points, String reason, String ruleName, Instant timestamp) {
+            groupRows.add(new Row((Long) groupHistoryIds.generate(session, null), groupId, points, reason,
+                    ruleName, timestamp));
+            groupEntries++;
+            if (groupRows.size() >= BATCH_SIZE) {
+                write(INSERT_GROUP_HISTORY, groupRows);
+            }
+        }
+
+        void flush() {
+            write(INSERT_PERSON_HISTORY, personRows);
+            write(INSERT_GROUP_HISTORY, groupRows);
+        }
+
+        private void write(String sql, List<Row> rows) {
+            if (rows.isEmpty()) return;
+            session.doWork(connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                    for (Row row : rows) {
+                        statement.setLong(1, row.id());
+                        statement.setInt(2, row.points());
+                        statement.setString(3, row.reason());
+                        statement.setString(4, row.ruleName());
+                        statement.setObject(5, row.timestamp().atOffset(ZoneOffset.UTC));
+                        statement.setString(6, row.subjectId());
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                }
+            });
+            rows.clear();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.edag.swd.my.gamification.history;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * The position after the last entry of a history page.
+ * Entries are ordered by timestamp and ID, newest first, so the next page starts at the first entry
+ * that is older than the cursor, or as old but with a lower ID. Seeking to this position uses the
+ * (subject, timestamp) indexes no matter how deep the page is, unlike an offset.
+ *
+ * @param timestamp The timestamp of the last entry of the page
+ * @param id        The ID of the last entry of the page
+ */
+public record HistoryCursor(Instant timestamp, long id) {
+
+    public static HistoryCursor after(HistoryEntry entry) {
+        return new HistoryCursor(entry.timestamp(), entry.id());
+    }
+
+    /**
+     * Parses a cursor returned by {@link #encode()}.
+     *
+     * @param value The encoded cursor
+     * @return The cursor
+     * @throws IllegalArgumentException If the value is not a valid cursor
+     */
+    public static HistoryCursor decode(String value) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = decoded.lastIndexOf('|');
+            return new HistoryCursor(Instant.parse(decoded.substring(0, separator)),
+                    Long.parseLong(decoded.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + value, e);
+        }
+    }
+
+    /**
+     * Encodes the cursor as an opaque, URL-safe string.
+     *
+     * @return The encoded cursor
+     */
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((timestamp + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,17 @@
+package com.edag.swd.my.gamification.history;
+
+import java.time.Instant;
+
+/**
+ * A point history entry of a person or group, projected directly from the history tables
+ * so that paging and exporting never load or manage the entities.
+ *
+ * @param id        The ID of the history entry
+ * @param timestamp When the points were recorded
+ * @param subjectId The ID of the person or group
+ * @param points    The points awarded (positive) or deducted (negative)
+ * @param reason    The reason given by the rule outcome
+ * @param ruleName  The name of the rule that recorded the points
+ */
+public record HistoryEntry(long id, Instant timestamp, String subjectId, int points, String reason, String ruleName) {
+}
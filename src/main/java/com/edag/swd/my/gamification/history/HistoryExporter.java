@@ -0,0 +1,138 @@
+package com.edag.swd.my.gamification.history;
+
+import com.edag.swd.my.gamification.repository.GroupPointHistoryEntryRepository;
+import com.edag.swd.my.gamification.repository.PointHistoryEntryRepository;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Exports point history as NDJSON or CSV.
+ * Entries are streamed from the database as projections and written as they are read, so memory use does not
+ * depend on the size of the export. The stream is read in its own read-only transaction because exports are
+ * written after the controller has returned, outside of any request-scoped transaction.
+ */
+@Service
+public class HistoryExporter {
+
+    private static final String CSV_HEADER = "id,timestamp,subjectId,points,reason,ruleName";
+
+    private final PointHistoryEntryRepository pointHistoryEntryRepository;
+    private final GroupPointHistoryEntryRepository groupPointHistoryEntryRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public HistoryExporter(PointHistoryEntryRepository pointHistoryEntryRepository,
+                           GroupPointHistoryEntryRepository groupPointHistoryEntryRepository,
+                           PlatformTransactionManager transactionManager) {
+        this.pointHistoryEntryRepository = pointHistoryEntryRepository;
+        this.groupPointHistoryEntryRepository = groupPointHistoryEntryRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Writes the point history of all persons in a time range, oldest first.
+     *
+     * @param from   The start of the range, inclusive
+     * @param to     The end of the range, exclusive
+     * @param format The format to write
+     * @param out    The stream to write to
+     * @return The number of entries written
+     */
+    public long exportPersonHistory(Instant from, Instant to, HistoryFormat format, OutputStream out) {
+        return export(() -> pointHistoryEntryRepository.streamByTimestampRange(from, to), format, out);
+    }
+
+    /**
+     * Writes the point history of all groups in a time range, oldest first.
+     *
+     * @param from   The start of the range, inclusive
+     * @param to     The end of the range, exclusive
+     * @param format The format to write
+     * @param out    The stream to write to
+     * @return The number of entries written
+     */
+    public long exportGroupHistory(Instant from, Instant to, HistoryFormat format, OutputStream out) {
+        return export(() -> groupPointHistoryEntryRepository.streamByTimestampRange(from, to), format, out);
+    }
+
+    private long export(Supplier<Stream<HistoryEntry>> query, HistoryFormat format, OutputStream out) {
+        Long count = transactionTemplate.execute(status -> {
+            try (Stream<HistoryEntry> entries = query.get()) {
+                return switch (format) {
+                    case NDJSON -> writeNdjson(entries, out);
+                    case CSV -> writeCsv(entries, out);
+                };
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return count != null ? count : 0;
+    }
+
+    private static long writeNdjson(Stream<HistoryEntry> entries, OutputStream out) throws IOException {
+        long count = 0;
+        // The generator buffers its output, and closing it flushes but does not close the response stream
+        try (JsonGenerator json = new JsonFactory().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .createGenerator(out).setRootValueSeparator(null)) {
+            for (HistoryEntry entry : (Iterable<HistoryEntry>) entries::iterator) {
+                json.writeStartObject();
+                json.writeNumberField("id", entry.id());
+                json.writeStringField("timestamp", entry.timestamp().toString());
+                json.writeStringField("subjectId", entry.subjectId());
+                json.writeNumberField("points", entry.points());
+                json.writeStringField("reason", entry.reason());
+                json.writeStringField("ruleName", entry.ruleName());
+                json.writeEndObject();
+                json.writeRaw('\n');
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static long writeCsv(Stream<HistoryEntry> entries, OutputStream out) throws IOException {
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        for (HistoryEntry entry : (Iterable<HistoryEntry>) entries::iterator) {
+            writer.write(Long.toString(entry.id()));
+            writer.write(',');
+            writer.write(entry.timestamp().toString());
+            writer.write(',');
+            writer.write(csvField(entry.subjectId()));
+            writer.write(',');
+            writer.write(Integer.toString(entry.points()));
+            writer.write(',');
+            writer.write(csvField(entry.reason()));
+            writer.write(',');
+            writer.write(csvField(entry.ruleName()));
+            writer.write('\n');
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    // Quotes fields containing separators, quotes or line breaks (RFC 4180)
+    static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,27 @@
+package com.edag.swd.my.gamification.history;
+
+import org.springframework.http.MediaType;
+
+/**
+ * The file formats point history can be exported in.
+ */
+public enum HistoryFormat {
+    NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+    CSV(MediaType.parseMediaType("text/csv"), "csv");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    HistoryFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
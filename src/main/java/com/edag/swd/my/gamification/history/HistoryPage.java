@@ -0,0 +1,28 @@
+package com.edag.swd.my.gamification.history;
+
+import java.util.List;
+
+/**
+ * A page of point history, newest first.
+ *
+ * @param entries    The entries of the page
+ * @param nextCursor The cursor to request the next page with, or null if this is the last page
+ */
+public record HistoryPage(List<HistoryEntry> entries, String nextCursor) {
+
+    /**
+     * Creates a page from the entries read for it. Callers read one entry more than the page size,
+     * which tells whether a next page exists without a count query.
+     *
+     * @param entries The entries read, at most limit + 1
+     * @param limit   The page size
+     * @return The page
+     */
+    public static HistoryPage of(List<HistoryEntry> entries, int limit) {
+        if (entries.size() <= limit) {
+            return new HistoryPage(entries, null);
+        }
+        List<HistoryEntry> page = entries.subList(0, limit);
+        return new HistoryPage(List.copyOf(page), HistoryCursor.after(page.get(limit - 1)).encode());
+    }
+}
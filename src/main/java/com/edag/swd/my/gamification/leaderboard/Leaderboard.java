@@ -0,0 +1,299 @@
+package com.edag.swd.my.gamification.leaderboard;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * A ranking of IDs by points, highest first, with ties ordered by ID.
+ * Backed by an indexable skip list: every forward link records how many entries it skips, so updates,
+ * rank lookups and positional access all take O(log n) instead of re-sorting on every read.
+ * Reads run concurrently; updates are exclusive.
+ */
+public class Leaderboard {
+    private static final int MAX_LEVEL = 32;
+    private static final double LEVEL_PROBABILITY = 0.25;
+
+    private static final class Node {
+        final String id;
+        final int points;
+        final Node[] forward;
+        final int[] span;
+
+        Node(String id, int points, int level) {
+            this.id = id;
+            this.points = points;
+            this.forward = new Node[level];
+            this.span = new int[level];
+        }
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> pointsById = new HashMap<>();
+    private final Node head = new Node(null, 0, MAX_LEVEL);
+    private int level = 1;
+    private int size = 0;
+
+    /**
+     * Sets the points of an ID, adding it to the leaderboard if needed.
+     *
+     * @param id     The ID to rank
+     * @param points The new total points
+     */
+    public void update(String id, int points) {
+        lock.writeLock().lock();
+        try {
+            Integer previous = pointsById.put(id, points);
+            if (previous != null) {
+                if (previous == points) return;
+                delete(id, previous);
+            }
+            insert(id, points);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes an ID from the leaderboard.
+     *
+     * @param id The ID to remove
+     */
+    public void remove(String id) {
+        lock.writeLock().lock();
+        try {
+            Integer previous = pointsById.remove(id);
+            if (previous != null) {
+                delete(id, previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces all entries of the leaderboard.
+     *
+     * @param points Map of IDs to total points
+     */
+    public void reset(Map<String, Integer> points) {
+        lock.writeLock().lock();
+        try {
+            pointsById.clear();
+            Arrays.fill(head.forward, null);
+            Arrays.fill(head.span, 0);
+            level = 1;
+            size = 0;
+            points.forEach((id, value) -> {
+                pointsById.put(id, value);
+                insert(id, value);
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the ranked entry of an ID.
+     *
+     * @param id The ID to look up
+     * @return The entry, or empty if the ID is not ranked
+     */
+    public Optional<LeaderboardEntry> get(String id) {
+        lock.readLock().lock();
+        try {
+            Integer points = pointsById.get(id);
+            if (points == null) return Optional.empty();
+            return Optional.of(new LeaderboardEntry(id, points, rankOf(id, points)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the highest ranked entries.
+     *
+     * @param limit The maximum number of entries to return
+     * @return The entries, highest points first
+     */
+    public List<LeaderboardEntry> top(int limit) {
+        return range(0, limit);
+    }
+
+    /**
+     * Gets a page of entries by position.
+     *
+     * @param offset The 0-based position of the first entry
+     * @param limit  The maximum number of entries to return
+     * @return The entries, highest points first
+     */
+    public List<LeaderboardEntry> range(int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            List<LeaderboardEntry> entries = new ArrayList<>(Math.max(0, Math.min(limit, size - offset)));
+            if (offset < 0 || offset >= size || limit <= 0) return entries;
+
+            Node node = nodeAt(offset + 1);
+            for (int rank = offset + 1; node != null && entries.size() < limit; rank++, node = node.forward[0]) {
+                entries.add(new LeaderboardEntry(node.id, node.points, rank));
+            }
+            return entries;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the entries ranked around an ID.
+     *
+     * @param id     The ID to center the page on
+     * @param radius The number of entries to include above and below the ID
+     * @return The entries, highest points first, or an empty list if the ID is not ranked
+     */
+    public List<LeaderboardEntry> around(String id, int radius) {
+        lock.readLock().lock();
+        try {
+            Integer points = pointsById.get(id);
+            if (points == null) return List.of();
+            int rank = rankOf(id, points);
+            int offset = Math.max(0, rank - 1 - radius);
+            return range(offset, rank - offset + radius);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Orders items by their rank on this leaderboard.
+     * Items that are not ranked are placed last, in their original order.
+     *
+     * @param items The items to order
+     * @param idOf  Function that gets the ID of an item
+     * @return The items, highest points first
+     */
+    public <T> List<T> sortByRank(Collection<T> items, Function<T, String> idOf) {
+        Map<String, T> itemsById = new LinkedHashMap<>();
+        items.forEach(item -> itemsById.put(idOf.apply(item), item));
+
+        List<T> sorted = new ArrayList<>(items.size());
+        for (LeaderboardEntry entry : top(Integer.MAX_VALUE)) {
+            T item = itemsById.remove(entry.id());
+            if (item != null) sorted.add(item);
+        }
+        sorted.addAll(itemsById.values());
+        return sorted;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Whether the node is ranked before the given points and ID
+    private static boolean precedes(Node node, int points, String id) {
+        return node.points > points || (node.points == points && node.id.compareTo(id) < 0);
+    }
+
+    private void insert(String id, int points) {
+        Node[] update = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+
+        Node node = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = i == level - 1 ? 0 : rank[i + 1];
+            while (node.forward[i] != null && precedes(node.forward[i], points, id)) {
+                rank[i] += node.span[i];
+                node = node.forward[i];
+            }
+            update[i] = node;
+        }
+
+        int newLevel = randomLevel();
+        if (newLevel > level) {
+            for (int i = level; i < newLevel; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                update[i].span[i] = size;
+            }
+            level = newLevel;
+        }
+
+        Node inserted = new Node(id, points, newLevel);
+        for (int i = 0; i < newLevel; i++) {
+            inserted.forward[i] = update[i].forward[i];
+            update[i].forward[i] = inserted;
+            inserted.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = (rank[0] - rank[i]) + 1;
+        }
+        for (int i = newLevel; i < level; i++) {
+            update[i].span[i]++;
+        }
+        size++;
+    }
+
+    private void delete(String id, int points) {
+        Node[] update = new Node[MAX_LEVEL];
+        Node node = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (node.forward[i] != null && precedes(node.forward[i], points, id)) {
+                node = node.forward[i];
+            }
+            update[i] = node;
+        }
+
+        Node deleted = node.forward[0];
+        if (deleted == null || !deleted.id.equals(id)) return;
+
+        for (int i = 0; i < level; i++) {
+            if (update[i].forward[i] == deleted) {
+                update[i].span[i] += deleted.span[i] - 1;
+                update[i].forward[i] = deleted.forward[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+        while (level > 1 && head.forward[level - 1] == null) {
+            level--;
+        }
+        size--;
+    }
+
+    private int rankOf(String id, int points) {
+        int rank = 0;
+        Node node = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (node.forward[i] != null && precedes(node.forward[i], points, id)) {
+                rank += node.span[i];
+                node = node.forward[i];
+            }
+        }
+        return rank + 1;
+    }
+
+    private Node nodeAt(int rank) {
+        int traversed = 0;
+        Node node = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (node.forward[i] != null && traversed + node.span[i] <= rank) {
+                traversed += node.span[i];
+                node = node.forward[i];
+            }
+            if (traversed == rank) return node;
+        }
+        return null;
+    }
+
+    private static int randomLevel() {
+        int level = 1;
+        while (level < MAX_LEVEL && ThreadLocalRandom.current().nextDouble() < LEVEL_PROBABILITY) {
+            level++;
+        }
+        return level;
+    }
+}
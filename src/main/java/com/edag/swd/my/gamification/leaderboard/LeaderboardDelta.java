@@ -0,0 +1,16 @@
+package com.edag.swd.my.gamification.leaderboard;
+
+import java.util.List;
+
+/**
+ * The changes of the leaderboards since the previous frame of the live feed, or the top of both leaderboards
+ * for a snapshot frame. Each changed person or group is listed once with its latest total and rank.
+ *
+ * @param groups         The changed groups
+ * @param persons        The changed persons
+ * @param removedGroups  The IDs of the groups that are no longer ranked
+ * @param removedPersons The IDs of the persons that are no longer ranked
+ */
+public record LeaderboardDelta(List<LeaderboardEntry> groups, List<LeaderboardEntry> persons,
+                               List<String> removedGroups, List<String> removedPersons) {
+}
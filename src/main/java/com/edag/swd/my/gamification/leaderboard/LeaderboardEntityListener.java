@@ -0,0 +1,48 @@
+package com.edag.swd.my.gamification.leaderboard;
+
+import com.edag.swd.my.gamification.entity.Group;
+import com.edag.swd.my.gamification.entity.Person;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * JPA listener that forwards changed person and group totals to the leaderboards.
+ * The service is looked up lazily because Hibernate creates listeners while the repositories
+ * the service depends on are still being set up.
+ */
+public class LeaderboardEntityListener {
+    private final ObjectProvider<LeaderboardService> leaderboardService;
+
+    @Autowired
+    public LeaderboardEntityListener(ObjectProvider<LeaderboardService> leaderboardService) {
+        this.leaderboardService = leaderboardService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Object entity) {
+        LeaderboardService service = leaderboardService.getIfAvailable();
+        if (service == null) return;
+
+        if (entity instanceof Group group) {
+            service.groupChanged(group.getId(), group.getTotalGroupPoints());
+        } else if (entity instanceof Person person) {
+            service.personChanged(person.getId(), person.getTotalAccumulatedPoints());
+        }
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        LeaderboardService service = leaderboardService.getIfAvailable();
+        if (service == null) return;
+
+        if (entity instanceof Group group) {
+            service.groupRemoved(group.getId());
+        } else if (entity instanceof Person person) {
+            service.personRemoved(person.getId());
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.edag.swd.my.gamification.leaderboard;
+
+/**
+ * A ranked position on a leaderboard.
+ *
+ * @param id     The ID of the ranked person or group
+ * @param points The total points of the person or group
+ * @param rank   The 1-based rank, highest points first
+ */
+public record LeaderboardEntry(String id, int points, int rank) {
+}
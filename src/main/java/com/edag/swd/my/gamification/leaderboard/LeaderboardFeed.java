@@ -0,0 +1,395 @@
+package com.edag.swd.my.gamification.leaderboard;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes the changes of the leaderboards to connected dashboards as Server-Sent Events.
+ * <p>
+ * Committed changes only mark the changed IDs. Every {@code gamification.feed.tick} a single feed thread collects
+ * the marked IDs, looks up their latest totals and ranks once and serializes them once into a frame, which is then
+ * written to every client. An ID that changed several times within a frame is sent once, with its latest value.
+ * Clients choose how often they receive frames; clients with the same interval share a tier, which accumulates
+ * the changes between its frames, so the work per frame depends on the number of changes and intervals rather than
+ * on the number of clients. On connect, and after the leaderboards were rebuilt, a client receives a snapshot of
+ * the top of both leaderboards. Idle connections get a comment every {@code gamification.feed.heartbeat}, so
+ * closed connections are noticed.
+ * <p>
+ * Besides the changed entries, a frame holds the entries of the top of a tier (the largest {@code top} of its
+ * clients) whose rank shifted because others passed them, and those that left the top, so the ranks shown by a
+ * client stay current. Ranks outside the top are those of the entry's last change.
+ * <p>
+ * The feed thread never writes to a connection. Frames are put into a bounded outbox per client, which is written
+ * on a virtual thread, so a slow connection only delays itself. A client whose outbox is full is disconnected.
+ */
+@Service
+public class LeaderboardFeed implements LeaderboardListener {
+    private static final Set<DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("heartbeat").build();
+
+    private final LeaderboardService leaderboardService;
+    private final long tickMillis;
+    private final long heartbeatTicks;
+    private final long timeoutMillis;
+    private final int maxClients;
+    private final int clientBuffer;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final ScheduledExecutorService scheduler;
+    // Writes the outboxes of the clients
+    private final ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor();
+
+    // IDs changed since the last tick; filled by committing threads and drained by the feed thread
+    private final Set<String> changedGroups = ConcurrentHashMap.newKeySet();
+    private final Set<String> changedPersons = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean rebuilt = new AtomicBoolean();
+
+    // Clients that still need their first snapshot
+    private final Queue<Client> joining = new ConcurrentLinkedQueue<>();
+
+    // Clients by the number of ticks between their frames
+    private final Map<Integer, Tier> tiers = new ConcurrentHashMap<>();
+
+    private final AtomicInteger clients = new AtomicInteger();
+    private final AtomicLong framesSent = new AtomicLong();
+    private final AtomicLong slowClients = new AtomicLong();
+
+    // Only used by the feed thread
+    private long tick;
+
+    @Autowired
+    public LeaderboardFeed(LeaderboardService leaderboardService,
+                           @Value("${gamification.feed.tick:250ms}") Duration tick,
+                           @Value("${gamification.feed.heartbeat:15s}") Duration heartbeat,
+                           @Value("${gamification.feed.timeout:30m}") Duration timeout,
+                           @Value("${gamification.feed.max-clients:5000}") int maxClients,
+                           @Value("${gamification.feed.client-buffer:32}") int clientBuffer) {
+        this.leaderboardService = leaderboardService;
+        this.tickMillis = Math.max(1, tick.toMillis());
+        this.heartbeatTicks = Math.max(1, heartbeat.toMillis() / tickMillis);
+        this.timeoutMillis = timeout.toMillis();
+        this.maxClients = maxClients;
+        this.clientBuffer = Math.max(1, clientBuffer);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "leaderboard-feed");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        leaderboardService.addListener(this);
+        scheduler.scheduleWithFixedDelay(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Connects a client to the feed.
+     *
+     * @param interval The minimum time between two frames for the client; rounded up to whole ticks
+     * @param top      The number of entries of each leaderboard in the snapshots
+     * @return The event stream of the client, or empty if the maximum number of clients is connected
+     */
+    public Optional<SseEmitter> subscribe(Duration interval, int top) {
+        if (clients.incrementAndGet() > maxClients) {
+            clients.decrementAndGet();
+            return Optional.empty();
+        }
+        int ticks = (int) Math.max(1, (interval.toMillis() + tickMillis - 1) / tickMillis);
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Client client = new Client(emitter, ticks, top);
+        emitter.onCompletion(client::close);
+        emitter.onTimeout(client::close);
+        emitter.onError(e -> client.close());
+        joining.add(client);
+        return Optional.of(emitter);
+    }
+
+    /**
+     * Gets the number of connected clients.
+     *
+     * @return The number of clients
+     */
+    public int getClientCount() {
+        return clients.get();
+    }
+
+    /**
+     * Gets the number of frames written to clients, counting a frame once per client.
+     *
+     * @return The number of frames sent
+     */
+    public long getFramesSent() {
+        return framesSent.get();
+    }
+
+    /**
+     * Gets the number of clients disconnected because they did not keep up with their frames.
+     *
+     * @return The number of slow clients
+     */
+    public long getSlowClientCount() {
+        return slowClients.get();
+    }
+
+    @Override
+    public void leaderboardChanged(Collection<String> groupIds, Collection<String> personIds) {
+        changedGroups.addAll(groupIds);
+        changedPersons.addAll(personIds);
+    }
+
+    @Override
+    public void leaderboardRebuilt() {
+        rebuilt.set(true);
+    }
+
+    private void tick() {
+        try {
+            publish();
+        } catch (RuntimeException e) {
+            // Keep the feed running; the changes of this tick are sent with the next snapshot or change
+            System.err.println("Error publishing leaderboard changes: " + e.getMessage());
+        }
+    }
+
+    private void publish() {
+        tick++;
+        List<String> groupIds = drain(changedGroups);
+        List<String> personIds = drain(changedPersons);
+
+        // Snapshots of this tick, built once per requested size
+        Map<Integer, Set<DataWithMediaType>> snapshots = new HashMap<>();
+        boolean resync = rebuilt.getAndSet(false);
+        for (Tier tier : tiers.values()) {
+            if (resync) {
+                // Every change is covered by the snapshot of the rebuilt leaderboards
+                tier.groupIds.clear();
+                tier.personIds.clear();
+                tier.resetShown(leaderboardService);
+                tier.clients.forEach(client -> client.send(snapshots.computeIfAbsent(client.top, this::snapshot)));
+            } else {
+                tier.groupIds.addAll(groupIds);
+                tier.personIds.addAll(personIds);
+            }
+        }
+
+        Client client;
+        while ((client = joining.poll()) != null) {
+            if (client.send(snapshots.computeIfAbsent(client.top, this::snapshot))) {
+                join(client);
+            }
+        }
+
+        boolean heartbeat = tick % heartbeatTicks == 0;
+        for (Tier tier : tiers.values()) {
+            Set<DataWithMediaType> frame = null;
+            if (tick % tier.ticks == 0 && (!tier.groupIds.isEmpty() || !tier.personIds.isEmpty())) {
+                frame = delta(tier);
+                tier.groupIds.clear();
+                tier.personIds.clear();
+            } else if (heartbeat) {
+                frame = HEARTBEAT;
+            }
+            if (frame != null) {
+                for (Client member : tier.clients) {
+                    member.send(frame);
+                }
+            }
+        }
+    }
+
+    private void join(Client client) {
+        tiers.compute(client.ticks, (ticks, tier) -> {
+            // A client closed before it joined is never added, since closing removes it under the same key
+            if (client.closed.get()) return tier;
+            Tier joined = tier != null ? tier : new Tier(ticks);
+            joined.clients.add(client);
+            joined.top = Math.max(joined.top, client.top);
+            return joined;
+        });
+    }
+
+    private Set<DataWithMediaType> snapshot(int top) {
+        return frame("snapshot", new LeaderboardDelta(leaderboardService.getGroups().top(top),
+                leaderboardService.getPersons().top(top), List.of(), List.of()));
+    }
+
+    private Set<DataWithMediaType> delta(Tier tier) {
+        List<LeaderboardEntry> groups = new ArrayList<>();
+        List<String> removedGroups = new ArrayList<>();
+        lookup(leaderboardService.getGroups(), tier.groupIds, tier.shownGroups, tier.top, groups, removedGroups);
+        List<LeaderboardEntry> persons = new ArrayList<>();
+        List<String> removedPersons = new ArrayList<>();
+        lookup(leaderboardService.getPersons(), tier.personIds, tier.shownPersons, tier.top, persons, removedPersons);
+        return frame("delta", new LeaderboardDelta(groups, persons, removedGroups, removedPersons));
+    }
+
+    // The changed entries, plus the entries of the top that differ from what the tier was last sent
+    private static void lookup(Leaderboard leaderboard, Collection<String> ids, Map<String, LeaderboardEntry> shown,
+                               int top, List<LeaderboardEntry> entries, List<String> removed) {
+        Map<String, LeaderboardEntry> changed = new HashMap<>();
+        Set<String> gone = new LinkedHashSet<>();
+        for (String id : ids) {
+            leaderboard.get(id).ifPresentOrElse(entry -> changed.put(id, entry), () -> gone.add(id));
+        }
+        Map<String, LeaderboardEntry> current = new HashMap<>();
+        for (LeaderboardEntry entry : leaderboard.top(top)) {
+            current.put(entry.id(), entry);
+            if (!entry.equals(shown.get(entry.id()))) {
+                changed.put(entry.id(), entry);
+            }
+        }
+        for (String id : shown.keySet()) {
+            if (!current.containsKey(id)) {
+                // Left the top, with its new rank
+                leaderboard.get(id).ifPresentOrElse(entry -> changed.put(id, entry), () -> gone.add(id));
+            }
+        }
+        shown.clear();
+        shown.putAll(current);
+
+        entries.addAll(changed.values());
+        entries.sort(Comparator.comparingInt(LeaderboardEntry::rank));
+        removed.addAll(gone);
+    }
+
+    private Set<DataWithMediaType> frame(String name, LeaderboardDelta delta) {
+        try {
+            return SseEmitter.event().name(name).data(mapper.writeValueAsString(delta), MediaType.APPLICATION_JSON)
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize leaderboard changes", e);
+        }
+    }
+
+    private static List<String> drain(Set<String> ids) {
+        List<String> drained = new ArrayList<>();
+        // An ID added again while draining is either drained now or kept for the next tick
+        for (Iterator<String> iterator = ids.iterator(); iterator.hasNext(); ) {
+            drained.add(iterator.next());
+            iterator.remove();
+        }
+        return drained;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        tiers.values().forEach(tier -> tier.clients.forEach(Client::disconnect));
+        writers.shutdown();
+    }
+
+    /**
+     * The clients that receive a frame every {@code ticks} ticks, and the changes since their last frame.
+     */
+    private static final class Tier {
+        final int ticks;
+        final List<Client> clients = new CopyOnWriteArrayList<>();
+        // Only used by the feed thread
+        final Set<String> groupIds = new HashSet<>();
+        final Set<String> personIds = new HashSet<>();
+        // The largest top of the clients that joined, and the entries of that top as last sent
+        int top;
+        final Map<String, LeaderboardEntry> shownGroups = new HashMap<>();
+        final Map<String, LeaderboardEntry> shownPersons = new HashMap<>();
+
+        Tier(int ticks) {
+            this.ticks = ticks;
+        }
+
+        void resetShown(LeaderboardService leaderboardService) {
+            shownGroups.clear();
+            leaderboardService.getGroups().top(top).forEach(entry -> shownGroups.put(entry.id(), entry));
+            shownPersons.clear();
+            leaderboardService.getPersons().top(top).forEach(entry -> shownPersons.put(entry.id(), entry));
+        }
+    }
+
+    /**
+     * A connected client and the frames waiting to be written to it.
+     * At most one writer drains the outbox at a time, so frames are written in order.
+     */
+    private final class Client {
+        final SseEmitter emitter;
+        final int ticks;
+        final int top;
+        final AtomicBoolean closed = new AtomicBoolean();
+        final BlockingQueue<Set<DataWithMediaType>> outbox;
+        final AtomicBoolean writing = new AtomicBoolean();
+
+        Client(SseEmitter emitter, int ticks, int top) {
+            this.emitter = emitter;
+            this.ticks = ticks;
+            this.top = top;
+            this.outbox = new ArrayBlockingQueue<>(clientBuffer);
+        }
+
+        // Queues a frame without blocking; false if the client is gone or too slow
+        boolean send(Set<DataWithMediaType> frame) {
+            if (closed.get()) return false;
+            if (!outbox.offer(frame)) {
+                slowClients.incrementAndGet();
+                disconnect();
+                return false;
+            }
+            if (writing.compareAndSet(false, true)) {
+                writers.execute(this::write);
+            }
+            return true;
+        }
+
+        private void write() {
+            while (true) {
+                Set<DataWithMediaType> frame;
+                while ((frame = outbox.poll()) != null) {
+                    if (closed.get()) {
+                        outbox.clear();
+                        break;
+                    }
+                    try {
+                        emitter.send(frame);
+                        framesSent.incrementAndGet();
+                    } catch (IOException | IllegalStateException e) {
+                        // The client disconnected
+                        close();
+                    }
+                }
+                writing.set(false);
+                // A frame queued after the outbox was found empty, but before writing was reset
+                if (outbox.isEmpty() || !writing.compareAndSet(false, true)) return;
+            }
+        }
+
+        // Ends the stream; completing may wait for a write in progress, so it runs on a writer thread
+        void disconnect() {
+            if (close()) {
+                writers.execute(emitter::complete);
+            }
+        }
+
+        // Removes the client from the feed; true if it was connected
+        boolean close() {
+            if (!closed.compareAndSet(false, true)) return false;
+            clients.decrementAndGet();
+            tiers.computeIfPresent(ticks, (key, tier) -> {
+                tier.clients.remove(this);
+                return tier.clients.isEmpty() ? null : tier;
+            });
+            return true;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.edag.swd.my.gamification.leaderboard;
+
+import java.util.Collection;
+
+/**
+ * Notified by the {@link LeaderboardService} after the rankings changed.
+ * Called on the thread that committed the change, so implementations must return quickly.
+ */
+public interface LeaderboardListener {
+
+    /**
+     * Called after the totals of some persons and groups changed or they were removed from the rankings.
+     *
+     * @param groupIds  The IDs of the changed groups
+     * @param personIds The IDs of the changed persons
+     */
+    void leaderboardChanged(Collection<String> groupIds, Collection<String> personIds);
+
+    /**
+     * Called after both leaderboards were rebuilt from the stored totals.
+     */
+    void leaderboardRebuilt();
+}
@@ -0,0 +1,151 @@
+package com.edag.swd.my.gamification.leaderboard;
+
+import com.edag.swd.my.gamification.repository.GroupRepository;
+import com.edag.swd.my.gamification.repository.PersonRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Service that keeps the person and group rankings in memory.
+ * The leaderboards are rebuilt from the database on startup and then updated incrementally as totals change,
+ * so rank queries never have to load and sort every entity. Changes made within a transaction are published
+ * only after it commits, so the rankings never show points that were rolled back.
+ */
+@Service
+public class LeaderboardService {
+    private final GroupRepository groupRepository;
+    private final PersonRepository personRepository;
+    private final Leaderboard groups = new Leaderboard();
+    private final Leaderboard persons = new Leaderboard();
+    private final List<LeaderboardListener> listeners = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    public LeaderboardService(GroupRepository groupRepository, PersonRepository personRepository) {
+        this.groupRepository = groupRepository;
+        this.personRepository = personRepository;
+    }
+
+    /**
+     * Rebuilds both leaderboards from the stored totals.
+     * Runs on startup; call it again after bulk updates that bypass the entities.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        groups.reset(toPointsMap(groupRepository.findAllScores()));
+        persons.reset(toPointsMap(personRepository.findAllScores()));
+        System.out.println("Leaderboards rebuilt: " + groups.size() + " groups, " + persons.size() + " persons.");
+        listeners.forEach(LeaderboardListener::leaderboardRebuilt);
+    }
+
+    /**
+     * Registers a listener that is notified after the rankings changed.
+     *
+     * @param listener The listener
+     */
+    public void addListener(LeaderboardListener listener) {
+        listeners.add(listener);
+    }
+
+    public Leaderboard getGroups() {
+        return groups;
+    }
+
+    public Leaderboard getPersons() {
+        return persons;
+    }
+
+    /**
+     * Records the new total of a group.
+     *
+     * @param groupId The ID of the group
+     * @param points  The new total points of the group
+     */
+    public void groupChanged(String groupId, int points) {
+        publish(groups, groupId, points);
+    }
+
+    /**
+     * Removes a group from the rankings.
+     *
+     * @param groupId The ID of the group
+     */
+    public void groupRemoved(String groupId) {
+        publish(groups, groupId, null);
+    }
+
+    /**
+     * Records the new total of a person.
+     *
+     * @param personId The ID of the person
+     * @param points   The new total points of the person
+     */
+    public void personChanged(String personId, int points) {
+        publish(persons, personId, points);
+    }
+
+    /**
+     * Removes a person from the rankings.
+     *
+     * @param personId The ID of the person
+     */
+    public void personRemoved(String personId) {
+        publish(persons, personId, null);
+    }
+
+    private void publish(Leaderboard leaderboard, String id, Integer points) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(leaderboard, id, points);
+            notifyListeners(Map.of(leaderboard, Collections.singletonMap(id, points)));
+            return;
+        }
+
+        // Collect the changes of the transaction and apply only the latest value of each ID once it commits
+        @SuppressWarnings("unchecked")
+        Map<Leaderboard, Map<String, Integer>> pending =
+                (Map<Leaderboard, Map<String, Integer>>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Map<Leaderboard, Map<String, Integer>> changes = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(LeaderboardService.this);
+                    if (status == STATUS_COMMITTED) {
+                        changes.forEach((board, points) -> points.forEach((key, value) -> apply(board, key, value)));
+                        notifyListeners(changes);
+                    }
+                }
+            });
+            pending = changes;
+        }
+        pending.computeIfAbsent(leaderboard, k -> new LinkedHashMap<>()).put(id, points);
+    }
+
+    private void notifyListeners(Map<Leaderboard, Map<String, Integer>> changes) {
+        if (listeners.isEmpty()) return;
+        Set<String> groupIds = changes.getOrDefault(groups, Map.of()).keySet();
+        Set<String> personIds = changes.getOrDefault(persons, Map.of()).keySet();
+        listeners.forEach(listener -> listener.leaderboardChanged(groupIds, personIds));
+    }
+
+    private static void apply(Leaderboard leaderboard, String id, Integer points) {
+        if (points == null) {
+            leaderboard.remove(id);
+        } else {
+            leaderboard.update(id, points);
+        }
+    }
+
+    private static Map<String, Integer> toPointsMap(List<Score> scores) {
+        Map<String, Integer> points = new HashMap<>();
+        scores.forEach(score -> points.put(score.id(), score.points()));
+        return points;
+    }
+}
@@ -0,0 +1,10 @@
+package com.edag.swd.my.gamification.leaderboard;
+
+/**
+ * The total points of a person or group, as loaded to rebuild a leaderboard.
+ *
+ * @param id     The ID of the person or group
+ * @param points The total points
+ */
+public record Score(String id, int points) {
+}
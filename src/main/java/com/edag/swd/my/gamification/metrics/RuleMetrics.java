@@ -0,0 +1,124 @@
+package com.edag.swd.my.gamification.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer meters for rule evaluation, tagged by rule name.
+ * Meters are created on first use of a rule and cached, so recording costs no registry lookup.
+ * Values are recorded when the engine applies a rule; events that are rolled back and retried are counted again.
+ */
+@Component
+public class RuleMetrics {
+    private final MeterRegistry registry;
+    private final Map<String, RuleMeters> metersByRule = new ConcurrentHashMap<>();
+    private final Timer eventTimer;
+    private final DistributionSummary eventStatements;
+
+    private record RuleMeters(Timer evaluation, Counter matched, Counter outcomes, Counter pointsAwarded,
+                              Counter pointsPenalized, Counter capHits, Counter capResets) {
+    }
+
+    @Autowired
+    public RuleMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.eventTimer = Timer.builder("gamification.event.processing")
+                .description("Time to process an event, including locking, retries and commit")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.eventStatements = DistributionSummary.builder("gamification.event.db.statements")
+                .description("SQL statements prepared per event")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /**
+     * Records that a rule matched an event and was applied.
+     *
+     * @param ruleName      The name of the rule
+     * @param durationNanos The time it took to apply the rule
+     */
+    public void ruleApplied(String ruleName, long durationNanos) {
+        RuleMeters meters = meters(ruleName);
+        meters.matched().increment();
+        meters.evaluation().record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records an outcome applied to a person.
+     *
+     * @param ruleName The name of the rule
+     * @param points   The points recorded; negative for penalties
+     */
+    public void outcomeApplied(String ruleName, int points) {
+        RuleMeters meters = meters(ruleName);
+        meters.outcomes().increment();
+        if (points > 0) {
+            meters.pointsAwarded().increment(points);
+        } else if (points < 0) {
+            meters.pointsPenalized().increment(-points);
+        }
+    }
+
+    /**
+     * Records that a group's award was reduced or withheld by the cap of a rule.
+     *
+     * @param ruleName The name of the rule
+     */
+    public void capHit(String ruleName) {
+        meters(ruleName).capHits().increment();
+    }
+
+    /**
+     * Records that the caps of a rule were reset.
+     *
+     * @param ruleName    The name of the rule
+     * @param resetGroups The number of groups whose capped points were reset
+     */
+    public void capReset(String ruleName, int resetGroups) {
+        meters(ruleName).capResets().increment(resetGroups);
+    }
+
+    /**
+     * Records a processed event.
+     *
+     * @param durationNanos The time it took to process the event
+     * @param statements    The number of SQL statements prepared for the event
+     */
+    public void eventProcessed(long durationNanos, int statements) {
+        eventTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+        eventStatements.record(statements);
+    }
+
+    private RuleMeters meters(String ruleName) {
+        RuleMeters meters = metersByRule.get(ruleName);
+        if (meters != null) return meters;
+        return metersByRule.computeIfAbsent(ruleName, name -> new RuleMeters(
+                Timer.builder("gamification.rule.evaluation")
+                        .description("Time to apply a rule to an event, excluding commit")
+                        .tag("rule", name)
+                        .publishPercentileHistogram()
+                        .register(registry),
+                counter("gamification.rule.matched", "Events that matched the rule", name),
+                counter("gamification.rule.outcomes", "Outcomes applied to persons", name),
+                counter("gamification.rule.points.awarded", "Points awarded to persons", name),
+                counter("gamification.rule.points.penalized", "Points deducted from persons", name),
+                counter("gamification.rule.cap.hits", "Group awards reduced or withheld by the cap", name),
+                counter("gamification.rule.cap.resets", "Caps reset for a group", name)));
+    }
+
+    private Counter counter(String meterName, String description, String ruleName) {
+        return Counter.builder(meterName)
+                .description(description)
+                .tag("rule", ruleName)
+                .register(registry);
+    }
+}
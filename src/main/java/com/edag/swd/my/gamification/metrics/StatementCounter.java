@@ -0,0 +1,28 @@
+package com.edag.swd.my.gamification.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate statement inspector that counts the SQL statements prepared by each thread.
+ * Statements executed as one JDBC batch are prepared once, so the count approximates database round trips.
+ * Registered through the hibernate.session_factory.statement_inspector property.
+ */
+public class StatementCounter implements StatementInspector {
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    /**
+     * Gets the number of statements prepared by the current thread so far.
+     * Take the difference of two calls to count the statements of a unit of work.
+     *
+     * @return The running count of the current thread
+     */
+    public static int current() {
+        return COUNT.get()[0];
+    }
+}
@@ -0,0 +1,21 @@
+package com.edag.swd.my.gamification.models;
+
+import java.util.List;
+
+/**
+ * The response of a batch event submission.
+ *
+ * @param received       The number of events in the batch
+ * @param processed      The number of events that matched at least one rule and were applied
+ * @param failed         The number of events that were invalid or failed to process
+ * @param durationMillis The time taken to process the batch
+ * @param eventsPerSecond The throughput achieved for the batch
+ * @param results        The per-event results, in submission order
+ */
+public record BatchResult(int received,
+                          int processed,
+                          int failed,
+                          long durationMillis,
+                          double eventsPerSecond,
+                          List<EventResult> results) {
+}
@@ -11,11 +11,26 @@ import java.util.UUID;
 @Data
 @RequiredArgsConstructor
 public class Event {
+    // The longest idempotency key the event log can store
+    public static final int MAX_KEY_LENGTH = 64;
+
     private final String id = UUID.randomUUID().toString();
     private final String actionType;
     private final Instant timestamp = Instant.now();
     private Map<String, String> participants = new HashMap<>();
 
+    // Supplied by the client so that retries of the same event can be recognized
+    private String idempotencyKey;
+
+    /**
+     * Gets the key under which the event is deduplicated.
+     *
+     * @return The idempotency key, or the event ID if the client did not supply one
+     */
+    public String getDeduplicationKey() {
+        return idempotencyKey != null ? idempotencyKey : id;
+    }
+
     public void addParticipant(String role, String personId) {
         this.participants.put(role, personId);
     }
@@ -0,0 +1,17 @@
+package com.edag.swd.my.gamification.models;
+
+import java.util.Map;
+
+/**
+ * An event submitted through the REST API.
+ *
+ * @param actionType     The type of action that occurred
+ * @param participants   Map of participant roles to person IDs
+ * @param idempotencyKey Identifies retries of the same event; optional
+ */
+public record EventRequest(String actionType, Map<String, String> participants, String idempotencyKey) {
+
+    public EventRequest(String actionType, Map<String, String> participants) {
+        this(actionType, participants, null);
+    }
+}
@@ -0,0 +1,21 @@
+package com.edag.swd.my.gamification.models;
+
+/**
+ * The outcome of processing a single event of a batch.
+ *
+ * @param index        The position of the event in the submitted batch
+ * @param actionType   The action type of the event
+ * @param status       The result code
+ * @param rulesApplied The number of rules that matched the event
+ * @param message      Details for events that were not processed, otherwise null
+ */
+public record EventResult(int index, String actionType, Status status, int rulesApplied, String message) {
+
+    public enum Status {
+        PROCESSED,
+        NO_MATCHING_RULE,
+        DUPLICATE,
+        INVALID,
+        FAILED
+    }
+}
@@ -0,0 +1,49 @@
+package com.edag.swd.my.gamification.models;
+
+import java.time.Instant;
+
+/**
+ * The processing status of an event submitted for asynchronous processing.
+ *
+ * @param eventId      The ID of the event
+ * @param actionType   The action type of the event
+ * @param state        The current processing state
+ * @param rulesApplied The number of rules that matched the event, once processed
+ * @param message      Details for events that failed, otherwise null
+ * @param acceptedAt   When the event was accepted into the queue
+ * @param completedAt  When processing finished, or null while the event is pending
+ */
+public record EventStatus(String eventId,
+                          String actionType,
+                          State state,
+                          int rulesApplied,
+                          String message,
+                          Instant acceptedAt,
+                          Instant completedAt) {
+
+    public enum State {
+        QUEUED,
+        PROCESSING,
+        PROCESSED,
+        NO_MATCHING_RULE,
+        DUPLICATE,
+        FAILED
+    }
+
+    public static EventStatus queued(Event event) {
+        return new EventStatus(event.getId(), event.getActionType(), State.QUEUED, 0, null, event.getTimestamp(), null);
+    }
+
+    public static EventStatus duplicate(Event event) {
+        return new EventStatus(event.getId(), event.getActionType(), State.DUPLICATE, 0,
+                "Event " + event.getDeduplicationKey() + " was already submitted", event.getTimestamp(), Instant.now());
+    }
+
+    public EventStatus withState(State state) {
+        return new EventStatus(eventId, actionType, state, rulesApplied, message, acceptedAt, completedAt);
+    }
+
+    public EventStatus completed(State state, int rulesApplied, String message) {
+        return new EventStatus(eventId, actionType, state, rulesApplied, message, acceptedAt, Instant.now());
+    }
+}
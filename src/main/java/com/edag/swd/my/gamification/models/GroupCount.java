@@ -0,0 +1,10 @@
+package com.edag.swd.my.gamification.models;
+
+/**
+ * The number of persons in a group, counted in the query.
+ *
+ * @param groupName The name of the group, or null for the persons without a group
+ * @param persons   The number of persons
+ */
+public record GroupCount(String groupName, long persons) {
+}
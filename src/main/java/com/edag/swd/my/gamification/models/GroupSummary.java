@@ -0,0 +1,13 @@
+package com.edag.swd.my.gamification.models;
+
+/**
+ * The columns of a group shown in the group list, projected without loading the entity, its members or its
+ * history.
+ *
+ * @param id               The ID of the group
+ * @param name             The name of the group
+ * @param totalGroupPoints The total points of the group
+ * @param memberCount      The number of members, counted in the query
+ */
+public record GroupSummary(String id, String name, int totalGroupPoints, long memberCount) {
+}
@@ -0,0 +1,29 @@
+package com.edag.swd.my.gamification.models;
+
+import java.util.List;
+
+/**
+ * A page of the members of a group, ordered by person ID.
+ *
+ * @param members    The members of the page
+ * @param nextCursor The cursor to request the next page with, or null if this is the last page
+ */
+public record MemberPage(List<MemberSummary> members, String nextCursor) {
+
+    /**
+     * Creates a page from the members read for it. Callers read one member more than the page size,
+     * which tells whether a next page exists without a count query.
+     *
+     * @param members The members read, at most limit + 1
+     * @param limit   The page size
+     * @return The page
+     */
+    public static MemberPage of(List<MemberSummary> members, int limit) {
+        if (members.size() <= limit) {
+            return new MemberPage(members, null);
+        }
+        List<MemberSummary> page = List.copyOf(members.subList(0, limit));
+        // Member IDs are unique, so the last ID on the page is the cursor
+        return new MemberPage(page, page.get(limit - 1).id());
+    }
+}
@@ -0,0 +1,11 @@
+package com.edag.swd.my.gamification.models;
+
+/**
+ * A member of a group, as listed in the members dialog.
+ *
+ * @param id                     The ID of the person
+ * @param name                   The name of the person
+ * @param totalAccumulatedPoints The total points of the person
+ */
+public record MemberSummary(String id, String name, int totalAccumulatedPoints) {
+}
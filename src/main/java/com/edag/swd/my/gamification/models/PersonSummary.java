@@ -0,0 +1,12 @@
+package com.edag.swd.my.gamification.models;
+
+/**
+ * The columns of a person shown in the person list, projected without loading the entity or its history.
+ *
+ * @param id                     The ID of the person
+ * @param name                   The name of the person
+ * @param groupName              The name of the person's group, or null if the person has no group
+ * @param totalAccumulatedPoints The total points of the person
+ */
+public record PersonSummary(String id, String name, String groupName, int totalAccumulatedPoints) {
+}
@@ -2,6 +2,8 @@ package com.edag.swd.my.gamification.repository;
 
 import com.edag.swd.my.gamification.entity.ActivityPoints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -26,4 +28,9 @@ public interface ActivityPointsRepository extends JpaRepository<ActivityPoints,
 
     // Delete all activity points for a specific group and rule
     void deleteByGroupIdAndRuleName(String groupId, String ruleName);
+
+    // Delete the activity points of all groups for a specific rule in a single statement
+    @Modifying
+    @Query("DELETE FROM ActivityPoints ap WHERE ap.ruleName = :ruleName")
+    int deleteAllByRuleName(String ruleName);
 }
\ No newline at end of file
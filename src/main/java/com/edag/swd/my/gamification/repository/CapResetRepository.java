@@ -0,0 +1,9 @@
+package com.edag.swd.my.gamification.repository;
+
+import com.edag.swd.my.gamification.entity.CapReset;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CapResetRepository extends JpaRepository<CapReset, String> {
+}
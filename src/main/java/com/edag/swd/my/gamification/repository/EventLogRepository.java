@@ -0,0 +1,44 @@
+package com.edag.swd.my.gamification.repository;
+
+import com.edag.swd.my.gamification.entity.EventLogEntry;
+import com.edag.swd.my.gamification.eventlog.EventKey;
+import com.edag.swd.my.gamification.eventlog.LoggedEvent;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface EventLogRepository extends JpaRepository<EventLogEntry, Long> {
+    // Stream the whole event log in the order the events were applied; must be consumed within a transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.edag.swd.my.gamification.eventlog.LoggedEvent(" +
+            "ele.id, ele.eventId, ele.actionType, ele.participants, ele.timestamp) " +
+            "FROM EventLogEntry ele ORDER BY ele.id")
+    Stream<LoggedEvent> streamAll();
+
+    // Stream the events logged in a time range in the order they were applied; must be consumed within a transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.edag.swd.my.gamification.eventlog.LoggedEvent(" +
+            "ele.id, ele.eventId, ele.actionType, ele.participants, ele.timestamp) " +
+            "FROM EventLogEntry ele WHERE ele.timestamp >= :from AND ele.timestamp < :to ORDER BY ele.id")
+    Stream<LoggedEvent> streamByTimestampRange(Instant from, Instant to);
+
+    // Find the IDs of the most recently logged events, newest first
+    @Query("SELECT new com.edag.swd.my.gamification.eventlog.EventKey(ele.eventId, ele.timestamp) " +
+            "FROM EventLogEntry ele ORDER BY ele.id DESC")
+    List<EventKey> findRecentKeys(Limit limit);
+}
@@ -1,11 +1,18 @@
 package com.edag.swd.my.gamification.repository;
 
 import com.edag.swd.my.gamification.entity.GroupPointHistoryEntry;
+import com.edag.swd.my.gamification.history.HistoryEntry;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface GroupPointHistoryEntryRepository extends JpaRepository<GroupPointHistoryEntry, Long> {
@@ -23,4 +30,30 @@ public interface GroupPointHistoryEntryRepository extends JpaRepository<GroupPoi
 
     // Find all group point history entries between two timestamps
     List<GroupPointHistoryEntry> findByTimestampBetween(Instant startTime, Instant endTime);
+
+    // Find the newest history entries of a group
+    @Query("SELECT new com.edag.swd.my.gamification.history.HistoryEntry(" +
+            "gphe.id, gphe.timestamp, gphe.group.id, gphe.pointsChanged, gphe.reason, gphe.ruleName) " +
+            "FROM GroupPointHistoryEntry gphe " +
+            "WHERE gphe.group.id = :groupId ORDER BY gphe.timestamp DESC, gphe.id DESC")
+    List<HistoryEntry> findPageByGroupId(String groupId, Limit limit);
+
+    // Find the history entries of a group that come after a keyset cursor, newest first
+    @Query("SELECT new com.edag.swd.my.gamification.history.HistoryEntry(" +
+            "gphe.id, gphe.timestamp, gphe.group.id, gphe.pointsChanged, gphe.reason, gphe.ruleName) " +
+            "FROM GroupPointHistoryEntry gphe " +
+            "WHERE gphe.group.id = :groupId AND gphe.timestamp <= :timestamp " +
+            "AND (gphe.timestamp < :timestamp OR gphe.id < :id) ORDER BY gphe.timestamp DESC, gphe.id DESC")
+    List<HistoryEntry> findPageByGroupIdAfter(String groupId, Instant timestamp, long id, Limit limit);
+
+    // Stream the history entries of all groups in a time range, oldest first; must be consumed within a transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.edag.swd.my.gamification.history.HistoryEntry(" +
+            "gphe.id, gphe.timestamp, gphe.group.id, gphe.pointsChanged, gphe.reason, gphe.ruleName) " +
+            "FROM GroupPointHistoryEntry gphe " +
+            "WHERE gphe.timestamp >= :from AND gphe.timestamp < :to ORDER BY gphe.timestamp, gphe.id")
+    Stream<HistoryEntry> streamByTimestampRange(Instant from, Instant to);
 }
\ No newline at end of file
@@ -1,13 +1,38 @@
 package com.edag.swd.my.gamification.repository;
 
 import com.edag.swd.my.gamification.entity.Group;
+import com.edag.swd.my.gamification.leaderboard.Score;
+import com.edag.swd.my.gamification.models.GroupSummary;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
 public interface GroupRepository extends JpaRepository<Group, String> {
+    // Find all groups with their members fetched in the same query
+    @Query("SELECT DISTINCT g FROM Group g LEFT JOIN FETCH g.members")
+    List<Group> findAllWithMembers();
+
+    // Find all groups with their activity points fetched in the same query
+    @Query("SELECT DISTINCT g FROM Group g LEFT JOIN FETCH g.activityPoints")
+    List<Group> findAllWithActivityPoints();
+
+    // Find the total points of all groups
+    @Query("SELECT new com.edag.swd.my.gamification.leaderboard.Score(g.id, g.totalGroupPoints) FROM Group g")
+    List<Score> findAllScores();
+
+    // Find the columns of all groups shown in the group list, with their members counted in the query
+    @Query("SELECT new com.edag.swd.my.gamification.models.GroupSummary(" +
+            "g.id, g.name, g.totalGroupPoints, COUNT(p)) FROM Group g LEFT JOIN g.members p " +
+            "GROUP BY g.id, g.name, g.totalGroupPoints")
+    List<GroupSummary> findAllSummaries();
+
+    // Find the IDs of all groups
+    @Query("SELECT g.id FROM Group g")
+    List<String> findAllIds();
+
     // Find a group by name
     Group findByName(String name);
 
@@ -1,10 +1,18 @@
 package com.edag.swd.my.gamification.repository;
 
+import com.edag.swd.my.gamification.engine.Membership;
 import com.edag.swd.my.gamification.entity.Person;
+import com.edag.swd.my.gamification.leaderboard.Score;
+import com.edag.swd.my.gamification.models.GroupCount;
+import com.edag.swd.my.gamification.models.MemberSummary;
+import com.edag.swd.my.gamification.models.PersonSummary;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -13,9 +21,48 @@ public interface PersonRepository extends JpaRepository<Person, String> {
     @Query("SELECT p FROM Person p WHERE p.group.id = :groupId")
     List<Person> findByGroupId(String groupId);
 
+    // Find the IDs of the groups the given persons belong to; persons without a group are skipped
+    @Query("SELECT DISTINCT p.group.id FROM Person p WHERE p.id IN :personIds AND p.group IS NOT NULL")
+    List<String> findGroupIdsByPersonIds(Collection<String> personIds);
+
     // Find a person by name
     Person findByName(String name);
 
+    // Find the stored total points of all persons
+    @Query("SELECT new com.edag.swd.my.gamification.leaderboard.Score(p.id, p.totalAccumulatedPoints) FROM Person p")
+    List<Score> findAllScores();
+
+    // Find the group of every person that has one
+    @Query("SELECT new com.edag.swd.my.gamification.engine.Membership(p.id, p.group.id) FROM Person p " +
+            "WHERE p.group IS NOT NULL")
+    List<Membership> findAllMemberships();
+
+    // Find the columns of all persons shown in the person list
+    @Query("SELECT new com.edag.swd.my.gamification.models.PersonSummary(" +
+            "p.id, p.name, g.name, p.totalAccumulatedPoints) FROM Person p LEFT JOIN p.group g")
+    List<PersonSummary> findAllSummaries();
+
+    // Count the persons of each group, and those without a group, most persons first
+    @Query("SELECT new com.edag.swd.my.gamification.models.GroupCount(g.name, COUNT(p)) " +
+            "FROM Person p LEFT JOIN p.group g GROUP BY g.id, g.name ORDER BY COUNT(p) DESC, g.name")
+    List<GroupCount> countByGroup();
+
+    // Find the first page of the members of a group, ordered by ID
+    @Query("SELECT new com.edag.swd.my.gamification.models.MemberSummary(p.id, p.name, p.totalAccumulatedPoints) " +
+            "FROM Person p WHERE p.group.id = :groupId ORDER BY p.id")
+    List<MemberSummary> findMemberPage(String groupId, Limit limit);
+
+    // Find the page of the members of a group that follows the member with the given ID
+    @Query("SELECT new com.edag.swd.my.gamification.models.MemberSummary(p.id, p.name, p.totalAccumulatedPoints) " +
+            "FROM Person p WHERE p.group.id = :groupId AND p.id > :afterId ORDER BY p.id")
+    List<MemberSummary> findMemberPageAfter(String groupId, String afterId, Limit limit);
+
+    // Rebuild the stored total points of all persons from their point history
+    @Modifying
+    @Query("UPDATE Person p SET p.totalAccumulatedPoints = " +
+            "(SELECT COALESCE(SUM(phe.pointsValue), 0) FROM PointHistoryEntry phe WHERE phe.person = p)")
+    int reconcileTotalAccumulatedPoints();
+
     // Find persons by name containing a specific string (case insensitive)
     List<Person> findByNameContainingIgnoreCase(String nameFragment);
 }
\ No newline at end of file
@@ -1,12 +1,18 @@
 package com.edag.swd.my.gamification.repository;
 
 import com.edag.swd.my.gamification.entity.PointHistoryEntry;
+import com.edag.swd.my.gamification.history.HistoryEntry;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface PointHistoryEntryRepository extends JpaRepository<PointHistoryEntry, Long> {
@@ -26,4 +32,30 @@ public interface PointHistoryEntryRepository extends JpaRepository<PointHistoryE
 
     // Find all point history entries between two timestamps
     List<PointHistoryEntry> findByTimestampBetween(Instant startTime, Instant endTime);
+
+    // Find the newest history entries of a person
+    @Query("SELECT new com.edag.swd.my.gamification.history.HistoryEntry(" +
+            "phe.id, phe.timestamp, phe.person.id, phe.pointsValue, phe.reason, phe.ruleName) " +
+            "FROM PointHistoryEntry phe " +
+            "WHERE phe.person.id = :personId ORDER BY phe.timestamp DESC, phe.id DESC")
+    List<HistoryEntry> findPageByPersonId(String personId, Limit limit);
+
+    // Find the history entries of a person that come after a keyset cursor, newest first
+    @Query("SELECT new com.edag.swd.my.gamification.history.HistoryEntry(" +
+            "phe.id, phe.timestamp, phe.person.id, phe.pointsValue, phe.reason, phe.ruleName) " +
+            "FROM PointHistoryEntry phe " +
+            "WHERE phe.person.id = :personId AND phe.timestamp <= :timestamp " +
+            "AND (phe.timestamp < :timestamp OR phe.id < :id) ORDER BY phe.timestamp DESC, phe.id DESC")
+    List<HistoryEntry> findPageByPersonIdAfter(String personId, Instant timestamp, long id, Limit limit);
+
+    // Stream the history entries of all persons in a time range, oldest first; must be consumed within a transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.edag.swd.my.gamification.history.HistoryEntry(" +
+            "phe.id, phe.timestamp, phe.person.id, phe.pointsValue, phe.reason, phe.ruleName) " +
+            "FROM PointHistoryEntry phe " +
+            "WHERE phe.timestamp >= :from AND phe.timestamp < :to ORDER BY phe.timestamp, phe.id")
+    Stream<HistoryEntry> streamByTimestampRange(Instant from, Instant to);
 }
\ No newline at end of file
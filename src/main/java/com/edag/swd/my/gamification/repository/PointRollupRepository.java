@@ -0,0 +1,44 @@
+package com.edag.swd.my.gamification.repository;
+
+import com.edag.swd.my.gamification.entity.PointRollup;
+import com.edag.swd.my.gamification.entity.PointRollupId;
+import com.edag.swd.my.gamification.rollup.Granularity;
+import com.edag.swd.my.gamification.rollup.RollupBucket;
+import com.edag.swd.my.gamification.rollup.RollupTotal;
+import com.edag.swd.my.gamification.rollup.SubjectType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface PointRollupRepository extends JpaRepository<PointRollup, PointRollupId> {
+    // Find the persons or groups with the most points in a bucket, summed over all rules
+    @Query("SELECT new com.edag.swd.my.gamification.rollup.RollupTotal(" +
+            "r.id.subjectId, SUM(r.points), SUM(r.entries)) " +
+            "FROM PointRollup r WHERE r.id.granularity = :granularity AND r.id.bucketStart = :bucketStart " +
+            "AND r.id.subjectType = :subjectType GROUP BY r.id.subjectId HAVING SUM(r.entries) > 0 " +
+            "ORDER BY SUM(r.points) DESC, r.id.subjectId")
+    List<RollupTotal> findTotals(Granularity granularity, Instant bucketStart, SubjectType subjectType, Limit limit);
+
+    // Find the persons or groups with the most points from one rule in a bucket
+    @Query("SELECT new com.edag.swd.my.gamification.rollup.RollupTotal(" +
+            "r.id.subjectId, r.points, r.entries) " +
+            "FROM PointRollup r WHERE r.id.granularity = :granularity AND r.id.bucketStart = :bucketStart " +
+            "AND r.id.subjectType = :subjectType AND r.id.ruleName = :ruleName AND r.entries > 0 " +
+            "ORDER BY r.points DESC, r.id.subjectId")
+    List<RollupTotal> findTotalsByRuleName(Granularity granularity, Instant bucketStart, SubjectType subjectType,
+                                           String ruleName, Limit limit);
+
+    // Find the buckets of a person or group in a time range, per rule
+    @Query("SELECT new com.edag.swd.my.gamification.rollup.RollupBucket(" +
+            "r.id.bucketStart, r.id.ruleName, r.points, r.entries) " +
+            "FROM PointRollup r WHERE r.id.subjectType = :subjectType AND r.id.subjectId = :subjectId " +
+            "AND r.id.granularity = :granularity AND r.id.bucketStart >= :from AND r.id.bucketStart < :to " +
+            "AND r.entries > 0 ORDER BY r.id.bucketStart, r.id.ruleName")
+    List<RollupBucket> findBuckets(SubjectType subjectType, String subjectId, Granularity granularity,
+                                   Instant from, Instant to);
+}
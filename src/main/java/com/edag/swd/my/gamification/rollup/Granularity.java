@@ -0,0 +1,34 @@
+package com.edag.swd.my.gamification.rollup;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * The sizes of the time buckets points are rolled up into.
+ * Weeks start on Monday; days, weeks and months start at midnight in the rollup time zone.
+ */
+public enum Granularity {
+    DAY,
+    WEEK,
+    MONTH;
+
+    /**
+     * Gets the start of the bucket containing an instant.
+     *
+     * @param instant The instant
+     * @param zone    The time zone the buckets are aligned to
+     * @return The start of the bucket
+     */
+    public Instant bucketStart(Instant instant, ZoneId zone) {
+        ZonedDateTime day = instant.atZone(zone).truncatedTo(ChronoUnit.DAYS);
+        return switch (this) {
+            case DAY -> day.toInstant();
+            case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).toInstant();
+            case MONTH -> day.with(TemporalAdjusters.firstDayOfMonth()).toInstant();
+        };
+    }
+}
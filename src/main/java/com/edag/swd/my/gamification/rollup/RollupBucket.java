@@ -0,0 +1,14 @@
+package com.edag.swd.my.gamification.rollup;
+
+import java.time.Instant;
+
+/**
+ * The points a person or group received from one rule within one bucket.
+ *
+ * @param bucketStart The start of the bucket
+ * @param ruleName    The name of the rule
+ * @param points      The sum of the points recorded
+ * @param entries     The number of history entries recorded
+ */
+public record RollupBucket(Instant bucketStart, String ruleName, long points, long entries) {
+}
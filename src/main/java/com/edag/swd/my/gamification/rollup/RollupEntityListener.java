@@ -0,0 +1,45 @@
+package com.edag.swd.my.gamification.rollup;
+
+import com.edag.swd.my.gamification.entity.GroupPointHistoryEntry;
+import com.edag.swd.my.gamification.entity.PointHistoryEntry;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * JPA listener that adds written history entries to the rollups and subtracts removed ones.
+ * The service is looked up lazily because Hibernate creates listeners while the repositories
+ * the service depends on are still being set up.
+ */
+public class RollupEntityListener {
+    private final ObjectProvider<RollupService> rollupService;
+
+    @Autowired
+    public RollupEntityListener(ObjectProvider<RollupService> rollupService) {
+        this.rollupService = rollupService;
+    }
+
+    @PostPersist
+    public void onPersist(Object entity) {
+        record(entity, 1);
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        record(entity, -1);
+    }
+
+    private void record(Object entity, int sign) {
+        RollupService service = rollupService.getIfAvailable();
+        if (service == null) return;
+
+        if (entity instanceof PointHistoryEntry entry) {
+            service.record(SubjectType.PERSON, entry.getPerson() != null ? entry.getPerson().getId() : null,
+                    entry.getRuleName(), entry.getTimestamp(), sign * entry.getPointsValue(), sign);
+        } else if (entity instanceof GroupPointHistoryEntry entry) {
+            service.record(SubjectType.GROUP, entry.getGroup() != null ? entry.getGroup().getId() : null,
+                    entry.getRuleName(), entry.getTimestamp(), sign * entry.getPointsChanged(), sign);
+        }
+    }
+}
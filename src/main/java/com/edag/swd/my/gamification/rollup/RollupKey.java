@@ -0,0 +1,16 @@
+package com.edag.swd.my.gamification.rollup;
+
+import java.time.Instant;
+
+/**
+ * Identifies the rollup row a history entry is added to.
+ *
+ * @param granularity The size of the bucket
+ * @param bucketStart The start of the bucket
+ * @param subjectType Whether the subject is a person or a group
+ * @param subjectId   The ID of the person or group
+ * @param ruleName    The name of the rule that recorded the points
+ */
+record RollupKey(Granularity granularity, Instant bucketStart, SubjectType subjectType, String subjectId,
+                 String ruleName) {
+}
@@ -0,0 +1,206 @@
+package com.edag.swd.my.gamification.rollup;
+
+import com.edag.swd.my.gamification.history.HistoryEntry;
+import com.edag.swd.my.gamification.repository.GroupPointHistoryEntryRepository;
+import com.edag.swd.my.gamification.repository.PointHistoryEntryRepository;
+import com.edag.swd.my.gamification.repository.PointRollupRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Service that maintains and queries the daily, weekly and monthly rollups of person and group points.
+ * <p>
+ * Every history entry written within a transaction is added to an in-memory aggregate of that transaction.
+ * After Hibernate has flushed the transaction's inserts, and before it commits, each aggregated rollup row is
+ * upserted once. An event awarding thousands of contributions from a few rules therefore costs one statement
+ * per subject, rule and granularity in a single batch, and rolled back transactions never touch the rollups.
+ */
+@Service
+public class RollupService {
+
+    private static final String MERGE_SQL = "MERGE INTO point_rollups r USING (VALUES (" +
+            "CAST(? AS VARCHAR(16)), CAST(? AS TIMESTAMP(6) WITH TIME ZONE), CAST(? AS VARCHAR(16)), " +
+            "CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(255)), CAST(? AS BIGINT), CAST(? AS BIGINT))) " +
+            "AS v (granularity, bucket_start, subject_type, subject_id, rule_name, points, entries) " +
+            "ON r.granularity = v.granularity AND r.bucket_start = v.bucket_start " +
+            "AND r.subject_type = v.subject_type AND r.subject_id = v.subject_id AND r.rule_name = v.rule_name " +
+            "WHEN MATCHED THEN UPDATE SET points = r.points + v.points, entries = r.entries + v.entries " +
+            "WHEN NOT MATCHED THEN INSERT (granularity, bucket_start, subject_type, subject_id, rule_name, points, " +
+            "entries) VALUES (v.granularity, v.bucket_start, v.subject_type, v.subject_id, v.rule_name, v.points, " +
+            "v.entries)";
+
+    private static final Instant HISTORY_END = Instant.parse("9999-01-01T00:00:00Z");
+
+    private final PointRollupRepository pointRollupRepository;
+    private final PointHistoryEntryRepository pointHistoryEntryRepository;
+    private final GroupPointHistoryEntryRepository groupPointHistoryEntryRepository;
+    private final EntityManager entityManager;
+    private final ZoneId zone;
+
+    @Autowired
+    public RollupService(PointRollupRepository pointRollupRepository,
+                         PointHistoryEntryRepository pointHistoryEntryRepository,
+                         GroupPointHistoryEntryRepository groupPointHistoryEntryRepository,
+                         EntityManager entityManager,
+                         @Value("${gamification.rollups.zone:}") String zone) {
+        this.pointRollupRepository = pointRollupRepository;
+        this.pointHistoryEntryRepository = pointHistoryEntryRepository;
+        this.groupPointHistoryEntryRepository = groupPointHistoryEntryRepository;
+        this.entityManager = entityManager;
+        this.zone = zone.isBlank() ? ZoneId.systemDefault() : ZoneId.of(zone);
+    }
+
+    /**
+     * Adds a history entry to the rollups of the current transaction.
+     * Removed history entries are subtracted by recording them with negated points and entries.
+     *
+     * @param subjectType Whether the entry belongs to a person or a group
+     * @param subjectId   The ID of the person or group
+     * @param ruleName    The name of the rule that recorded the entry
+     * @param timestamp   When the entry was recorded
+     * @param points      The points of the entry
+     * @param entries     1 for a written entry, -1 for a removed one
+     */
+    public void record(SubjectType subjectType, String subjectId, String ruleName, Instant timestamp,
+                       int points, int entries) {
+        if (subjectId == null || timestamp == null) return;
+        add(pendingChanges(), subjectType, subjectId, ruleName, timestamp, points, entries);
+    }
+
+    /**
+     * Rebuilds all rollups from the person and group history.
+     * Use it after importing history or changing the rollup time zone; entries written with plain SQL
+     * bypass the entities and are not rolled up until the next rebuild.
+     *
+     * @return The number of rollup rows written
+     */
+    @Transactional
+    public int rebuild() {
+        pointRollupRepository.deleteAllInBatch();
+
+        Map<RollupKey, long[]> rollups = new HashMap<>();
+        try (Stream<HistoryEntry> entries =
+                     pointHistoryEntryRepository.streamByTimestampRange(Instant.EPOCH, HISTORY_END)) {
+            entries.forEach(entry -> add(rollups, SubjectType.PERSON, entry.subjectId(), entry.ruleName(),
+                    entry.timestamp(), entry.points(), 1));
+        }
+        try (Stream<HistoryEntry> entries =
+                     groupPointHistoryEntryRepository.streamByTimestampRange(Instant.EPOCH, HISTORY_END)) {
+            entries.forEach(entry -> add(rollups, SubjectType.GROUP, entry.subjectId(), entry.ruleName(),
+                    entry.timestamp(), entry.points(), 1));
+        }
+        write(entityManager.unwrap(SessionImplementor.class), rollups);
+        return rollups.size();
+    }
+
+    /**
+     * Gets the persons or groups with the most points in the bucket containing an instant.
+     *
+     * @param granularity The size of the bucket
+     * @param at          An instant within the bucket
+     * @param subjectType Whether to rank persons or groups
+     * @param ruleName    The rule to count points of, or null for all rules
+     * @param limit       The maximum number of totals to return
+     * @return The totals, highest points first
+     */
+    @Transactional(readOnly = true)
+    public RollupTotals getTotals(Granularity granularity, Instant at, SubjectType subjectType, String ruleName,
+                                  int limit) {
+        Instant bucketStart = granularity.bucketStart(at, zone);
+        List<RollupTotal> totals = ruleName == null
+                ? pointRollupRepository.findTotals(granularity, bucketStart, subjectType, Limit.of(limit))
+                : pointRollupRepository.findTotalsByRuleName(
+                        granularity, bucketStart, subjectType, ruleName, Limit.of(limit));
+        return new RollupTotals(granularity, bucketStart, totals);
+    }
+
+    /**
+     * Gets the per-rule points of a person or group for each bucket in a time range.
+     *
+     * @param subjectType Whether the subject is a person or a group
+     * @param subjectId   The ID of the person or group
+     * @param granularity The size of the buckets
+     * @param from        An instant within the first bucket
+     * @param to          The end of the range, exclusive
+     * @return The buckets, oldest first
+     */
+    @Transactional(readOnly = true)
+    public List<RollupBucket> getBuckets(SubjectType subjectType, String subjectId, Granularity granularity,
+                                         Instant from, Instant to) {
+        return pointRollupRepository.findBuckets(subjectType, subjectId, granularity,
+                granularity.bucketStart(from, zone), to);
+    }
+
+    private void add(Map<RollupKey, long[]> rollups, SubjectType subjectType, String subjectId, String ruleName,
+                     Instant timestamp, int points, int entries) {
+        for (Granularity granularity : Granularity.values()) {
+            RollupKey key = new RollupKey(granularity, granularity.bucketStart(timestamp, zone), subjectType, subjectId,
+                    ruleName != null ? ruleName : "");
+            long[] sums = rollups.computeIfAbsent(key, k -> new long[2]);
+            sums[0] += points;
+            sums[1] += entries;
+        }
+    }
+
+    private Map<RollupKey, long[]> pendingChanges() {
+        @SuppressWarnings("unchecked")
+        Map<RollupKey, long[]> pending = (Map<RollupKey, long[]>) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            return pending;
+        }
+
+        // Written by Hibernate once the transaction's inserts are flushed, within the same transaction
+        Map<RollupKey, long[]> changes = new HashMap<>();
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) s -> write(s, changes));
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(RollupService.this);
+                }
+            });
+        }
+        return changes;
+    }
+
+    private static void write(SessionImplementor session, Map<RollupKey, long[]> rollups) {
+        if (rollups.isEmpty()) return;
+
+        session.doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(MERGE_SQL)) {
+                for (Map.Entry<RollupKey, long[]> rollup : rollups.entrySet()) {
+                    RollupKey key = rollup.getKey();
+                    statement.setString(1, key.granularity().name());
+                    statement.setObject(2, key.bucketStart().atOffset(ZoneOffset.UTC));
+                    statement.setString(3, key.subjectType().name());
+                    statement.setString(4, key.subjectId());
+                    statement.setString(5, key.ruleName());
+                    statement.setLong(6, rollup.getValue()[0]);
+                    statement.setLong(7, rollup.getValue()[1]);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+}
@@ -0,0 +1,11 @@
+package com.edag.swd.my.gamification.rollup;
+
+/**
+ * The points of a person or group within one bucket.
+ *
+ * @param subjectId The ID of the person or group
+ * @param points    The sum of the points recorded in the bucket
+ * @param entries   The number of history entries recorded in the bucket
+ */
+public record RollupTotal(String subjectId, long points, long entries) {
+}
@@ -0,0 +1,14 @@
+package com.edag.swd.my.gamification.rollup;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A period leaderboard: the persons or groups with the most points within one bucket.
+ *
+ * @param granularity The size of the bucket
+ * @param bucketStart The start of the bucket
+ * @param totals      The totals, highest points first
+ */
+public record RollupTotals(Granularity granularity, Instant bucketStart, List<RollupTotal> totals) {
+}
@@ -0,0 +1,11 @@
+package com.edag.swd.my.gamification.rollup;
+
+/**
+ * Whose points a rollup sums: a person's contributions or the points awarded to a group.
+ * Group points are rolled up from the group history rather than from the members' contributions,
+ * because caps can award a group fewer points than its members contributed.
+ */
+public enum SubjectType {
+    PERSON,
+    GROUP
+}
@@ -0,0 +1,154 @@
+package com.edag.swd.my.gamification.service;
+
+import com.edag.swd.my.gamification.eventlog.EventDeduplicator;
+import com.edag.swd.my.gamification.eventlog.EventLog;
+import com.edag.swd.my.gamification.models.Event;
+import com.edag.swd.my.gamification.models.EventStatus;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.*;
+
+/**
+ * Service for processing events asynchronously.
+ * Events are accepted into a bounded queue and drained by a fixed pool of workers. When the queue is full,
+ * new events are rejected instead of queued, so callers get immediate backpressure rather than growing latency.
+ * With {@code spring.threads.virtual.enabled}, the workers are virtual threads, so a worker waiting for the
+ * database does not hold a platform thread.
+ */
+@Service
+public class AsyncEventService {
+    private final RuleService ruleService;
+    private final EventDeduplicator eventDeduplicator;
+    private final ThreadPoolExecutor executor;
+    private final int statusRetention;
+
+    // Status of recently submitted events, keyed by event ID
+    private final Map<String, EventStatus> statuses = new ConcurrentHashMap<>();
+
+    // Event IDs in submission order, used to evict the oldest statuses
+    private final Queue<String> statusOrder = new ConcurrentLinkedQueue<>();
+
+    @Autowired
+    public AsyncEventService(RuleService ruleService,
+                             EventDeduplicator eventDeduplicator,
+                             @Value("${gamification.async.workers:4}") int workers,
+                             @Value("${gamification.async.queue-capacity:10000}") int queueCapacity,
+                             @Value("${gamification.async.status-retention:100000}") int statusRetention,
+                             @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.ruleService = ruleService;
+        this.eventDeduplicator = eventDeduplicator;
+        this.statusRetention = statusRetention;
+
+        ThreadFactory threadFactory = virtualThreads
+                ? Thread.ofVirtual().name("event-worker-", 1).factory()
+                : Thread.ofPlatform().name("event-worker-", 1).daemon(true).factory();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Accepts an event for asynchronous processing.
+     * An event whose idempotency key was already submitted is not queued; its status is DUPLICATE and is kept
+     * like that of an accepted event, so it can be looked up by the returned event ID.
+     *
+     * @param event The event to process
+     * @return The status of the accepted or duplicate event, or empty if the queue is full
+     */
+    public Optional<EventStatus> submit(Event event) {
+        if (!eventDeduplicator.claim(event.getDeduplicationKey())) {
+            EventStatus duplicate = EventStatus.duplicate(event);
+            statuses.put(event.getId(), duplicate);
+            statusOrder.add(event.getId());
+            evictOldStatuses();
+            return Optional.of(duplicate);
+        }
+
+        EventStatus status = EventStatus.queued(event);
+        statuses.put(event.getId(), status);
+
+        try {
+            executor.execute(() -> process(event));
+        } catch (RejectedExecutionException e) {
+            statuses.remove(event.getId());
+            eventDeduplicator.release(event.getDeduplicationKey());
+            return Optional.empty();
+        }
+
+        statusOrder.add(event.getId());
+        evictOldStatuses();
+        return Optional.of(status);
+    }
+
+    /**
+     * Gets the status of a submitted event.
+     *
+     * @param eventId The ID of the event
+     * @return The status of the event, or empty if the event is unknown or its status has been evicted
+     */
+    public Optional<EventStatus> getStatus(String eventId) {
+        return Optional.ofNullable(statuses.get(eventId));
+    }
+
+    /**
+     * Gets the number of events waiting to be processed.
+     *
+     * @return The queue depth
+     */
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    private void process(Event event) {
+        statuses.computeIfPresent(event.getId(), (id, status) -> status.withState(EventStatus.State.PROCESSING));
+
+        EventStatus.State state;
+        int rulesApplied = 0;
+        String message = null;
+        try {
+            // The key was claimed when the event was submitted
+            rulesApplied = ruleService.processEvent(event.getDeduplicationKey(), event.getActionType(),
+                    event.getParticipants());
+            state = rulesApplied > 0 ? EventStatus.State.PROCESSED : EventStatus.State.NO_MATCHING_RULE;
+        } catch (RuntimeException e) {
+            if (EventLog.isDuplicateEventId(e)) {
+                // The key had left the deduplication window; the event log rejected the retry
+                eventDeduplicator.duplicateLogged(event.getDeduplicationKey());
+                statuses.computeIfPresent(event.getId(), (id, status) -> status.completed(EventStatus.State.DUPLICATE,
+                        0, "Event " + event.getDeduplicationKey() + " was already submitted"));
+                return;
+            }
+            System.err.println("Error processing event " + event.getId() + ": " + e.getMessage());
+            eventDeduplicator.release(event.getDeduplicationKey());
+            state = EventStatus.State.FAILED;
+            message = e.getMessage();
+        }
+
+        EventStatus.State finalState = state;
+        int finalRulesApplied = rulesApplied;
+        String finalMessage = message;
+        statuses.computeIfPresent(event.getId(),
+                (id, status) -> status.completed(finalState, finalRulesApplied, finalMessage));
+    }
+
+    private void evictOldStatuses() {
+        while (statuses.size() > statusRetention) {
+            String oldest = statusOrder.poll();
+            if (oldest == null) break;
+            statuses.remove(oldest);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.edag.swd.my.gamification.service;
+
+import com.edag.swd.my.gamification.engine.GroupLockManager;
+import com.edag.swd.my.gamification.engine.LockScope;
+import com.edag.swd.my.gamification.engine.RuleIndex;
+import com.edag.swd.my.gamification.models.BatchResult;
+import com.edag.swd.my.gamification.models.Event;
+import com.edag.swd.my.gamification.models.EventRequest;
+import com.edag.swd.my.gamification.models.EventResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+/**
+ * Service for processing events in bulk.
+ * Events are applied in chunks, each chunk in a single transaction, so a batch costs one commit
+ * per chunk instead of one request, transaction and redirect per event.
+ */
+@Service
+public class EventBatchService {
+    private final RuleService ruleService;
+    private final GroupLockManager groupLockManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxBatchSize;
+
+    @Autowired
+    public EventBatchService(RuleService ruleService,
+                             GroupLockManager groupLockManager,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${gamification.batch.chunk-size:500}") int chunkSize,
+                             @Value("${gamification.batch.max-size:10000}") int maxBatchSize) {
+        this.ruleService = ruleService;
+        this.groupLockManager = groupLockManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * Processes a batch of events.
+     * If an event fails, its chunk is rolled back and the events of that chunk are retried
+     * one transaction each, so a single bad event does not discard the rest of the batch.
+     * Each chunk holds the locks of all groups its events may modify until it commits.
+     *
+     * @param events The events to process, in order
+     * @return The per-event results and the throughput of the batch
+     */
+    public BatchResult processBatch(List<EventRequest> events) {
+        long start = System.nanoTime();
+        EventResult[] results = new EventResult[events.size()];
+
+        for (int chunkStart = 0; chunkStart < events.size(); chunkStart += chunkSize) {
+            int chunkEnd = Math.min(chunkStart + chunkSize, events.size());
+            processChunk(events, chunkStart, chunkEnd, results);
+        }
+
+        long durationNanos = System.nanoTime() - start;
+        int processed = 0;
+        int failed = 0;
+        for (EventResult result : results) {
+            if (result.status() == EventResult.Status.PROCESSED) {
+                processed++;
+            } else if (result.status() == EventResult.Status.INVALID || result.status() == EventResult.Status.FAILED) {
+                failed++;
+            }
+        }
+
+        double eventsPerSecond = durationNanos > 0 ? events.size() * 1_000_000_000.0 / durationNanos : 0;
+        return new BatchResult(events.size(), processed, failed, durationNanos / 1_000_000,
+                eventsPerSecond, Arrays.asList(results));
+    }
+
+    private void processChunk(List<EventRequest> events, int chunkStart, int chunkEnd, EventResult[] results) {
+        // The whole chunk is locked and processed with the same rules, even if they change in the meantime
+        RuleIndex rules = ruleService.getRuleIndex();
+        try {
+            List<EventResult> chunkResults = groupLockManager.runLocked(lockScope(rules, events, chunkStart, chunkEnd),
+                    () -> transactionTemplate.execute(status -> {
+                        List<EventResult> applied = new ArrayList<>();
+                        for (int i = chunkStart; i < chunkEnd; i++) {
+                            applied.add(processEvent(rules, i, events.get(i)));
+                        }
+                        return applied;
+                    }));
+            for (int i = chunkStart; i < chunkEnd; i++) {
+                results[i] = chunkResults.get(i - chunkStart);
+            }
+        } catch (RuntimeException e) {
+            // Isolate the failing event by retrying each event of the chunk in its own transaction
+            for (int i = chunkStart; i < chunkEnd; i++) {
+                try {
+                    results[i] = processEvent(rules, i, events.get(i));
+                } catch (RuntimeException eventError) {
+                    String actionType = events.get(i) != null ? events.get(i).actionType() : null;
+                    results[i] = new EventResult(i, actionType, EventResult.Status.FAILED, 0, eventError.getMessage());
+                }
+            }
+        }
+    }
+
+    private LockScope lockScope(RuleIndex rules, List<EventRequest> events, int chunkStart, int chunkEnd) {
+        Set<String> actionTypes = new HashSet<>();
+        Set<String> personIds = new HashSet<>();
+        for (EventRequest event : events.subList(chunkStart, chunkEnd)) {
+            if (event == null || event.actionType() == null || event.participants() == null) continue;
+            actionTypes.add(event.actionType());
+            personIds.addAll(event.participants().values());
+        }
+        return ruleService.resolveLockScope(rules, actionTypes, personIds);
+    }
+
+    private EventResult processEvent(RuleIndex rules, int index, EventRequest event) {
+        if (event == null || event.actionType() == null || event.actionType().isBlank()) {
+            return new EventResult(index, null, EventResult.Status.INVALID, 0, "actionType is required");
+        }
+        if (event.participants() == null) {
+            return new EventResult(index, event.actionType(), EventResult.Status.INVALID, 0, "participants are required");
+        }
+        if (event.idempotencyKey() != null
+                && (event.idempotencyKey().isBlank() || event.idempotencyKey().length() > Event.MAX_KEY_LENGTH)) {
+            return new EventResult(index, event.actionType(), EventResult.Status.INVALID, 0,
+                    "idempotencyKey must have 1 to " + Event.MAX_KEY_LENGTH + " characters");
+        }
+
+        // Events without an idempotency key are never duplicates
+        String key = event.idempotencyKey() != null ? event.idempotencyKey() : UUID.randomUUID().toString();
+        OptionalInt applied = ruleService.processUniqueEvent(rules, key, event.actionType(), event.participants());
+        if (applied.isEmpty()) {
+            return new EventResult(index, event.actionType(), EventResult.Status.DUPLICATE, 0,
+                    "Event " + key + " was already submitted");
+        }
+
+        int rulesApplied = applied.getAsInt();
+        EventResult.Status status = rulesApplied > 0 ? EventResult.Status.PROCESSED : EventResult.Status.NO_MATCHING_RULE;
+        return new EventResult(index, event.actionType(), status, rulesApplied, null);
+    }
+}
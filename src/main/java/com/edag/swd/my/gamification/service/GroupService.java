@@ -4,11 +4,19 @@ import com.edag.swd.my.gamification.entity.ActivityPoints;
 import com.edag.swd.my.gamification.entity.Group;
 import com.edag.swd.my.gamification.entity.GroupPointHistoryEntry;
 import com.edag.swd.my.gamification.entity.Person;
+import com.edag.swd.my.gamification.history.HistoryCursor;
+import com.edag.swd.my.gamification.history.HistoryEntry;
+import com.edag.swd.my.gamification.history.HistoryPage;
+import com.edag.swd.my.gamification.leaderboard.LeaderboardService;
+import com.edag.swd.my.gamification.models.GroupSummary;
+import com.edag.swd.my.gamification.models.MemberPage;
+import com.edag.swd.my.gamification.models.MemberSummary;
 import com.edag.swd.my.gamification.repository.ActivityPointsRepository;
 import com.edag.swd.my.gamification.repository.GroupPointHistoryEntryRepository;
 import com.edag.swd.my.gamification.repository.GroupRepository;
 import com.edag.swd.my.gamification.repository.PersonRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,22 +30,44 @@ public class GroupService {
     private final PersonRepository personRepository;
     private final GroupPointHistoryEntryRepository groupPointHistoryEntryRepository;
     private final ActivityPointsRepository activityPointsRepository;
+    private final LeaderboardService leaderboardService;
 
     @Autowired
     public GroupService(GroupRepository groupRepository,
                         PersonRepository personRepository,
                         GroupPointHistoryEntryRepository groupPointHistoryEntryRepository,
-                        ActivityPointsRepository activityPointsRepository) {
+                        ActivityPointsRepository activityPointsRepository,
+                        LeaderboardService leaderboardService) {
         this.groupRepository = groupRepository;
         this.personRepository = personRepository;
         this.groupPointHistoryEntryRepository = groupPointHistoryEntryRepository;
         this.activityPointsRepository = activityPointsRepository;
+        this.leaderboardService = leaderboardService;
     }
 
+    @Transactional(readOnly = true)
     public List<Group> getAllGroups() {
         return groupRepository.findAll();
     }
 
+    public List<Group> getGroupsRankedByPoints(List<Group> groups) {
+        return leaderboardService.getGroups().sortByRank(groups, Group::getId);
+    }
+
+    /**
+     * Gets the columns of all groups shown in the group list, including their member counts.
+     *
+     * @return The groups
+     */
+    @Transactional(readOnly = true)
+    public List<GroupSummary> getGroupSummaries() {
+        return groupRepository.findAllSummaries();
+    }
+
+    public List<GroupSummary> getGroupSummariesRankedByPoints(List<GroupSummary> groups) {
+        return leaderboardService.getGroups().sortByRank(groups, GroupSummary::id);
+    }
+
     public Optional<Group> getGroupById(String id) {
         return groupRepository.findById(id);
     }
@@ -112,7 +142,7 @@ public class GroupService {
         } else {
             ActivityPoints activityPoints = new ActivityPoints(ruleName, points, group);
             activityPointsRepository.save(activityPoints);
-            group.getActivityPoints().add(activityPoints);
+            group.getActivityPoints().put(ruleName, activityPoints);
             groupRepository.save(group);
         }
     }
@@ -127,7 +157,40 @@ public class GroupService {
         return activityPoints.map(ActivityPoints::getPoints).orElse(0);
     }
 
-    public List<GroupPointHistoryEntry> getGroupPointHistory(String groupId) {
-        return groupPointHistoryEntryRepository.findByGroupId(groupId);
+    /**
+     * Gets a page of the members of a group, ordered by ID.
+     *
+     * @param groupId The ID of the group
+     * @param afterId The ID of the last member of the previous page, or null for the first page
+     * @param limit   The maximum number of members to return
+     * @return The page, with the cursor of the next page if there is one
+     */
+    @Transactional(readOnly = true)
+    public MemberPage getMembers(String groupId, String afterId, int limit) {
+        // Read one member more than requested to find out whether there is a next page
+        Limit pageLimit = Limit.of(limit + 1);
+        List<MemberSummary> members = afterId == null
+                ? personRepository.findMemberPage(groupId, pageLimit)
+                : personRepository.findMemberPageAfter(groupId, afterId, pageLimit);
+        return MemberPage.of(members, limit);
+    }
+
+    /**
+     * Gets a page of the point history of a group, newest first.
+     *
+     * @param groupId The ID of the group
+     * @param cursor  The position after the previous page, or null for the first page
+     * @param limit   The maximum number of entries to return
+     * @return The page, with the cursor of the next page if there is one
+     */
+    @Transactional(readOnly = true)
+    public HistoryPage getGroupPointHistory(String groupId, HistoryCursor cursor, int limit) {
+        // Read one entry more than requested to find out whether there is a next page
+        Limit pageLimit = Limit.of(limit + 1);
+        List<HistoryEntry> entries = cursor == null
+                ? groupPointHistoryEntryRepository.findPageByGroupId(groupId, pageLimit)
+                : groupPointHistoryEntryRepository.findPageByGroupIdAfter(
+                        groupId, cursor.timestamp(), cursor.id(), pageLimit);
+        return HistoryPage.of(entries, limit);
     }
 }
\ No newline at end of file
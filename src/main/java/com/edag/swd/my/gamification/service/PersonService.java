@@ -2,9 +2,16 @@ package com.edag.swd.my.gamification.service;
 
 import com.edag.swd.my.gamification.entity.Person;
 import com.edag.swd.my.gamification.entity.PointHistoryEntry;
+import com.edag.swd.my.gamification.history.HistoryCursor;
+import com.edag.swd.my.gamification.history.HistoryEntry;
+import com.edag.swd.my.gamification.history.HistoryPage;
+import com.edag.swd.my.gamification.leaderboard.LeaderboardService;
+import com.edag.swd.my.gamification.models.GroupCount;
+import com.edag.swd.my.gamification.models.PersonSummary;
 import com.edag.swd.my.gamification.repository.PersonRepository;
 import com.edag.swd.my.gamification.repository.PointHistoryEntryRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,17 +23,56 @@ public class PersonService {
 
     private final PersonRepository personRepository;
     private final PointHistoryEntryRepository pointHistoryEntryRepository;
+    private final LeaderboardService leaderboardService;
 
     @Autowired
-    public PersonService(PersonRepository personRepository, PointHistoryEntryRepository pointHistoryEntryRepository) {
+    public PersonService(PersonRepository personRepository, PointHistoryEntryRepository pointHistoryEntryRepository,
+                         LeaderboardService leaderboardService) {
         this.personRepository = personRepository;
         this.pointHistoryEntryRepository = pointHistoryEntryRepository;
+        this.leaderboardService = leaderboardService;
     }
 
+    @Transactional(readOnly = true)
     public List<Person> getAllPersons() {
         return personRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
+    public List<Person> getPersonsRankedByPoints() {
+        return leaderboardService.getPersons().sortByRank(personRepository.findAll(), Person::getId);
+    }
+
+    /**
+     * Gets the columns of all persons shown in the person list, in leaderboard order.
+     *
+     * @return The persons, highest points first
+     */
+    @Transactional(readOnly = true)
+    public List<PersonSummary> getPersonSummariesRankedByPoints() {
+        return leaderboardService.getPersons().sortByRank(personRepository.findAllSummaries(), PersonSummary::id);
+    }
+
+    /**
+     * Gets the ID, name, group name and total points of all persons.
+     *
+     * @return The persons
+     */
+    @Transactional(readOnly = true)
+    public List<PersonSummary> getPersonSummaries() {
+        return personRepository.findAllSummaries();
+    }
+
+    /**
+     * Counts the persons of each group in a single aggregate query.
+     *
+     * @return The counts, most persons first; persons without a group are counted under a null group name
+     */
+    @Transactional(readOnly = true)
+    public List<GroupCount> countPersonsByGroup() {
+        return personRepository.countByGroup();
+    }
+
     public Optional<Person> getPersonById(String id) {
         return personRepository.findById(id);
     }
@@ -66,10 +112,36 @@ public class PersonService {
 
         pointHistoryEntryRepository.save(entry);
         person.getPointHistory().add(entry);
+        person.setTotalAccumulatedPoints(person.getTotalAccumulatedPoints() + pointsValue);
         personRepository.save(person);
     }
 
-    public List<PointHistoryEntry> getPersonPointHistory(String personId) {
-        return pointHistoryEntryRepository.findByPersonId(personId);
+    /**
+     * Rebuilds the stored total points of all persons from the point history table.
+     *
+     * @return The number of persons updated
+     */
+    @Transactional
+    public int reconcileTotalAccumulatedPoints() {
+        return personRepository.reconcileTotalAccumulatedPoints();
+    }
+
+    /**
+     * Gets a page of the point history of a person, newest first.
+     *
+     * @param personId The ID of the person
+     * @param cursor   The position after the previous page, or null for the first page
+     * @param limit    The maximum number of entries to return
+     * @return The page, with the cursor of the next page if there is one
+     */
+    @Transactional(readOnly = true)
+    public HistoryPage getPersonPointHistory(String personId, HistoryCursor cursor, int limit) {
+        // Read one entry more than requested to find out whether there is a next page
+        Limit pageLimit = Limit.of(limit + 1);
+        List<HistoryEntry> entries = cursor == null
+                ? pointHistoryEntryRepository.findPageByPersonId(personId, pageLimit)
+                : pointHistoryEntryRepository.findPageByPersonIdAfter(
+                        personId, cursor.timestamp(), cursor.id(), pageLimit);
+        return HistoryPage.of(entries, limit);
     }
 }
\ No newline at end of file
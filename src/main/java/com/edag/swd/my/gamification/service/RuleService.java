@@ -1,27 +1,21 @@
 package com.edag.swd.my.gamification.service;
 
 import com.edag.swd.my.gamification.config.RuleConfig;
+import com.edag.swd.my.gamification.engine.GroupLockManager;
+import com.edag.swd.my.gamification.engine.LockScope;
+import com.edag.swd.my.gamification.engine.RuleCatalog;
 import com.edag.swd.my.gamification.engine.RuleEngine;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
+import com.edag.swd.my.gamification.engine.RuleFileWatcher;
+import com.edag.swd.my.gamification.engine.RuleIndex;
+import com.edag.swd.my.gamification.eventlog.EventDeduplicator;
+import com.edag.swd.my.gamification.eventlog.EventLog;
+import com.edag.swd.my.gamification.metrics.RuleMetrics;
+import com.edag.swd.my.gamification.metrics.StatementCounter;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.ResourceLoader;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
 
 /**
  * Service for managing and executing rules in the gamification system.
@@ -30,47 +24,178 @@ import java.util.concurrent.ConcurrentHashMap;
 @Service
 public class RuleService {
     private final RuleEngine ruleEngine;
-    private final ResourceLoader resourceLoader;
-    private final String rulesJsonPath;
-    private final Map<String, RuleConfig> rules = new ConcurrentHashMap<>();
+    private final GroupLockManager groupLockManager;
+    private final RuleFileWatcher ruleFileWatcher;
+    private final RuleMetrics ruleMetrics;
+    private final EventDeduplicator eventDeduplicator;
+
+    // The catalog of the last rule index it was requested for
+    private volatile RuleCatalog ruleCatalog;
 
     @Autowired
-    public RuleService(RuleEngine ruleEngine, ResourceLoader resourceLoader,
-                       @Value("${rules.json.path:/rules.json}") String rulesJsonPath) {
+    public RuleService(RuleEngine ruleEngine, GroupLockManager groupLockManager, RuleFileWatcher ruleFileWatcher,
+                       RuleMetrics ruleMetrics, EventDeduplicator eventDeduplicator) {
         this.ruleEngine = ruleEngine;
-        this.resourceLoader = resourceLoader;
-        this.rulesJsonPath = rulesJsonPath;
+        this.groupLockManager = groupLockManager;
+        this.ruleFileWatcher = ruleFileWatcher;
+        this.ruleMetrics = ruleMetrics;
+        this.eventDeduplicator = eventDeduplicator;
     }
 
     /**
-     * Loads rules from a JSON file.
+     * Processes an event with the given action type and participants.
+     * The event runs in its own transaction while holding the locks of the groups it may modify, so events
+     * for different groups run in parallel and events for the same group are serialized. When called within
+     * an existing transaction, the caller is responsible for holding the group locks, and the event is not
+     * included in the per-event time and statement metrics because its statements run at the caller's commit.
      *
-     * @param resourcePath Path to the JSON file containing rules
-     * @throws Exception If there's an error loading the rules
+     * @param actionType   The type of action to process
+     * @param participants Map of participant roles to person IDs
+     * @return The number of rules that matched the event
      */
-    public void loadRules(String resourcePath) throws Exception {
-        ruleEngine.loadRules(resourcePath);
+    public int processEvent(String actionType, Map<String, String> participants) {
+        return processEvent(UUID.randomUUID().toString(), actionType, participants);
+    }
 
-        // Also load rules into the local map
-        ObjectMapper mapper = new ObjectMapper();
-        Resource resource = resourceLoader.getResource("classpath:" + resourcePath);
+    /**
+     * Processes an event under the given ID, as {@link #processEvent(String, Map)} does.
+     * The ID is logged with the event and must not have been logged before.
+     *
+     * @param eventId      The ID of the event, or its idempotency key
+     * @param actionType   The type of action to process
+     * @param participants Map of participant roles to person IDs
+     * @return The number of rules that matched the event
+     */
+    public int processEvent(String eventId, String actionType, Map<String, String> participants) {
+        return processEvent(ruleEngine.getRuleIndex(), eventId, actionType, participants);
+    }
 
-        try (InputStream inputStream = resource.getInputStream()) {
-            List<RuleConfig> ruleList = mapper.readValue(inputStream, new TypeReference<List<RuleConfig>>() {
-            });
-            ruleList.forEach(rule -> this.rules.put(rule.getRuleName(), rule));
+    /**
+     * Processes an event under the given ID with a given rule set.
+     * The rule set is used both to determine the groups to lock and to apply the event.
+     *
+     * @param rules        The rules to apply, as returned by {@link #getRuleIndex()}
+     * @param eventId      The ID of the event, or its idempotency key
+     * @param actionType   The type of action to process
+     * @param participants Map of participant roles to person IDs
+     * @return The number of rules that matched the event
+     */
+    public int processEvent(RuleIndex rules, String eventId, String actionType, Map<String, String> participants) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return ruleEngine.processEvent(rules, eventId, actionType, participants);
+        }
+
+        long start = System.nanoTime();
+        int statementsBefore = StatementCounter.current();
+        try {
+            LockScope scope = ruleEngine.resolveLockScope(rules, List.of(actionType), participants.values());
+            return groupLockManager.runLocked(scope,
+                    () -> ruleEngine.processEvent(rules, eventId, actionType, participants));
+        } finally {
+            ruleMetrics.eventProcessed(System.nanoTime() - start, StatementCounter.current() - statementsBefore);
         }
     }
 
     /**
-     * Processes an event with the given action type and participants.
+     * Processes an event unless an event with the same idempotency key was already processed.
+     * Duplicates are rejected before any lock is taken or rule is evaluated. A duplicate whose key has left the
+     * deduplication window is rejected by the unique index of the event log instead; outside a transaction that
+     * is reported as a duplicate too, within one it fails the caller's transaction. If the event fails otherwise,
+     * its key is released so that a retry is processed.
+     *
+     * @param idempotencyKey The key identifying retries of the event
+     * @param actionType     The type of action to process
+     * @param participants   Map of participant roles to person IDs
+     * @return The number of rules that matched the event, or empty if the event is a duplicate
+     */
+    public OptionalInt processUniqueEvent(String idempotencyKey, String actionType, Map<String, String> participants) {
+        return processUniqueEvent(ruleEngine.getRuleIndex(), idempotencyKey, actionType, participants);
+    }
+
+    /**
+     * Processes an event with a given rule set unless an event with the same idempotency key was already processed.
+     *
+     * @param rules          The rules to apply, as returned by {@link #getRuleIndex()}
+     * @param idempotencyKey The key identifying retries of the event
+     * @param actionType     The type of action to process
+     * @param participants   Map of participant roles to person IDs
+     * @return The number of rules that matched the event, or empty if the event is a duplicate
+     */
+    public OptionalInt processUniqueEvent(RuleIndex rules, String idempotencyKey, String actionType,
+                                          Map<String, String> participants) {
+        if (!eventDeduplicator.claim(idempotencyKey)) {
+            return OptionalInt.empty();
+        }
+        try {
+            return OptionalInt.of(processEvent(rules, idempotencyKey, actionType, participants));
+        } catch (RuntimeException e) {
+            if (EventLog.isDuplicateEventId(e) && !TransactionSynchronizationManager.isActualTransactionActive()) {
+                eventDeduplicator.duplicateLogged(idempotencyKey);
+                return OptionalInt.empty();
+            }
+            eventDeduplicator.release(idempotencyKey);
+            throw e;
+        }
+    }
+
+    /**
+     * Determines which groups processing an event may modify.
      *
      * @param actionType   The type of action to process
      * @param participants Map of participant roles to person IDs
+     * @return The groups the event may modify
+     */
+    public LockScope resolveLockScope(String actionType, Map<String, String> participants) {
+        return ruleEngine.resolveLockScope(List.of(actionType), participants.values());
+    }
+
+    /**
+     * Determines which groups processing a set of events may modify.
+     *
+     * @param actionTypes The action types of the events
+     * @param personIds   The IDs of the participants of the events
+     * @return The groups the events may modify
+     */
+    public LockScope resolveLockScope(Collection<String> actionTypes, Collection<String> personIds) {
+        return ruleEngine.resolveLockScope(actionTypes, personIds);
+    }
+
+    /**
+     * Determines which groups processing a set of events with a given rule set may modify.
+     *
+     * @param rules       The rules the events will be processed with
+     * @param actionTypes The action types of the events
+     * @param personIds   The IDs of the participants of the events
+     * @return The groups the events may modify
+     */
+    public LockScope resolveLockScope(RuleIndex rules, Collection<String> actionTypes, Collection<String> personIds) {
+        return ruleEngine.resolveLockScope(rules, actionTypes, personIds);
+    }
+
+    /**
+     * Gets the current rule set. Callers that lock groups for events and then process them use the same
+     * rule set for both, so a concurrent rule change applies only to later events.
+     *
+     * @return The current rule index
      */
-    @Transactional
-    public void processEvent(String actionType, Map<String, String> participants) {
-        ruleEngine.processEvent(actionType, participants);
+    public RuleIndex getRuleIndex() {
+        return ruleEngine.getRuleIndex();
+    }
+
+    /**
+     * Gets the catalog of the current rules. The catalog is rebuilt only when a new rule set was published.
+     *
+     * @return The rule catalog
+     */
+    public RuleCatalog getRuleCatalog() {
+        RuleIndex index = getRuleIndex();
+        RuleCatalog catalog = ruleCatalog;
+        if (catalog == null || catalog.getVersion() != index.getVersion()) {
+            // Concurrent requests may build the same catalog twice, which is harmless
+            catalog = new RuleCatalog(index);
+            ruleCatalog = catalog;
+        }
+        return catalog;
     }
 
     /**
@@ -84,58 +209,22 @@ public class RuleService {
 
     /**
      * Adds a new rule to the system.
+     * The rule is saved to the rules file together with the current rules and published right away.
      *
      * @param rule The rule to add
      * @return true if the rule was added successfully, false if a rule with the same name already exists
      * @throws Exception If there's an error saving the rules
      */
-    public boolean addRule(RuleConfig rule) throws Exception {
+    public synchronized boolean addRule(RuleConfig rule) throws Exception {
         // Check if a rule with the same name already exists
-        if (getRules().containsKey(rule.getRuleName())) {
+        Map<String, RuleConfig> currentRules = getRules();
+        if (currentRules.containsKey(rule.getRuleName())) {
             return false;
         }
 
-        // Add the rule to the local map
-        this.rules.put(rule.getRuleName(), rule);
-
-        // Save the rules to the file
-        saveRules();
-
-        // Reload the rules in the rule engine
-        ruleEngine.loadRules(rulesJsonPath);
-
+        List<RuleConfig> ruleList = new ArrayList<>(currentRules.values());
+        ruleList.add(rule);
+        ruleFileWatcher.save(ruleList);
         return true;
     }
-
-    /**
-     * Saves the current rules to the rules.json file.
-     *
-     * @throws Exception If there's an error saving the rules
-     */
-    private void saveRules() throws Exception {
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.enable(SerializationFeature.INDENT_OUTPUT);
-
-        // Get all rules from the rule engine
-        Map<String, RuleConfig> engineRules = getRules();
-
-        // Merge with local rules
-        Map<String, RuleConfig> allRules = new ConcurrentHashMap<>(engineRules);
-        allRules.putAll(this.rules);
-
-        // Convert the rules map to a list
-        List<RuleConfig> ruleList = new ArrayList<>(allRules.values());
-
-        // Get the file path
-        Path filePath = Paths.get("src/main/resources" + rulesJsonPath);
-
-        // Write the rules to the file
-        try (OutputStream os = Files.newOutputStream(filePath)) {
-            mapper.writeValue(os, ruleList);
-            System.out.println("Saved " + ruleList.size() + " rules to " + filePath);
-        } catch (IOException e) {
-            System.err.println("Error saving rules: " + e.getMessage());
-            throw e;
-        }
-    }
-}
\ No newline at end of file
+}
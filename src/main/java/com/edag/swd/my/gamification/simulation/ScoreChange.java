@@ -0,0 +1,15 @@
+package com.edag.swd.my.gamification.simulation;
+
+/**
+ * The projected change of a person's or group's score under a candidate rule set.
+ *
+ * @param id              The ID of the person or group
+ * @param points          The current total points
+ * @param delta           The points the candidate rules award in the simulated range minus those of the
+ *                        current rules
+ * @param projectedPoints The total points with the delta applied
+ * @param rank            The current 1-based rank
+ * @param projectedRank   The 1-based rank with every delta applied
+ */
+public record ScoreChange(String id, int points, int delta, int projectedPoints, int rank, int projectedRank) {
+}
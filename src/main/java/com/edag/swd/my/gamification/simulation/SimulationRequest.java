@@ -0,0 +1,16 @@
+package com.edag.swd.my.gamification.simulation;
+
+import com.edag.swd.my.gamification.config.RuleConfig;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A candidate rule set to try against the events of a time range.
+ *
+ * @param from  The start of the range (inclusive)
+ * @param to    The end of the range (exclusive), now if null
+ * @param rules The candidate rules; rules with the name of a current rule replace it, others are added
+ */
+public record SimulationRequest(Instant from, Instant to, List<RuleConfig> rules) {
+}
@@ -0,0 +1,19 @@
+package com.edag.swd.my.gamification.simulation;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The outcome of simulating a candidate rule set.
+ * Only persons and groups whose points or rank would change are listed.
+ *
+ * @param from           The start of the simulated range
+ * @param to             The end of the simulated range
+ * @param events         The number of logged events in the range matched by either rule set
+ * @param durationMillis The time the simulation took
+ * @param groups         The changed groups, by projected rank
+ * @param persons        The changed persons, by projected rank
+ */
+public record SimulationResult(Instant from, Instant to, long events, long durationMillis,
+                               List<ScoreChange> groups, List<ScoreChange> persons) {
+}
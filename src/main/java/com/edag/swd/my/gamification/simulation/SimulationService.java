@@ -0,0 +1,252 @@
+package com.edag.swd.my.gamification.simulation;
+
+import com.edag.swd.my.gamification.config.RuleConfig;
+import com.edag.swd.my.gamification.engine.*;
+import com.edag.swd.my.gamification.eventlog.LoggedEvent;
+import com.edag.swd.my.gamification.leaderboard.Leaderboard;
+import com.edag.swd.my.gamification.leaderboard.Score;
+import com.edag.swd.my.gamification.repository.EventLogRepository;
+import com.edag.swd.my.gamification.repository.GroupRepository;
+import com.edag.swd.my.gamification.repository.PersonRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Projects how a candidate rule set would have changed the scores, without changing anything.
+ * <p>
+ * The logged events of a time range are evaluated twice in memory, with the current rules and with the
+ * candidate rules, each by a {@link ScoreEvaluator} on its own {@link Scoreboard}. The difference is the delta
+ * the candidate rules would have made, which is added to the current totals to project the new totals and
+ * ranks. Both evaluations start from empty capped points at the start of the range. Nothing is written; the
+ * events, memberships and totals are read in a single read-only transaction.
+ * <p>
+ * Since an event only changes the groups of its participants, or every group for rules with both award and
+ * penalty outcomes, the events are partitioned by group and the groups are evaluated in parallel on a
+ * fork/join pool of {@code gamification.simulation.parallelism} threads.
+ */
+@Service
+public class SimulationService {
+    // Groups evaluated by one fork/join task without splitting further
+    private static final int GROUPS_PER_TASK = 8;
+
+    private final EventLogRepository eventLogRepository;
+    private final PersonRepository personRepository;
+    private final GroupRepository groupRepository;
+    private final RuleEngine ruleEngine;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ForkJoinPool pool;
+    private final ZoneId zone;
+
+    @Autowired
+    public SimulationService(EventLogRepository eventLogRepository,
+                             PersonRepository personRepository,
+                             GroupRepository groupRepository,
+                             RuleEngine ruleEngine,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${gamification.simulation.parallelism:0}") int parallelism,
+                             @Value("${gamification.caps.reset-zone:}") String zone) {
+        this.eventLogRepository = eventLogRepository;
+        this.personRepository = personRepository;
+        this.groupRepository = groupRepository;
+        this.ruleEngine = ruleEngine;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.zone = zone.isBlank() ? ZoneId.systemDefault() : ZoneId.of(zone);
+    }
+
+    /**
+     * Simulates a candidate rule set against the events logged in a time range.
+     *
+     * @param request The time range and candidate rules
+     * @return The projected changes of the persons and groups whose points or rank would change
+     * @throws IllegalArgumentException If the range is empty or a candidate rule is invalid
+     */
+    public SimulationResult simulate(SimulationRequest request) {
+        long start = System.nanoTime();
+        Instant from = request.from();
+        Instant to = request.to() != null ? request.to() : Instant.now();
+        if (from == null || !from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        List<RuleConfig> candidateRules = request.rules() != null ? request.rules() : List.of();
+        RuleValidator.validate(candidateRules);
+
+        RuleIndex current = ruleEngine.getRuleIndex();
+        ScoreEvaluator baseline = new ScoreEvaluator(current, zone);
+        ScoreEvaluator candidate = new ScoreEvaluator(current.withRules(candidateRules), zone);
+
+        Snapshot snapshot = readOnlyTransaction.execute(status -> load(from, to, baseline, candidate));
+        Scoreboard baselineScores = new Scoreboard(snapshot.groupIds, snapshot.memberships);
+        Scoreboard candidateScores = new Scoreboard(snapshot.groupIds, snapshot.memberships);
+
+        Partition partition = partition(snapshot.events, baselineScores, baseline, candidate);
+        pool.invoke(new EvaluateGroups(snapshot.groupIds, 0, snapshot.groupIds.size(), partition,
+                baseline, baselineScores, candidate, candidateScores));
+
+        Map<String, Integer> groupDeltas = new HashMap<>();
+        Map<String, Integer> personDeltas = new HashMap<>();
+        for (GroupTally candidateTally : candidateScores.getGroups()) {
+            GroupTally baselineTally = baselineScores.getGroup(candidateTally.getGroupId());
+            groupDeltas.put(candidateTally.getGroupId(), candidateTally.getPoints() - baselineTally.getPoints());
+            for (String personId : candidateTally.getMemberIds()) {
+                personDeltas.put(personId,
+                        candidateTally.getMemberPoints(personId) - baselineTally.getMemberPoints(personId));
+            }
+        }
+
+        return new SimulationResult(from, to, snapshot.events.size(), (System.nanoTime() - start) / 1_000_000,
+                project(snapshot.groupScores, groupDeltas), project(snapshot.personScores, personDeltas));
+    }
+
+    private Snapshot load(Instant from, Instant to, ScoreEvaluator baseline, ScoreEvaluator candidate) {
+        List<LoggedEvent> events = new ArrayList<>();
+        try (Stream<LoggedEvent> log = eventLogRepository.streamByTimestampRange(from, to)) {
+            log.filter(event -> baseline.matches(event) || candidate.matches(event)).forEach(events::add);
+        }
+        return new Snapshot(groupRepository.findAllIds(), personRepository.findAllMemberships(),
+                groupRepository.findAllScores(), personRepository.findAllScores(), events);
+    }
+
+    // Assigns every event to the groups of its participants, or to all groups if either rule set says so
+    private static Partition partition(List<LoggedEvent> events, Scoreboard scoreboard,
+                                       ScoreEvaluator baseline, ScoreEvaluator candidate) {
+        Map<String, List<LoggedEvent>> byGroup = new HashMap<>();
+        List<LoggedEvent> allGroups = new ArrayList<>();
+        for (LoggedEvent event : events) {
+            if (baseline.affectsAllGroups(event) || candidate.affectsAllGroups(event)) {
+                allGroups.add(event);
+                continue;
+            }
+            Set<String> groupIds = new HashSet<>();
+            for (String personId : event.participants().values()) {
+                GroupTally group = scoreboard.getGroupOf(personId);
+                if (group != null && groupIds.add(group.getGroupId())) {
+                    byGroup.computeIfAbsent(group.getGroupId(), id -> new ArrayList<>()).add(event);
+                }
+            }
+        }
+        return new Partition(byGroup, allGroups);
+    }
+
+    // Current and projected ranks of every subject, listing only those whose points or rank change
+    private static List<ScoreChange> project(List<Score> scores, Map<String, Integer> deltas) {
+        Map<String, Integer> currentPoints = new HashMap<>();
+        Map<String, Integer> projectedPoints = new HashMap<>();
+        for (Score score : scores) {
+            currentPoints.put(score.id(), score.points());
+            projectedPoints.put(score.id(), score.points() + deltas.getOrDefault(score.id(), 0));
+        }
+        Leaderboard currentRanking = new Leaderboard();
+        currentRanking.reset(currentPoints);
+        Leaderboard projectedRanking = new Leaderboard();
+        projectedRanking.reset(projectedPoints);
+
+        List<ScoreChange> changes = new ArrayList<>();
+        for (Score score : scores) {
+            int delta = deltas.getOrDefault(score.id(), 0);
+            int rank = currentRanking.get(score.id()).orElseThrow().rank();
+            int projectedRank = projectedRanking.get(score.id()).orElseThrow().rank();
+            if (delta == 0 && rank == projectedRank) continue;
+            changes.add(new ScoreChange(score.id(), score.points(), delta, score.points() + delta, rank,
+                    projectedRank));
+        }
+        changes.sort(Comparator.comparingInt(ScoreChange::projectedRank));
+        return changes;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private record Snapshot(List<String> groupIds, List<Membership> memberships, List<Score> groupScores,
+                            List<Score> personScores, List<LoggedEvent> events) {
+    }
+
+    /**
+     * The events of each group, plus the events that may change every group.
+     * Both are in sequence order.
+     */
+    private record Partition(Map<String, List<LoggedEvent>> byGroup, List<LoggedEvent> allGroups) {
+
+        // Merges the group's own events with those of all groups, keeping sequence order
+        void forEachEvent(String groupId, Consumer<LoggedEvent> action) {
+            List<LoggedEvent> own = byGroup.getOrDefault(groupId, List.of());
+            int i = 0;
+            int j = 0;
+            while (i < own.size() || j < allGroups.size()) {
+                if (j == allGroups.size()
+                        || (i < own.size() && own.get(i).sequence() < allGroups.get(j).sequence())) {
+                    action.accept(own.get(i++));
+                } else {
+                    action.accept(allGroups.get(j++));
+                }
+            }
+        }
+    }
+
+    /**
+     * Evaluates a range of groups with both rule sets, splitting the range until it is small enough.
+     * Every group tally is only touched by the task that owns it.
+     */
+    private static final class EvaluateGroups extends RecursiveAction {
+        private final List<String> groupIds;
+        private final int from;
+        private final int to;
+        private final Partition partition;
+        private final ScoreEvaluator baseline;
+        private final Scoreboard baselineScores;
+        private final ScoreEvaluator candidate;
+        private final Scoreboard candidateScores;
+
+        EvaluateGroups(List<String> groupIds, int from, int to, Partition partition,
+                       ScoreEvaluator baseline, Scoreboard baselineScores,
+                       ScoreEvaluator candidate, Scoreboard candidateScores) {
+            this.groupIds = groupIds;
+            this.from = from;
+            this.to = to;
+            this.partition = partition;
+            this.baseline = baseline;
+            this.baselineScores = baselineScores;
+            this.candidate = candidate;
+            this.candidateScores = candidateScores;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= GROUPS_PER_TASK) {
+                for (int i = from; i < to; i++) {
+                    evaluate(groupIds.get(i));
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new EvaluateGroups(groupIds, from, middle, partition,
+                            baseline, baselineScores, candidate, candidateScores),
+                    new EvaluateGroups(groupIds, middle, to, partition,
+                            baseline, baselineScores, candidate, candidateScores));
+        }
+
+        private void evaluate(String groupId) {
+            GroupTally baselineTally = baselineScores.getGroup(groupId);
+            GroupTally candidateTally = candidateScores.getGroup(groupId);
+            partition.forEachEvent(groupId, event -> {
+                baseline.apply(event, baselineScores, baselineTally, ScoreSink.NONE);
+                candidate.apply(event, candidateScores, candidateTally, ScoreSink.NONE);
+            });
+        }
+    }
+}
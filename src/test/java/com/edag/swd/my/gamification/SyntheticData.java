@@ -0,0 +1,150 @@
+package com.edag.swd.my.gamification;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Synthetic groups, persons and bulk rows for the database benchmarks.
+ * <p>
+ * Every ID starts with a prefix of the benchmark, so its data can be deleted without touching the sample data.
+ * Person {@code i} is {@code <prefix>-p<i>} and belongs to group {@code <prefix>-g<i / membersPerGroup>}. Large
+ * tables are filled in chunks of {@link #CHUNK_SIZE} rows with {@code INSERT ... SELECT ... FROM SYSTEM_RANGE(?, ?)},
+ * so H2 generates the rows without a round trip per row.
+ */
+public final class SyntheticData {
+    public static final int CHUNK_SIZE = 500_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String prefix;
+
+    public SyntheticData(JdbcTemplate jdbcTemplate, String prefix) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.prefix = prefix;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    public String groupId(int group) {
+        return prefix + "-g" + group;
+    }
+
+    public String personId(int person) {
+        return prefix + "-p" + person;
+    }
+
+    /**
+     * Creates groups of persons with no points.
+     *
+     * @param groups          The number of groups
+     * @param membersPerGroup The number of persons in each group
+     */
+    public void createGroups(int groups, int membersPerGroup) {
+        createPersons(groups * membersPerGroup, membersPerGroup, person -> 0);
+    }
+
+    /**
+     * Creates persons and the groups they belong to; the last group may have fewer members.
+     *
+     * @param persons         The number of persons
+     * @param membersPerGroup The number of persons in each group
+     * @param points          The total points of each person, by index
+     */
+    public void createPersons(int persons, int membersPerGroup, IntUnaryOperator points) {
+        List<Object[]> groupRows = new ArrayList<>();
+        List<Object[]> personRows = new ArrayList<>();
+        for (int p = 0; p < persons; p++) {
+            int group = p / membersPerGroup;
+            if (p % membersPerGroup == 0) {
+                groupRows.add(new Object[]{groupId(group), "Benchmark Group " + group});
+            }
+            personRows.add(new Object[]{personId(p), "Benchmark Person " + p, groupId(group), points.applyAsInt(p)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO \"groups\" (id, name, total_group_points, version) VALUES (?, ?, 0, 0)",
+                groupRows);
+        jdbcTemplate.batchUpdate("INSERT INTO persons (id, name, group_id, total_accumulated_points) " +
+                "VALUES (?, ?, ?, ?)", personRows);
+    }
+
+    /**
+     * Runs an {@code INSERT ... SELECT ... FROM SYSTEM_RANGE(?, ?)} statement for the rows 1 to {@code rows}, in
+     * chunks. The statement generates one row per {@code X} of the range.
+     *
+     * @param rows The number of rows
+     * @param sql  The insert statement, ending with {@code FROM SYSTEM_RANGE(?, ?)}
+     * @return The time taken in milliseconds
+     */
+    public long insertRows(long rows, String sql) {
+        long start = System.nanoTime();
+        forEachChunk(rows, (from, to) -> jdbcTemplate.update(sql, from, to));
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    /**
+     * Replaces the event log with events spread evenly over 2025, for the first {@code persons} persons.
+     * One in {@code multiOutcomeEvery} events is a capped multi-outcome "SAP Hours" event; of the others, one in
+     * ten is a "Mr Sauron" penalty, one in ten a forum participation and the rest join a hackathon. The events have
+     * negative, increasing IDs in timestamp order.
+     *
+     * @param events            The number of events
+     * @param persons           The number of persons the events are spread over
+     * @param multiOutcomeEvery How often a multi-outcome event occurs
+     * @return The time taken in milliseconds
+     */
+    public long logEvents(long events, int persons, int multiOutcomeEvery) {
+        jdbcTemplate.update("DELETE FROM event_log");
+        return insertRows(events, "INSERT INTO event_log (id, event_id, action_type, participants, timestamp) " +
+                "SELECT X - " + (events + 1) + ", 'bench-' || X, " +
+                "CASE WHEN MOD(X, " + multiOutcomeEvery + ") = 0 THEN 'did_not_key_in_sap_hour' " +
+                "WHEN MOD(X, 10) = 1 THEN 'mr_sauron' WHEN MOD(X, 10) = 2 THEN 'forum_participation' " +
+                "ELSE 'join_hackathon' END, " +
+                "CASE MOD(X, " + multiOutcomeEvery + ") WHEN 0 THEN '{\"offender\":\"' ELSE '{\"individual\":\"' END || " +
+                "'" + prefix + "-p' || MOD(X * 7, " + persons + ") || '\"}', " +
+                "DATEADD(MILLISECOND, X * " + 365L * 24 * 3600 * 1000 / events + ", " +
+                "TIMESTAMP WITH TIME ZONE '2025-01-01 00:00:00+00') FROM SYSTEM_RANGE(?, ?)");
+    }
+
+    /**
+     * Splits the rows 1 to {@code rows} into chunks.
+     *
+     * @param rows   The number of rows
+     * @param action Called with the first and last row of each chunk
+     */
+    public static void forEachChunk(long rows, ChunkAction action) {
+        for (long from = 1; from <= rows; from += CHUNK_SIZE) {
+            action.run(from, Math.min(rows, from + CHUNK_SIZE - 1));
+        }
+    }
+
+    /**
+     * Deletes the groups and persons of the benchmark, with their history, activity points and rollups.
+     */
+    public void deleteAll() {
+        String pattern = prefix + "-%";
+        jdbcTemplate.update("DELETE FROM point_rollups WHERE subject_id LIKE ?", pattern);
+        jdbcTemplate.update("DELETE FROM point_history WHERE person_id LIKE ?", pattern);
+        jdbcTemplate.update("DELETE FROM group_point_history WHERE group_id LIKE ?", pattern);
+        jdbcTemplate.update("DELETE FROM activity_points WHERE group_id LIKE ?", pattern);
+        jdbcTemplate.update("DELETE FROM persons WHERE id LIKE ?", pattern);
+        jdbcTemplate.update("DELETE FROM \"groups\" WHERE id LIKE ?", pattern);
+    }
+
+    /**
+     * Prints a benchmark result, prefixed with {@code BENCHMARK:} so results are easy to find in the build output.
+     *
+     * @param format The format of the result line
+     * @param args   The values of the result
+     */
+    public static void report(String format, Object... args) {
+        System.out.printf("BENCHMARK: " + format + "%n", args);
+    }
+
+    @FunctionalInterface
+    public interface ChunkAction {
+        void run(long from, long to);
+    }
+}
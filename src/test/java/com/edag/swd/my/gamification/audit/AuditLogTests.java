@@ -0,0 +1,81 @@
+package com.edag.swd.my.gamification.audit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditLogTests {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void writesRecordsAsNdjsonAndRollsFiles() throws Exception {
+        Path file = directory.resolve("audit.ndjson");
+        AuditLog auditLog = new AuditLog(true, AuditLevel.INFO, 1.0, 1024, true,
+                file.toString(), DataSize.ofKilobytes(4), 3);
+
+        for (int i = 0; i < 200; i++) {
+            auditLog.record(new AuditRecord(i, AuditLevel.INFO, AuditType.GROUP_POINTS, "Rule \"" + i + "\"",
+                    "group" + i, "Group", i, i * 2, null, null));
+        }
+        auditLog.record(AuditRecord.rule("Filtered", "below the configured level"));
+        auditLog.shutdown();
+
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(directory)) {
+            files = stream.sorted().toList();
+        }
+        assertEquals(List.of(directory.resolve("audit.1.ndjson"), directory.resolve("audit.2.ndjson"), file), files);
+
+        ObjectMapper mapper = new ObjectMapper();
+        List<JsonNode> records = new ArrayList<>();
+        for (Path rolled : List.of(directory.resolve("audit.2.ndjson"), directory.resolve("audit.1.ndjson"), file)) {
+            assertTrue(Files.size(rolled) <= 4096, "size of " + rolled);
+            for (String line : Files.readAllLines(rolled)) {
+                records.add(mapper.readTree(line));
+            }
+        }
+
+        // The oldest records were rolled out; the remaining ones are complete and in order
+        JsonNode last = records.getLast();
+        assertEquals(199, last.get("points").asInt());
+        assertEquals(398, last.get("total").asInt());
+        assertEquals("Rule \"199\"", last.get("rule").asText());
+        assertEquals("GROUP_POINTS", last.get("type").asText());
+        assertFalse(last.has("cap"));
+        for (int i = 1; i < records.size(); i++) {
+            assertEquals(records.get(i - 1).get("points").asInt() + 1, records.get(i).get("points").asInt());
+        }
+    }
+
+    @Test
+    void recordDoesNotBlockOnceTheWriterHasFailed() throws Exception {
+        AuditLog auditLog = new AuditLog(true, AuditLevel.INFO, 1.0, 4, true,
+                directory.resolve("audit.ndjson").toString(), DataSize.ofKilobytes(4), 3);
+
+        // A record without a type makes the writer thread fail while serializing it
+        auditLog.record(new AuditRecord(0, AuditLevel.INFO, null, null, null, null, null, null, null, null));
+
+        // Far more records than the buffer holds; with blocking enabled this would hang without a writer
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            for (int i = 0; i < 100; i++) {
+                auditLog.record(new AuditRecord(i, AuditLevel.INFO, AuditType.GROUP_POINTS, "Rule",
+                        "group" + i, "Group", i, i, null, null));
+            }
+        });
+        assertTrue(auditLog.getDroppedCount() > 0);
+        auditLog.shutdown();
+    }
+}
@@ -0,0 +1,66 @@
+package com.edag.swd.my.gamification.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditRingBufferTests {
+
+    private static final int PRODUCERS = 8;
+    private static final int ELEMENTS_PER_PRODUCER = 20_000;
+
+    @Test
+    void rejectsElementsWhenFull() {
+        AuditRingBuffer<Integer> buffer = new AuditRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(4));
+
+        assertEquals(0, buffer.poll());
+        assertTrue(buffer.offer(4));
+        for (int i = 1; i <= 4; i++) {
+            assertEquals(i, buffer.poll());
+        }
+        assertNull(buffer.poll());
+    }
+
+    @Test
+    void concurrentProducersLoseNothingAndKeepTheirOrder() throws Exception {
+        AuditRingBuffer<long[]> buffer = new AuditRingBuffer<>(1024);
+        ExecutorService executor = Executors.newFixedThreadPool(PRODUCERS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int producer = 0; producer < PRODUCERS; producer++) {
+            long producerId = producer;
+            futures.add(executor.submit(() -> {
+                for (long i = 0; i < ELEMENTS_PER_PRODUCER; i++) {
+                    long[] element = {producerId, i};
+                    while (!buffer.offer(element)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            }));
+        }
+
+        long[] nextExpected = new long[PRODUCERS];
+        int received = 0;
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+        while (received < PRODUCERS * ELEMENTS_PER_PRODUCER && System.nanoTime() < deadline) {
+            long[] element = buffer.poll();
+            if (element == null) continue;
+            assertEquals(nextExpected[(int) element[0]]++, element[1], "order of producer " + element[0]);
+            received++;
+        }
+
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+        assertEquals(PRODUCERS * ELEMENTS_PER_PRODUCER, received);
+        assertNull(buffer.poll());
+    }
+}
@@ -0,0 +1,98 @@
+package com.edag.swd.my.gamification.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionLimitingDataSourceTests {
+
+    @Test
+    void closingAConnectionReleasesItsPermit() throws SQLException {
+        StubDataSource target = new StubDataSource();
+        ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(target, 1, Duration.ofMillis(50));
+
+        Connection connection = dataSource.getConnection();
+        assertEquals(1, dataSource.getActiveCount());
+        connection.close();
+
+        assertEquals(0, dataSource.getActiveCount());
+        assertEquals(1, target.closed.get());
+        dataSource.getConnection().close();
+    }
+
+    @Test
+    void closingTwiceReleasesOnePermit() throws SQLException {
+        ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(new StubDataSource(), 2,
+                Duration.ofMillis(50));
+
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+        first.close();
+        first.close();
+
+        assertEquals(1, dataSource.getActiveCount());
+        second.close();
+        assertEquals(0, dataSource.getActiveCount());
+    }
+
+    @Test
+    void acquisitionTimesOutWhenAllConnectionsAreInUse() throws SQLException {
+        ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(new StubDataSource(), 1,
+                Duration.ofMillis(50));
+
+        try (Connection ignored = dataSource.getConnection()) {
+            assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+            assertEquals(1, dataSource.getTimeoutCount());
+        }
+        assertEquals(0, dataSource.getActiveCount());
+    }
+
+    @Test
+    void failedAcquisitionReturnsItsPermit() throws SQLException {
+        StubDataSource target = new StubDataSource();
+        ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(target, 1, Duration.ofMillis(50));
+
+        target.failing = true;
+        assertThrows(SQLException.class, dataSource::getConnection);
+        assertEquals(0, dataSource.getActiveCount());
+
+        target.failing = false;
+        dataSource.getConnection().close();
+        assertEquals(0, dataSource.getTimeoutCount());
+    }
+
+    /**
+     * Hands out connections that only count how often they are closed.
+     */
+    private static final class StubDataSource extends AbstractDataSource {
+        final AtomicInteger closed = new AtomicInteger();
+        volatile boolean failing;
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (failing) {
+                throw new SQLException("Database unavailable");
+            }
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        if (method.getName().equals("close")) {
+                            closed.incrementAndGet();
+                        }
+                        return null;
+                    });
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return getConnection();
+        }
+    }
+}
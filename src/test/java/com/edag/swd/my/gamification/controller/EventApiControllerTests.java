@@ -0,0 +1,197 @@
+package com.edag.swd.my.gamification.controller;
+
+import com.edag.swd.my.gamification.engine.GroupLockManager;
+import com.edag.swd.my.gamification.engine.LockScope;
+import com.edag.swd.my.gamification.entity.Group;
+import com.edag.swd.my.gamification.entity.Person;
+import com.edag.swd.my.gamification.eventlog.EventDeduplicator;
+import com.edag.swd.my.gamification.eventlog.ReplayService;
+import com.edag.swd.my.gamification.models.EventStatus;
+import com.edag.swd.my.gamification.repository.GroupRepository;
+import com.edag.swd.my.gamification.repository.PersonRepository;
+import com.edag.swd.my.gamification.service.AsyncEventService;
+import com.edag.swd.my.gamification.service.EventBatchService;
+import com.edag.swd.my.gamification.service.RuleService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+class EventApiControllerTests {
+
+    private static final String GROUP_ID = "async-group";
+    private static final String PERSON_ID = "async-member";
+    private static final String EVENT = "{\"actionType\":\"join_hackathon\",\"participants\":{\"individual\":\""
+            + PERSON_ID + "\"}}";
+
+    @Autowired
+    private EventApiController eventApiController;
+
+    @Autowired
+    private EventBatchService eventBatchService;
+
+    @Autowired
+    private AsyncEventService asyncEventService;
+
+    @Autowired
+    private ReplayService replayService;
+
+    @Autowired
+    private RuleService ruleService;
+
+    @Autowired
+    private EventDeduplicator eventDeduplicator;
+
+    @Autowired
+    private GroupLockManager groupLockManager;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @BeforeEach
+    void createGroup() {
+        Group group = groupRepository.save(new Group(GROUP_ID, "Async Group"));
+        personRepository.save(new Person(PERSON_ID, "Async Member", group));
+    }
+
+    @AfterEach
+    void deleteGroup() {
+        groupRepository.deleteById(GROUP_ID);
+    }
+
+    @Test
+    void acceptedEventIsProcessedInTheBackground() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(eventApiController).build();
+
+        MvcResult accepted = submit(mockMvc, EVENT, null)
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists(HttpHeaders.LOCATION))
+                .andExpect(jsonPath("$.state").value("QUEUED"))
+                .andReturn();
+        String location = accepted.getResponse().getHeader(HttpHeaders.LOCATION);
+        String eventId = location.substring(location.lastIndexOf('/') + 1);
+
+        awaitCompleted(asyncEventService, eventId);
+        mockMvc.perform(get(location))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.eventId").value(eventId))
+                .andExpect(jsonPath("$.state").value("PROCESSED"))
+                .andExpect(jsonPath("$.rulesApplied").value(1));
+        assertEquals(5, personRepository.findById(PERSON_ID).orElseThrow().getTotalAccumulatedPoints());
+    }
+
+    @Test
+    void duplicateStatusCanBeReadAgain() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(eventApiController).build();
+        submit(mockMvc, EVENT, "async-duplicate").andExpect(status().isAccepted());
+
+        MvcResult duplicate = submit(mockMvc, EVENT, "async-duplicate")
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.state").value("DUPLICATE"))
+                .andReturn();
+
+        mockMvc.perform(get(duplicate.getResponse().getHeader(HttpHeaders.LOCATION)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("DUPLICATE"));
+    }
+
+    @Test
+    void fullQueueIsRejectedWithRetryAfter() throws Exception {
+        // One worker and room for one waiting event
+        AsyncEventService service = new AsyncEventService(ruleService, eventDeduplicator, 1, 1, 100, false);
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(
+                new EventApiController(eventBatchService, service, replayService, 7)).build();
+
+        // Holding the group's lock keeps the worker busy with the first event
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch unlock = new CountDownLatch(1);
+        Thread holder = Thread.ofPlatform().start(() -> groupLockManager.runLocked(LockScope.of(Set.of(GROUP_ID)),
+                () -> {
+                    locked.countDown();
+                    try {
+                        return unlock.await(30, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }));
+        try {
+            assertTrue(locked.await(10, TimeUnit.SECONDS));
+            submit(mockMvc, EVENT, "async-running").andExpect(status().isAccepted());
+            submit(mockMvc, EVENT, "async-waiting").andExpect(status().isAccepted());
+
+            submit(mockMvc, EVENT, "async-rejected")
+                    .andExpect(status().isTooManyRequests())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "7"));
+            assertEquals(1, service.getQueueDepth());
+        } finally {
+            unlock.countDown();
+            holder.join();
+        }
+
+        // The rejected event's key was released, so its retry is accepted once there is room
+        awaitQueueEmpty(service);
+        submit(mockMvc, EVENT, "async-rejected").andExpect(status().isAccepted());
+        service.shutdown();
+        assertEquals(15, personRepository.findById(PERSON_ID).orElseThrow().getTotalAccumulatedPoints());
+    }
+
+    @Test
+    void failedEventReleasesItsKey() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(eventApiController).build();
+        // The action type is too long for the event log, so the event fails when it is logged
+        String failing = "{\"actionType\":\"" + "x".repeat(300) + "\",\"participants\":{}}";
+
+        MvcResult accepted = submit(mockMvc, failing, "async-failing").andExpect(status().isAccepted()).andReturn();
+        String location = accepted.getResponse().getHeader(HttpHeaders.LOCATION);
+        awaitCompleted(asyncEventService, location.substring(location.lastIndexOf('/') + 1));
+        mockMvc.perform(get(location)).andExpect(jsonPath("$.state").value("FAILED"));
+
+        submit(mockMvc, failing, "async-failing").andExpect(status().isAccepted());
+    }
+
+    private static ResultActions submit(MockMvc mockMvc, String body, String idempotencyKey) throws Exception {
+        var request = post("/api/events").contentType(MediaType.APPLICATION_JSON).content(body);
+        if (idempotencyKey != null) {
+            request.header("Idempotency-Key", idempotencyKey);
+        }
+        return mockMvc.perform(request);
+    }
+
+    private static void awaitCompleted(AsyncEventService service, String eventId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (service.getStatus(eventId).map(EventStatus::completedAt).isEmpty()) {
+            assertTrue(System.nanoTime() < deadline, "event " + eventId + " was not processed in time");
+            Thread.sleep(10);
+        }
+    }
+
+    private static void awaitQueueEmpty(AsyncEventService service) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (service.getQueueDepth() > 0) {
+            assertTrue(System.nanoTime() < deadline, "queue was not drained in time");
+            Thread.sleep(10);
+        }
+    }
+}
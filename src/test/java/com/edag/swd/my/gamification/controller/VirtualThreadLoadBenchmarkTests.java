@@ -0,0 +1,177 @@
+package com.edag.swd.my.gamification.controller;
+
+import com.edag.swd.my.gamification.GamificationApplication;
+import com.edag.swd.my.gamification.SyntheticData;
+import com.edag.swd.my.gamification.config.ConnectionLimitingDataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the throughput and latency of the REST API with platform and with virtual request threads, under
+ * 2,000 concurrent clients. Each client sends 20 requests back to back: four reads of a page of group members
+ * for every synchronous event. Both modes start the application on a random port with their own in-memory
+ * database. Run with {@code mvn test -Dtest=VirtualThreadLoadBenchmarkTests -Dbenchmarks=true}; the load can be
+ * changed with {@code -Dbenchmark.load.clients=5000 -Dbenchmark.load.requests=50}. Every client holds its own
+ * connection, so the open file limit must allow twice as many sockets as clients.
+ */
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class VirtualThreadLoadBenchmarkTests {
+
+    private static final String PREFIX = "bench-load";
+    private static final int GROUPS = 100;
+    private static final int MEMBERS_PER_GROUP = 20;
+    private static final int WARMUP_REQUESTS = 500;
+
+    private final int clients = Integer.getInteger("benchmark.load.clients", 2_000);
+    private final int requestsPerClient = Integer.getInteger("benchmark.load.requests", 20);
+
+    @Test
+    void platformAndVirtualThreads() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        for (Result result : List.of(platform, virtual)) {
+            SyntheticData.report("%s threads, %d clients: %.0f requests/s, latency p50 %d ms, p99 %d ms, "
+                            + "max %d ms, %d errors, %d connection timeouts",
+                    result.mode, clients, result.requestsPerSecond(), result.percentile(50), result.percentile(99),
+                    result.percentile(100), result.errors, result.connectionTimeouts);
+        }
+        assertEquals((long) clients * requestsPerClient, platform.latencies.length);
+        assertEquals((long) clients * requestsPerClient, virtual.latencies.length);
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+        // Command line arguments take precedence over application.properties
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(GamificationApplication.class).run(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--spring.datasource.url=jdbc:h2:mem:" + PREFIX + "-" + mode + ";DB_CLOSE_DELAY=-1",
+                "--server.tomcat.max-connections=" + (clients + 1_000),
+                "--server.tomcat.accept-count=" + clients,
+                "--gamification.rules.watch=false",
+                "--gamification.audit.enabled=false")) {
+            new SyntheticData(context.getBean(JdbcTemplate.class), PREFIX).createGroups(GROUPS, MEMBERS_PER_GROUP);
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            ConnectionLimitingDataSource limiter = context.getBean(DataSource.class)
+                    .unwrap(ConnectionLimitingDataSource.class);
+
+            try (HttpClient http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build()) {
+                for (int i = 0; i < WARMUP_REQUESTS; i++) {
+                    send(http, port, i);
+                }
+                long timeoutsBefore = limiter.getTimeoutCount();
+                Result result = load(http, port, mode);
+                result.connectionTimeouts = limiter.getTimeoutCount() - timeoutsBefore;
+                return result;
+            }
+        }
+    }
+
+    private Result load(HttpClient http, int port, String mode) throws InterruptedException {
+        long[] latencies = new long[clients * requestsPerClient];
+        AtomicInteger errors = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        long elapsed;
+        // The clients run on virtual threads in both modes, so only the server side differs
+        try (ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                int client = c;
+                clientThreads.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int r = 0; r < requestsPerClient; r++) {
+                        int request = client * requestsPerClient + r;
+                        long begin = System.nanoTime();
+                        if (!send(http, port, request)) {
+                            errors.incrementAndGet();
+                        }
+                        latencies[request] = System.nanoTime() - begin;
+                    }
+                });
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            clientThreads.shutdown();
+            clientThreads.awaitTermination(1, TimeUnit.HOURS);
+            elapsed = System.nanoTime() - begin;
+        }
+        Arrays.sort(latencies);
+        return new Result(mode, latencies, elapsed, errors.get());
+    }
+
+    // Every fifth request processes an event synchronously, the others read a page of members
+    private static boolean send(HttpClient http, int port, int request) {
+        int group = request % GROUPS;
+        HttpRequest httpRequest;
+        if (request % 5 == 0) {
+            String personId = PREFIX + "-p" + (group * MEMBERS_PER_GROUP + request % MEMBERS_PER_GROUP);
+            String body = "[{\"actionType\":\"join_hackathon\",\"participants\":{\"individual\":\"" + personId + "\"}}]";
+            httpRequest = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/events/batch"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+        } else {
+            httpRequest = HttpRequest.newBuilder(URI.create(
+                    "http://localhost:" + port + "/api/groups/" + PREFIX + "-g" + group + "/members?limit=20")).build();
+        }
+        try {
+            return http.send(httpRequest, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            return false;
+        }
+    }
+
+    private static final class Result {
+        final String mode;
+        final long[] latencies;
+        final long elapsedNanos;
+        final int errors;
+        long connectionTimeouts;
+
+        Result(String mode, long[] latencies, long elapsedNanos, int errors) {
+            this.mode = mode;
+            this.latencies = latencies;
+            this.elapsedNanos = elapsedNanos;
+            this.errors = errors;
+        }
+
+        double requestsPerSecond() {
+            return latencies.length * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        long percentile(int percent) {
+            int index = Math.min(latencies.length - 1, (int) Math.ceil(latencies.length * percent / 100.0) - 1);
+            return latencies[Math.max(0, index)] / 1_000_000;
+        }
+    }
+}
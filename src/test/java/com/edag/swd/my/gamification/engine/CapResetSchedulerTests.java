@@ -0,0 +1,78 @@
+package com.edag.swd.my.gamification.engine;
+
+import com.edag.swd.my.gamification.entity.ActivityPoints;
+import com.edag.swd.my.gamification.entity.CapReset;
+import com.edag.swd.my.gamification.entity.Group;
+import com.edag.swd.my.gamification.repository.ActivityPointsRepository;
+import com.edag.swd.my.gamification.repository.CapResetRepository;
+import com.edag.swd.my.gamification.repository.GroupRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class CapResetSchedulerTests {
+
+    private static final String RULE = "SAP Hours";
+
+    @Autowired
+    private CapResetScheduler capResetScheduler;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private ActivityPointsRepository activityPointsRepository;
+
+    @Autowired
+    private CapResetRepository capResetRepository;
+
+    @AfterEach
+    void deleteGroups() {
+        groupRepository.deleteAllById(List.of("reset-group1", "reset-group2"));
+    }
+
+    @Test
+    void namedPeriodsResetAtTheStartOfTheirPeriod() {
+        ZonedDateTime wednesday = ZonedDateTime.of(2025, 1, 15, 13, 30, 0, 0, ZoneId.of("UTC"));
+
+        assertEquals(wednesday.plusDays(1).truncatedTo(ChronoUnit.DAYS),
+                CapResetScheduler.toCronExpression("daily").next(wednesday));
+        assertEquals(ZonedDateTime.of(2025, 1, 20, 0, 0, 0, 0, ZoneId.of("UTC")),
+                CapResetScheduler.toCronExpression("Weekly").next(wednesday));
+        assertEquals(ZonedDateTime.of(2025, 2, 1, 0, 0, 0, 0, ZoneId.of("UTC")),
+                CapResetScheduler.toCronExpression("monthly").next(wednesday));
+        assertThrows(IllegalArgumentException.class, () -> CapResetScheduler.toCronExpression("fortnightly"));
+    }
+
+    @Test
+    void missedResetIsCaughtUpOnRefresh() {
+        Group group1 = groupRepository.save(new Group("reset-group1", "Reset Group 1"));
+        Group group2 = groupRepository.save(new Group("reset-group2", "Reset Group 2"));
+        activityPointsRepository.save(new ActivityPoints(RULE, 2, group1));
+        activityPointsRepository.save(new ActivityPoints(RULE, 1, group2));
+        activityPointsRepository.save(new ActivityPoints("Goblin techies", 40, group1));
+
+        // Pretend the last reset happened before the previous week started
+        capResetRepository.save(new CapReset(RULE, Instant.now().minus(8, ChronoUnit.DAYS)));
+        capResetScheduler.refresh();
+
+        assertTrue(activityPointsRepository.findByGroupIdAndRuleName("reset-group1", RULE).isEmpty());
+        assertTrue(activityPointsRepository.findByGroupIdAndRuleName("reset-group2", RULE).isEmpty());
+        assertEquals(40, activityPointsRepository.findByGroupIdAndRuleName("reset-group1", "Goblin techies")
+                .orElseThrow().getPoints());
+
+        Instant lastReset = capResetRepository.findById(RULE).orElseThrow().getLastResetAt();
+        assertTrue(lastReset.isAfter(Instant.now().minus(7, ChronoUnit.DAYS)), "last reset " + lastReset);
+        assertFalse(lastReset.isAfter(Instant.now()), "last reset " + lastReset);
+    }
+}
@@ -0,0 +1,76 @@
+package com.edag.swd.my.gamification.engine;
+
+import com.edag.swd.my.gamification.SyntheticData;
+import com.edag.swd.my.gamification.service.RuleService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Map;
+
+/**
+ * Measures how fast a single event that records a large number of contributions is written.
+ * Run with {@code mvn test -Dtest=ContributionInsertBenchmarkTests -Dbenchmarks=true}.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class ContributionInsertBenchmarkTests {
+
+    private static final int GROUPS = 500;
+    private static final int MEMBERS_PER_GROUP = 20;
+
+    @Autowired
+    private RuleService ruleService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void tenThousandContributionEvent() {
+        // Warm up on a smaller data set first, then measure an event awarding 10k persons
+        measure("bench-warmup", 50);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        long rows = 0;
+        long nanos = 0;
+        for (int run = 0; run < 3; run++) {
+            long[] result = measure("bench-run" + run, GROUPS);
+            rows += result[0];
+            nanos += result[1];
+        }
+        SyntheticData.report("%d rows in %d ms, %.0f rows/s, %d JDBC statements",
+                rows, nanos / 1_000_000, rows * 1_000_000_000.0 / nanos, statistics.getPrepareStatementCount());
+    }
+
+    private long[] measure(String prefix, int groups) {
+        SyntheticData data = new SyntheticData(jdbcTemplate, prefix);
+        data.createGroups(groups, MEMBERS_PER_GROUP);
+        try {
+            long rowsBefore = countRows();
+            long start = System.nanoTime();
+            // "SAP Hours" awards every non-penalized member of every group
+            ruleService.processEvent("did_not_key_in_sap_hour", Map.of("offender", data.personId(0)));
+            long elapsed = System.nanoTime() - start;
+            return new long[]{countRows() - rowsBefore, elapsed};
+        } finally {
+            data.deleteAll();
+        }
+    }
+
+    private long countRows() {
+        return jdbcTemplate.queryForObject("SELECT (SELECT COUNT(*) FROM point_history) + " +
+                "(SELECT COUNT(*) FROM group_point_history) + (SELECT COUNT(*) FROM activity_points)", Long.class);
+    }
+}
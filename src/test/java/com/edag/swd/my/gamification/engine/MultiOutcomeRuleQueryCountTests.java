@@ -0,0 +1,77 @@
+package com.edag.swd.my.gamification.engine;
+
+import com.edag.swd.my.gamification.entity.Group;
+import com.edag.swd.my.gamification.entity.Person;
+import com.edag.swd.my.gamification.repository.GroupRepository;
+import com.edag.swd.my.gamification.repository.PersonRepository;
+import com.edag.swd.my.gamification.service.RuleService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class MultiOutcomeRuleQueryCountTests {
+
+    @Autowired
+    private RuleService ruleService;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<String> groupIds = new ArrayList<>();
+
+    @AfterEach
+    void deleteGroups() {
+        groupRepository.deleteAllById(groupIds);
+    }
+
+    @Test
+    void selectCountDoesNotDependOnGroupCount() {
+        createGroups(5);
+        long fewGroups = selectsForMultiOutcomeEvent();
+
+        createGroups(50);
+        long manyGroups = selectsForMultiOutcomeEvent();
+
+        assertEquals(fewGroups, manyGroups);
+    }
+
+    private long selectsForMultiOutcomeEvent() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // "SAP Hours" has both a penalty and an award outcome and a cap
+        ruleService.processEvent("did_not_key_in_sap_hour", Map.of("offender", groupIds.getFirst() + "-member0"));
+
+        return statistics.getQueryExecutionCount()
+                + statistics.getEntityFetchCount()
+                + statistics.getCollectionFetchCount();
+    }
+
+    private void createGroups(int count) {
+        int offset = groupIds.size();
+        for (int g = offset; g < offset + count; g++) {
+            Group group = groupRepository.save(new Group("query-count-group" + g, "Query Count Group " + g));
+            groupIds.add(group.getId());
+            for (int m = 0; m < 3; m++) {
+                personRepository.save(new Person(group.getId() + "-member" + m, "Member " + m, group));
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.edag.swd.my.gamification.engine;
+
+import com.edag.swd.my.gamification.config.RuleConfig;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RuleCatalogTests {
+
+    private RuleIndex index;
+
+    @BeforeEach
+    void loadRules() throws Exception {
+        try (InputStream rules = getClass().getResourceAsStream("/rules.json")) {
+            List<RuleConfig> ruleList = new ObjectMapper().readValue(rules, new TypeReference<>() {
+            });
+            index = RuleIndex.EMPTY.withRules(ruleList);
+        }
+    }
+
+    @Test
+    void rulesAreFoundBySlugAndActionType() {
+        RuleCatalog catalog = new RuleCatalog(index);
+
+        assertEquals(index.getVersion(), catalog.getVersion());
+        assertEquals("join-hackathon", catalog.getSlugs().get("Join Hackathon"));
+        assertEquals("Join Hackathon", catalog.findBySlug("join-hackathon").orElseThrow().getRuleName());
+        assertEquals("Join Hackathon", catalog.findByActionType("join_hackathon").orElseThrow().getRuleName());
+        assertEquals("SAP Hours", catalog.findByActionType("did_not_key_in_sap_hour").orElseThrow().getRuleName());
+        assertTrue(catalog.findBySlug("Join Hackathon").isEmpty());
+        assertTrue(catalog.findByActionType("JOIN_HACKATHON").isEmpty());
+    }
+
+    @Test
+    void newRuleSetsGetTheirOwnCatalog() {
+        RuleConfig renamed = new ObjectMapper().convertValue(index.getRules().get("Join Hackathon"), RuleConfig.class);
+        renamed.setRuleName("Join Hackathon Finals");
+        RuleCatalog catalog = new RuleCatalog(index.withRules(List.of(renamed)));
+
+        assertEquals(index.getVersion() + 1, catalog.getVersion());
+        assertTrue(catalog.findBySlug("join-hackathon-finals").isPresent());
+        // The first rule with a condition on an action type wins, as a scan in rule order would
+        assertEquals("Join Hackathon", catalog.findByActionType("join_hackathon").orElseThrow().getRuleName());
+    }
+}
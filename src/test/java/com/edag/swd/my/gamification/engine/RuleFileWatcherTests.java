@@ -0,0 +1,113 @@
+package com.edag.swd.my.gamification.engine;
+
+import com.edag.swd.my.gamification.config.RuleConfig;
+import com.edag.swd.my.gamification.service.RuleService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "gamification.rules.file=target/rule-file-watcher-tests/rules.json")
+class RuleFileWatcherTests {
+
+    @Autowired
+    private RuleFileWatcher ruleFileWatcher;
+
+    @Autowired
+    private RuleService ruleService;
+
+    private List<RuleConfig> originalRules;
+
+    @BeforeEach
+    void rememberRules() {
+        originalRules = List.copyOf(ruleService.getRules().values());
+    }
+
+    @AfterEach
+    void restoreRules() throws Exception {
+        ruleFileWatcher.save(originalRules);
+    }
+
+    @Test
+    void changedFileIsPublishedAsNewVersion() throws Exception {
+        RuleIndex before = ruleService.getRuleIndex();
+        String json = Files.readString(ruleFileWatcher.getRulesFile());
+        // "Join Hackathon" is the only rule awarding 5 points
+        Files.writeString(ruleFileWatcher.getRulesFile(), json.replaceAll("(\"points\"\\s*:\\s*)5\\b", "$16"));
+
+        awaitUntil(() -> ruleService.getRuleIndex().getVersion() > before.getVersion());
+
+        assertEquals(6, ruleService.getRules().get("Join Hackathon").getOutcomes().getFirst().getPoints());
+        // Snapshots taken before the change are unaffected
+        assertEquals(5, before.getRules().get("Join Hackathon").getOutcomes().getFirst().getPoints());
+        assertEquals(5, before.match("join_hackathon").getFirst().config().getOutcomes().getFirst().getPoints());
+    }
+
+    @Test
+    void invalidFileIsRejected() throws Exception {
+        RuleIndex before = ruleService.getRuleIndex();
+        Files.writeString(ruleFileWatcher.getRulesFile(), "[{\"ruleName\": ");
+
+        assertFalse(ruleFileWatcher.reload());
+        assertSame(before, ruleService.getRuleIndex());
+    }
+
+    @Test
+    void fileWithNullEntriesIsRejectedAndWatchingContinues() throws Exception {
+        RuleIndex before = ruleService.getRuleIndex();
+        String json = Files.readString(ruleFileWatcher.getRulesFile());
+
+        // Picked up by the watcher as well, which must survive it
+        Files.writeString(ruleFileWatcher.getRulesFile(), "[null]");
+        assertFalse(ruleFileWatcher.reload());
+        Files.writeString(ruleFileWatcher.getRulesFile(), json.replaceFirst("\"conditions\"\\s*:\\s*\\[", "$0null, "));
+        assertFalse(ruleFileWatcher.reload());
+        assertSame(before, ruleService.getRuleIndex());
+
+        // "Join Hackathon" is the only rule awarding 5 points
+        Files.writeString(ruleFileWatcher.getRulesFile(), json.replaceAll("(\"points\"\\s*:\\s*)5\\b", "$16"));
+        awaitUntil(() -> ruleService.getRuleIndex().getVersion() > before.getVersion());
+        assertEquals(6, ruleService.getRules().get("Join Hackathon").getOutcomes().getFirst().getPoints());
+    }
+
+    @Test
+    void nullConditionsAndOutcomesAreInvalid() {
+        RuleConfig rule = ruleService.getRules().get("Join Hackathon");
+        RuleConfig withNullCondition = copyOf(rule);
+        withNullCondition.getConditions().add(null);
+        RuleConfig withNullOutcome = copyOf(rule);
+        withNullOutcome.getOutcomes().add(null);
+
+        assertTrue(RuleValidator.isValid(copyOf(rule)));
+        assertFalse(RuleValidator.isValid(null));
+        assertFalse(RuleValidator.isValid(withNullCondition));
+        assertFalse(RuleValidator.isValid(withNullOutcome));
+    }
+
+    private static RuleConfig copyOf(RuleConfig rule) {
+        RuleConfig copy = new RuleConfig();
+        copy.setRuleName(rule.getRuleName());
+        copy.setDescription(rule.getDescription());
+        copy.setActive(rule.isActive());
+        copy.setConditions(new ArrayList<>(rule.getConditions()));
+        copy.setOutcomes(new ArrayList<>(rule.getOutcomes()));
+        copy.setCap(rule.getCap());
+        return copy;
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting for the rules to be reloaded");
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.edag.swd.my.gamification.engine;
+
+import com.edag.swd.my.gamification.config.ConditionConfig;
+import com.edag.swd.my.gamification.config.OutcomeConfig;
+import com.edag.swd.my.gamification.config.RuleConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RuleIndexTests {
+
+    @Test
+    void actionTypesMatchCaseInsensitively() {
+        RuleIndex index = RuleIndex.EMPTY.withRules(List.of(rule("Hackathon", condition("action", "Join_Hackathon"))));
+
+        assertEquals(List.of("Hackathon"), names(index.match("join_hackathon")));
+        assertEquals(List.of("Hackathon"), names(index.match("JOIN_HACKATHON")));
+    }
+
+    @Test
+    void rulesWithoutConditionsMatchEveryActionType() {
+        RuleConfig always = rule("Always");
+        always.setConditions(null);
+        RuleIndex index = RuleIndex.EMPTY.withRules(List.of(
+                rule("Hackathon", condition("action", "join_hackathon")),
+                rule("Forum", condition("action", "forum_participation")),
+                always,
+                rule("Empty")));
+
+        assertEquals(List.of("Hackathon", "Always", "Empty"), names(index.match("join_hackathon")));
+        assertEquals(List.of("Forum", "Always", "Empty"), names(index.match("forum_participation")));
+        assertEquals(List.of("Always", "Empty"), names(index.match("unknown_action")));
+    }
+
+    @Test
+    void inactiveRulesAreSkipped() {
+        RuleConfig inactive = rule("Inactive", condition("action", "join_hackathon"));
+        inactive.setActive(false);
+        RuleIndex index = RuleIndex.EMPTY.withRules(List.of(
+                inactive, rule("Active", condition("action", "join_hackathon"))));
+
+        assertEquals(List.of("Active"), names(index.match("join_hackathon")));
+        // Inactive rules are still part of the rule set
+        assertTrue(index.getRules().containsKey("Inactive"));
+    }
+
+    @Test
+    void rulesWithConflictingOrOtherConditionsNeverMatch() {
+        RuleIndex index = RuleIndex.EMPTY.withRules(List.of(
+                rule("Conflicting", condition("action", "join_hackathon"), condition("action", "forum_participation")),
+                rule("Other", condition("action", "join_hackathon"), condition("role", "individual")),
+                rule("Repeated", condition("action", "join_hackathon"), condition("ACTION", "JOIN_HACKATHON"))));
+
+        assertEquals(List.of("Repeated"), names(index.match("join_hackathon")));
+        assertEquals(List.of(), names(index.match("forum_participation")));
+        assertEquals(List.of(), names(index.match("role")));
+    }
+
+    @Test
+    void everyNewIndexHasAHigherVersion() {
+        assertEquals(0, RuleIndex.EMPTY.getVersion());
+
+        RuleIndex added = RuleIndex.EMPTY.withRules(List.of(rule("First", condition("action", "join_hackathon"))));
+        RuleIndex extended = added.withRules(List.of(rule("Second", condition("action", "forum_participation"))));
+        RuleIndex replaced = extended.replacedBy(List.of(rule("Third", condition("action", "mr_sauron"))));
+
+        assertEquals(1, added.getVersion());
+        assertEquals(2, extended.getVersion());
+        assertEquals(List.of("First", "Second"), List.copyOf(extended.getRules().keySet()));
+        assertEquals(3, replaced.getVersion());
+        assertEquals(List.of("Third"), List.copyOf(replaced.getRules().keySet()));
+        assertEquals(List.of(), names(replaced.match("join_hackathon")));
+        // Indexes are immutable; the index that was replaced still matches its own rules
+        assertEquals(List.of("First"), names(extended.match("join_hackathon")));
+    }
+
+    private static List<String> names(List<CompiledRule> rules) {
+        List<String> names = new ArrayList<>();
+        rules.forEach(rule -> names.add(rule.config().getRuleName()));
+        return names;
+    }
+
+    private static RuleConfig rule(String ruleName, ConditionConfig... conditions) {
+        OutcomeConfig outcome = new OutcomeConfig();
+        outcome.setType("award");
+        outcome.setTarget("individual");
+        outcome.setPoints(1);
+
+        RuleConfig rule = new RuleConfig();
+        rule.setRuleName(ruleName);
+        rule.setActive(true);
+        rule.setConditions(List.of(conditions));
+        rule.setOutcomes(List.of(outcome));
+        return rule;
+    }
+
+    private static ConditionConfig condition(String type, String value) {
+        ConditionConfig condition = new ConditionConfig();
+        condition.setType(type);
+        condition.setValue(value);
+        return condition;
+    }
+}
@@ -0,0 +1,108 @@
+package com.edag.swd.my.gamification.engine;
+
+import com.edag.swd.my.gamification.config.RuleConfig;
+import com.edag.swd.my.gamification.eventlog.LoggedEvent;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ScoreEvaluatorTests {
+
+    private static final ZoneId UTC = ZoneId.of("UTC");
+
+    private ScoreEvaluator evaluator;
+
+    private final List<Membership> memberships = List.of(
+            new Membership("a", "g1"), new Membership("b", "g1"), new Membership("c", "g1"),
+            new Membership("d", "g2"), new Membership("e", "g2"));
+
+    @BeforeEach
+    void loadRules() throws Exception {
+        try (InputStream rules = getClass().getResourceAsStream("/rules.json")) {
+            List<RuleConfig> ruleList = new ObjectMapper().readValue(rules, new TypeReference<>() {
+            });
+            evaluator = new ScoreEvaluator(RuleIndex.EMPTY.withRules(ruleList), UTC);
+        }
+    }
+
+    @Test
+    void cappedAwardsResetAtPeriodBoundaries() {
+        Scoreboard scoreboard = new Scoreboard(List.of("g1", "g2"), memberships);
+        List<String> groupHistory = new ArrayList<>();
+        ScoreSink sink = new ScoreSink() {
+            @Override
+            public void personPoints(String personId, int points, String reason, String ruleName, Instant timestamp) {
+            }
+
+            @Override
+            public void groupPoints(String groupId, int points, String reason, String ruleName, Instant timestamp) {
+                groupHistory.add(groupId + points);
+            }
+        };
+
+        // "SAP Hours" caps the compliant awards of each group at 2 points per week
+        for (LoggedEvent event : sapHoursEvents()) {
+            evaluator.apply(event, scoreboard, sink);
+        }
+
+        GroupTally g1 = scoreboard.getGroup("g1");
+        assertEquals(-6, g1.getMemberPoints("a"));
+        assertEquals(2, g1.getMemberPoints("b"));
+        assertEquals(2, g1.getMemberPoints("c"));
+        assertEquals(-2, g1.getPoints());
+        assertEquals(4, scoreboard.getGroup("g2").getPoints());
+        assertEquals(List.of("g1-2", "g12", "g22", "g1-2", "g1-2", "g12", "g22"), groupHistory);
+
+        assertEquals(Map.of("SAP Hours", 2), g1.getActivityPoints(Instant.parse("2025-03-16T23:59:59Z")));
+        assertEquals(Map.of(), g1.getActivityPoints(Instant.parse("2025-03-17T00:00:00Z")));
+    }
+
+    @Test
+    void groupsEvaluatedIndependentlyMatchSequentialEvaluation() {
+        List<LoggedEvent> events = new ArrayList<>(sapHoursEvents());
+        events.add(event(10, "join_hackathon", Map.of("individual", "d"), "2025-03-11T10:00:00Z"));
+        events.add(event(11, "mr_sauron", Map.of("individual", "b"), "2025-03-11T11:00:00Z"));
+        events.add(event(12, "unknown_action", Map.of("individual", "b"), "2025-03-11T12:00:00Z"));
+
+        Scoreboard sequential = new Scoreboard(List.of("g1", "g2"), memberships);
+        events.forEach(event -> evaluator.apply(event, sequential, ScoreSink.NONE));
+
+        Scoreboard perGroup = new Scoreboard(List.of("g1", "g2"), memberships);
+        for (GroupTally group : perGroup.getGroups()) {
+            events.forEach(event -> evaluator.apply(event, perGroup, group, ScoreSink.NONE));
+        }
+
+        for (GroupTally group : sequential.getGroups()) {
+            GroupTally other = perGroup.getGroup(group.getGroupId());
+            assertEquals(group.getPoints(), other.getPoints());
+            for (String personId : group.getMemberIds()) {
+                assertEquals(group.getMemberPoints(personId), other.getMemberPoints(personId));
+            }
+        }
+        assertEquals(-498, sequential.getGroup("g1").getMemberPoints("b"));
+        assertEquals(9, sequential.getGroup("g2").getPoints());
+    }
+
+    // Two events in the week of 3 March 2025 and one on the following Monday
+    private static List<LoggedEvent> sapHoursEvents() {
+        return List.of(
+                event(1, "did_not_key_in_sap_hour", Map.of("offender", "a"), "2025-03-05T09:00:00Z"),
+                event(2, "did_not_key_in_sap_hour", Map.of("offender", "a"), "2025-03-07T09:00:00Z"),
+                event(3, "did_not_key_in_sap_hour", Map.of("offender", "a"), "2025-03-10T09:00:00Z"));
+    }
+
+    private static LoggedEvent event(long sequence, String actionType, Map<String, String> participants,
+                                     String timestamp) {
+        return new LoggedEvent(sequence, "event-" + sequence, actionType, participants, Instant.parse(timestamp));
+    }
+}
@@ -0,0 +1,154 @@
+package com.edag.swd.my.gamification.eventlog;
+
+import com.edag.swd.my.gamification.entity.Group;
+import com.edag.swd.my.gamification.entity.Person;
+import com.edag.swd.my.gamification.models.BatchResult;
+import com.edag.swd.my.gamification.models.EventRequest;
+import com.edag.swd.my.gamification.models.EventResult;
+import com.edag.swd.my.gamification.repository.GroupRepository;
+import com.edag.swd.my.gamification.repository.PersonRepository;
+import com.edag.swd.my.gamification.service.EventBatchService;
+import com.edag.swd.my.gamification.service.RuleService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class EventDeduplicatorTests {
+
+    private static final String GROUP_ID = "dedup-group";
+    private static final String PERSON_ID = "dedup-member";
+
+    @Autowired
+    private EventBatchService eventBatchService;
+
+    @Autowired
+    private RuleService ruleService;
+
+    @Autowired
+    private EventDeduplicator eventDeduplicator;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void createGroup() {
+        Group group = groupRepository.save(new Group(GROUP_ID, "Dedup Group"));
+        personRepository.save(new Person(PERSON_ID, "Dedup Member", group));
+    }
+
+    @AfterEach
+    void deleteGroup() {
+        groupRepository.deleteById(GROUP_ID);
+    }
+
+    @Test
+    void retriedBatchEventsAreAppliedOnce() {
+        Map<String, String> participants = Map.of("individual", PERSON_ID);
+        long duplicatesBefore = eventDeduplicator.getDuplicateCount();
+
+        BatchResult first = eventBatchService.processBatch(List.of(
+                new EventRequest("join_hackathon", participants, "dedup-batch-1"),
+                new EventRequest("join_hackathon", participants, "dedup-batch-1"),
+                new EventRequest("join_hackathon", participants)));
+        BatchResult retry = eventBatchService.processBatch(List.of(
+                new EventRequest("join_hackathon", participants, "dedup-batch-1")));
+
+        assertEquals(List.of(EventResult.Status.PROCESSED, EventResult.Status.DUPLICATE, EventResult.Status.PROCESSED),
+                first.results().stream().map(EventResult::status).toList());
+        assertEquals(0, first.failed());
+        assertEquals(EventResult.Status.DUPLICATE, retry.results().getFirst().status());
+        assertEquals(2, eventDeduplicator.getDuplicateCount() - duplicatesBefore);
+        // "Join Hackathon" awards 5 points per event
+        assertEquals(10, personRepository.findById(PERSON_ID).orElseThrow().getTotalAccumulatedPoints());
+    }
+
+    @Test
+    void blankBatchKeysAreInvalid() {
+        Map<String, String> participants = Map.of("individual", PERSON_ID);
+
+        BatchResult result = eventBatchService.processBatch(List.of(
+                new EventRequest("join_hackathon", participants, ""),
+                new EventRequest("join_hackathon", participants, " ")));
+
+        assertEquals(List.of(EventResult.Status.INVALID, EventResult.Status.INVALID),
+                result.results().stream().map(EventResult::status).toList());
+        assertEquals(0, personRepository.findById(PERSON_ID).orElseThrow().getTotalAccumulatedPoints());
+    }
+
+    @Test
+    void retryAfterTheWindowIsRejectedByTheEventLog() {
+        Map<String, String> participants = Map.of("individual", PERSON_ID);
+        assertTrue(ruleService.processUniqueEvent("dedup-expired", "join_hackathon", participants).isPresent());
+        // As if the key had left the window
+        eventDeduplicator.release("dedup-expired");
+        long duplicatesBefore = eventDeduplicator.getDuplicateCount();
+
+        assertTrue(ruleService.processUniqueEvent("dedup-expired", "join_hackathon", participants).isEmpty());
+        BatchResult retry = eventBatchService.processBatch(List.of(
+                new EventRequest("join_hackathon", participants, "dedup-expired")));
+
+        assertEquals(EventResult.Status.DUPLICATE, retry.results().getFirst().status());
+        assertEquals(2, eventDeduplicator.getDuplicateCount() - duplicatesBefore);
+        assertEquals(5, personRepository.findById(PERSON_ID).orElseThrow().getTotalAccumulatedPoints());
+    }
+
+    @Test
+    void batchRetryAfterTheWindowIsRejectedByTheEventLog() {
+        Map<String, String> participants = Map.of("individual", PERSON_ID);
+        assertTrue(ruleService.processUniqueEvent("dedup-expired-batch", "join_hackathon", participants).isPresent());
+        eventDeduplicator.release("dedup-expired-batch");
+
+        BatchResult retry = eventBatchService.processBatch(List.of(
+                new EventRequest("join_hackathon", participants, "dedup-expired-batch"),
+                new EventRequest("join_hackathon", participants)));
+
+        assertEquals(List.of(EventResult.Status.DUPLICATE, EventResult.Status.PROCESSED),
+                retry.results().stream().map(EventResult::status).toList());
+        assertEquals(10, personRepository.findById(PERSON_ID).orElseThrow().getTotalAccumulatedPoints());
+    }
+
+    @Test
+    void rolledBackEventReleasesItsKey() {
+        Map<String, String> participants = Map.of("individual", PERSON_ID);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            assertTrue(ruleService.processUniqueEvent("dedup-rollback", "join_hackathon", participants).isPresent());
+            status.setRollbackOnly();
+        });
+
+        assertTrue(ruleService.processUniqueEvent("dedup-rollback", "join_hackathon", participants).isPresent());
+        assertTrue(ruleService.processUniqueEvent("dedup-rollback", "join_hackathon", participants).isEmpty());
+    }
+
+    @Test
+    void keysLeaveTheWindowWhenExpiredOrOverCapacity() {
+        EventDeduplicator expiring = new EventDeduplicator(null, Duration.ZERO, 10);
+        assertTrue(expiring.claim("a"));
+        assertTrue(expiring.claim("a"));
+
+        EventDeduplicator bounded = new EventDeduplicator(null, Duration.ofHours(1), 2);
+        assertTrue(bounded.claim("a"));
+        assertTrue(bounded.claim("b"));
+        assertFalse(bounded.claim("b"));
+        assertTrue(bounded.claim("c"));
+        assertEquals(2, bounded.getWindowSize());
+        assertTrue(bounded.claim("a"));
+        assertFalse(bounded.claim("c"));
+    }
+}
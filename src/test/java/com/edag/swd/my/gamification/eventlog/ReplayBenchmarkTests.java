@@ -0,0 +1,62 @@
+package com.edag.swd.my.gamification.eventlog;
+
+import com.edag.swd.my.gamification.SyntheticData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Measures replaying a large synthetic event log.
+ * Run with {@code mvn test -Dtest=ReplayBenchmarkTests -Dbenchmarks=true}; the number of events defaults to
+ * 1 million and can be changed with {@code -Dbenchmark.replay.events=100000}.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class ReplayBenchmarkTests {
+
+    private static final String PREFIX = "bench-replay";
+    private static final int GROUPS = 50;
+    private static final int MEMBERS_PER_GROUP = 20;
+
+    private final long events = Long.getLong("benchmark.replay.events", 1_000_000L);
+
+    @Autowired
+    private ReplayService replayService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private SyntheticData data;
+
+    @BeforeEach
+    void createEventLog() {
+        data = new SyntheticData(jdbcTemplate, PREFIX);
+        data.createGroups(GROUPS, MEMBERS_PER_GROUP);
+
+        // Replay only the synthetic events; one in ten is a capped multi-outcome "SAP Hours" event
+        long millis = data.logEvents(events, GROUPS * MEMBERS_PER_GROUP, 10);
+        SyntheticData.report("logged %d events in %d ms", events, millis);
+    }
+
+    @AfterEach
+    void deleteEventLog() {
+        jdbcTemplate.update("DELETE FROM event_log");
+        data.deleteAll();
+    }
+
+    @Test
+    void replayEventLog() {
+        ReplayResult result = replayService.replay();
+
+        assertEquals(events, result.events());
+        SyntheticData.report("replayed %d events in %d ms, %.0f events/s, %d person and %d group " +
+                        "history entries", result.events(), result.durationMillis(), result.eventsPerSecond(),
+                result.personHistoryEntries(), result.groupHistoryEntries());
+    }
+}
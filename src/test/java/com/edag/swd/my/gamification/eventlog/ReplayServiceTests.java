@@ -0,0 +1,115 @@
+package com.edag.swd.my.gamification.eventlog;
+
+import com.edag.swd.my.gamification.entity.Group;
+import com.edag.swd.my.gamification.entity.Person;
+import com.edag.swd.my.gamification.leaderboard.LeaderboardService;
+import com.edag.swd.my.gamification.repository.GroupRepository;
+import com.edag.swd.my.gamification.repository.PersonRepository;
+import com.edag.swd.my.gamification.service.RuleService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class ReplayServiceTests {
+
+    private static final List<String> GROUP_IDS = List.of("replay-group0", "replay-group1");
+
+    @Autowired
+    private ReplayService replayService;
+
+    @Autowired
+    private RuleService ruleService;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void createGroups() {
+        // Replay only the events of this test
+        jdbcTemplate.update("DELETE FROM event_log");
+        for (String groupId : GROUP_IDS) {
+            Group group = groupRepository.save(new Group(groupId, "Replay Group"));
+            for (int m = 0; m < 3; m++) {
+                personRepository.save(new Person(groupId + "-member" + m, "Replay Member", group));
+            }
+        }
+    }
+
+    @AfterEach
+    void deleteGroups() {
+        groupRepository.deleteAllById(GROUP_IDS);
+    }
+
+    @Test
+    void replayReproducesProcessedScores() {
+        String first = "replay-group0-member0";
+        String second = "replay-group1-member1";
+        ruleService.processEvent("join_hackathon", Map.of("individual", first));
+        ruleService.processEvent("did_not_key_in_sap_hour", Map.of("offender", first));
+        ruleService.processEvent("did_not_key_in_sap_hour", Map.of("offender", second));
+        ruleService.processEvent("goblin_techies_rule", Map.of("participant", second));
+        ruleService.processEvent("mr_sauron", Map.of("individual", second));
+        ruleService.processEvent("forum_participation", Map.of("individual", "replay-group1-member2"));
+        ruleService.processEvent("not_a_rule", Map.of("individual", first));
+
+        // Events that are rolled back never reach the log
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            ruleService.processEvent("win_team_game", Map.of("individual", first));
+            status.setRollbackOnly();
+        });
+
+        Map<String, List<Object>> processed = scores();
+
+        ReplayResult result = replayService.replay();
+
+        assertEquals(7, result.events());
+        assertEquals(processed, scores());
+        assertEquals(groupRepository.findById("replay-group1").orElseThrow().getTotalGroupPoints(),
+                leaderboardService.getGroups().get("replay-group1").orElseThrow().points());
+    }
+
+    // Totals, history sums and capped points of the test's groups and members
+    private Map<String, List<Object>> scores() {
+        Map<String, List<Object>> scores = new TreeMap<>();
+        for (String groupId : GROUP_IDS) {
+            scores.put(groupId, List.of(
+                    jdbcTemplate.queryForObject("SELECT total_group_points FROM \"groups\" WHERE id = ?",
+                            Integer.class, groupId),
+                    jdbcTemplate.queryForList("SELECT points_changed FROM group_point_history WHERE group_id = ? " +
+                            "ORDER BY points_changed", Integer.class, groupId),
+                    jdbcTemplate.queryForList("SELECT rule_name || '=' || points FROM activity_points " +
+                            "WHERE group_id = ? ORDER BY rule_name", String.class, groupId)));
+            for (int m = 0; m < 3; m++) {
+                String personId = groupId + "-member" + m;
+                scores.put(personId, List.of(
+                        jdbcTemplate.queryForObject("SELECT total_accumulated_points FROM persons WHERE id = ?",
+                                Integer.class, personId),
+                        jdbcTemplate.queryForList("SELECT points_value FROM point_history WHERE person_id = ? " +
+                                "ORDER BY points_value", Integer.class, personId)));
+            }
+        }
+        return scores;
+    }
+}
@@ -0,0 +1,119 @@
+package com.edag.swd.my.gamification.history;
+
+import com.edag.swd.my.gamification.service.PersonService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class HistoryPaginationTests {
+
+    private static final String GROUP_ID = "history-group";
+    private static final String PERSON_ID = "history-person";
+    private static final Instant START = Instant.parse("2020-01-01T00:00:00Z");
+    private static final int TIMESTAMPS = 50;
+    private static final int ENTRIES_PER_TIMESTAMP = 5;
+    private static final int ENTRIES = TIMESTAMPS * ENTRIES_PER_TIMESTAMP;
+
+    @Autowired
+    private PersonService personService;
+
+    @Autowired
+    private HistoryExporter historyExporter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void createHistory() {
+        jdbcTemplate.update("INSERT INTO \"groups\" (id, name, total_group_points, version) VALUES (?, 'History Group', 0, 0)",
+                GROUP_ID);
+        jdbcTemplate.update("INSERT INTO persons (id, name, group_id, total_accumulated_points) VALUES (?, 'History Person', ?, 0)",
+                PERSON_ID, GROUP_ID);
+
+        // Several entries share each timestamp, so pages must also be split between entries with equal timestamps
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < ENTRIES; i++) {
+            Instant timestamp = START.plus(i / ENTRIES_PER_TIMESTAMP, ChronoUnit.DAYS);
+            rows.add(new Object[]{-1000L - i, i, "Reason, \"quoted\" " + i, "History Rule", Timestamp.from(timestamp), PERSON_ID});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO point_history (id, points_value, reason, rule_name, timestamp, person_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    @AfterEach
+    void deleteHistory() {
+        jdbcTemplate.update("DELETE FROM point_history WHERE person_id = ?", PERSON_ID);
+        jdbcTemplate.update("DELETE FROM persons WHERE id = ?", PERSON_ID);
+        jdbcTemplate.update("DELETE FROM \"groups\" WHERE id = ?", GROUP_ID);
+    }
+
+    @Test
+    void pagesCoverHistoryExactlyOnceNewestFirst() {
+        List<HistoryEntry> entries = new ArrayList<>();
+        HistoryCursor cursor = null;
+        int pages = 0;
+        do {
+            HistoryPage page = personService.getPersonPointHistory(PERSON_ID, cursor, 40);
+            entries.addAll(page.entries());
+            cursor = page.nextCursor() != null ? HistoryCursor.decode(page.nextCursor()) : null;
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(7, pages);
+        assertEquals(ENTRIES, entries.size());
+        assertEquals(ENTRIES, new HashSet<>(entries.stream().map(HistoryEntry::id).toList()).size());
+        Comparator<HistoryEntry> newestFirst = Comparator.comparing(HistoryEntry::timestamp)
+                .thenComparingLong(HistoryEntry::id).reversed();
+        List<HistoryEntry> sorted = new ArrayList<>(entries);
+        sorted.sort(newestFirst);
+        assertEquals(sorted, entries);
+    }
+
+    @Test
+    void lastFullPageHasNoNextCursor() {
+        HistoryPage page = personService.getPersonPointHistory(PERSON_ID, null, ENTRIES);
+        assertEquals(ENTRIES, page.entries().size());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void cursorRoundTripsAndRejectsGarbage() {
+        assertThrows(IllegalArgumentException.class, () -> HistoryCursor.decode("not a cursor"));
+        HistoryCursor cursor = new HistoryCursor(START, -1042);
+        assertEquals(cursor, HistoryCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void exportsWriteEveryEntryInRange() {
+        Instant end = START.plus(365, ChronoUnit.DAYS);
+
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        assertEquals(ENTRIES, historyExporter.exportPersonHistory(START, end, HistoryFormat.NDJSON, ndjson));
+        String[] lines = ndjson.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(ENTRIES, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":-1004,\"timestamp\":\"2020-01-01T00:00:00Z\""), lines[0]);
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        assertEquals(ENTRIES, historyExporter.exportPersonHistory(START, end, HistoryFormat.CSV, csv));
+        lines = csv.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(ENTRIES + 1, lines.length);
+        assertEquals("id,timestamp,subjectId,points,reason,ruleName", lines[0]);
+        assertEquals("-1004,2020-01-01T00:00:00Z,history-person,4,\"Reason, \"\"quoted\"\" 4\",History Rule", lines[1]);
+
+        ByteArrayOutputStream empty = new ByteArrayOutputStream();
+        assertEquals(0, historyExporter.exportPersonHistory(end, end.plusSeconds(1), HistoryFormat.NDJSON, empty));
+    }
+}
@@ -0,0 +1,115 @@
+package com.edag.swd.my.gamification.leaderboard;
+
+import com.edag.swd.my.gamification.controller.LeaderboardApiController;
+import com.edag.swd.my.gamification.entity.Group;
+import com.edag.swd.my.gamification.entity.Person;
+import com.edag.swd.my.gamification.repository.GroupRepository;
+import com.edag.swd.my.gamification.repository.PersonRepository;
+import com.edag.swd.my.gamification.service.RuleService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest(properties = {"gamification.feed.tick=20ms", "gamification.feed.timeout=30s"})
+class LeaderboardFeedTests {
+
+    private static final String GROUP_ID = "feed-group";
+    private static final String PERSON_ID = "feed-member";
+    private static final String RIVAL_ID = "feed-rival";
+
+    @Autowired
+    private LeaderboardApiController leaderboardApiController;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private RuleService ruleService;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @BeforeEach
+    void createGroup() {
+        Group group = groupRepository.save(new Group(GROUP_ID, "Feed Group"));
+        personRepository.save(new Person(PERSON_ID, "Feed Member", group));
+    }
+
+    @AfterEach
+    void deleteGroup() {
+        groupRepository.deleteById(GROUP_ID);
+    }
+
+    @Test
+    void committedChangesAreStreamedToEveryClient() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(leaderboardApiController).build();
+        MvcResult fast = mockMvc.perform(get("/api/leaderboard/stream").param("interval", "0"))
+                .andExpect(request().asyncStarted()).andReturn();
+        MvcResult throttled = mockMvc.perform(get("/api/leaderboard/stream").param("interval", "200"))
+                .andExpect(request().asyncStarted()).andReturn();
+        awaitContent(fast, "event:snapshot");
+        awaitContent(throttled, "event:snapshot");
+
+        // "Join Hackathon" awards 5 points per event
+        for (int i = 0; i < 3; i++) {
+            ruleService.processEvent("join_hackathon", Map.of("individual", PERSON_ID));
+        }
+
+        int rank = leaderboardService.getPersons().get(PERSON_ID).orElseThrow().rank();
+        String entry = "{\"id\":\"" + PERSON_ID + "\",\"points\":15,\"rank\":" + rank + "}";
+        awaitContent(fast, entry);
+        awaitContent(throttled, entry);
+    }
+
+    @Test
+    void entriesPassedByOthersGetTheirNewRank() throws Exception {
+        personRepository.save(new Person(RIVAL_ID, "Feed Rival", groupRepository.findById(GROUP_ID).orElseThrow()));
+        ruleService.processEvent("join_hackathon", Map.of("individual", PERSON_ID));
+
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(leaderboardApiController).build();
+        MvcResult stream = mockMvc.perform(get("/api/leaderboard/stream").param("interval", "0").param("top", "1000"))
+                .andExpect(request().asyncStarted()).andReturn();
+        awaitContent(stream, "event:snapshot");
+        int rank = leaderboardService.getPersons().get(PERSON_ID).orElseThrow().rank();
+
+        // Only the rival changes, passing the member
+        ruleService.processEvent("join_hackathon", Map.of("individual", RIVAL_ID));
+        ruleService.processEvent("join_hackathon", Map.of("individual", RIVAL_ID));
+
+        assertEquals(rank + 1, leaderboardService.getPersons().get(PERSON_ID).orElseThrow().rank());
+        awaitContent(stream, "{\"id\":\"" + PERSON_ID + "\",\"points\":5,\"rank\":" + (rank + 1) + "}");
+    }
+
+    @Test
+    void clientsAreLimited() {
+        LeaderboardFeed feed = new LeaderboardFeed(leaderboardService, Duration.ofMillis(50), Duration.ofSeconds(15),
+                Duration.ofMinutes(1), 1, 32);
+
+        assertTrue(feed.subscribe(Duration.ZERO, 10).isPresent());
+        assertTrue(feed.subscribe(Duration.ZERO, 10).isEmpty());
+        assertEquals(1, feed.getClientCount());
+    }
+
+    private static void awaitContent(MvcResult result, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!result.getResponse().getContentAsString().contains(expected)) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting for " + expected);
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.edag.swd.my.gamification.leaderboard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LeaderboardTests {
+
+    private static final Comparator<Map.Entry<String, Integer>> RANKING =
+            Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey());
+
+    @Test
+    void randomUpdatesMatchSortedReference() {
+        Leaderboard leaderboard = new Leaderboard();
+        Map<String, Integer> reference = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int step = 0; step < 20_000; step++) {
+            String id = "id" + random.nextInt(500);
+            if (random.nextInt(10) == 0) {
+                leaderboard.remove(id);
+                reference.remove(id);
+            } else {
+                // Few distinct point values, so ties are common
+                int points = random.nextInt(50);
+                leaderboard.update(id, points);
+                reference.put(id, points);
+            }
+
+            if (step % 1000 == 0) {
+                assertMatches(reference, leaderboard);
+            }
+        }
+        assertMatches(reference, leaderboard);
+    }
+
+    @Test
+    void aroundIsClippedAtTheEdges() {
+        Leaderboard leaderboard = new Leaderboard();
+        for (int i = 0; i < 10; i++) {
+            leaderboard.update("id" + i, i * 10);
+        }
+
+        List<LeaderboardEntry> top = leaderboard.around("id9", 2);
+        assertEquals(List.of("id9", "id8", "id7"), top.stream().map(LeaderboardEntry::id).toList());
+        assertEquals(1, top.getFirst().rank());
+
+        List<LeaderboardEntry> middle = leaderboard.around("id5", 1);
+        assertEquals(List.of(4, 5, 6), middle.stream().map(LeaderboardEntry::rank).toList());
+
+        assertTrue(leaderboard.around("missing", 2).isEmpty());
+        assertTrue(leaderboard.range(10, 5).isEmpty());
+    }
+
+    private static void assertMatches(Map<String, Integer> reference, Leaderboard leaderboard) {
+        List<Map.Entry<String, Integer>> expected = reference.entrySet().stream().sorted(RANKING).toList();
+        assertEquals(expected.size(), leaderboard.size());
+
+        List<LeaderboardEntry> all = leaderboard.top(Integer.MAX_VALUE);
+        for (int i = 0; i < expected.size(); i++) {
+            LeaderboardEntry entry = all.get(i);
+            assertEquals(expected.get(i).getKey(), entry.id());
+            assertEquals(expected.get(i).getValue(), entry.points());
+            assertEquals(i + 1, entry.rank());
+            assertEquals(entry, leaderboard.get(entry.id()).orElseThrow());
+        }
+
+        if (expected.size() > 20) {
+            assertEquals(all.subList(10, 20), leaderboard.range(10, 10));
+        }
+    }
+}
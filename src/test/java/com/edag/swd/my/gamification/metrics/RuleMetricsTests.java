@@ -0,0 +1,66 @@
+package com.edag.swd.my.gamification.metrics;
+
+import com.edag.swd.my.gamification.entity.Group;
+import com.edag.swd.my.gamification.entity.Person;
+import com.edag.swd.my.gamification.repository.GroupRepository;
+import com.edag.swd.my.gamification.repository.PersonRepository;
+import com.edag.swd.my.gamification.service.RuleService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class RuleMetricsTests {
+
+    @Autowired
+    private RuleService ruleService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @BeforeEach
+    void createPerson() {
+        Group group = groupRepository.save(new Group("metrics-group", "Metrics Group"));
+        personRepository.save(new Person("metrics-person", "Metrics Person", group));
+    }
+
+    @AfterEach
+    void deletePerson() {
+        groupRepository.deleteById("metrics-group");
+    }
+
+    @Test
+    void recordsRuleAndEventMetrics() {
+        double matchedBefore = counter("gamification.rule.matched", "Sauron");
+        double penalizedBefore = counter("gamification.rule.points.penalized", "Sauron");
+        long eventsBefore = meterRegistry.get("gamification.event.processing").timer().count();
+        double statementsBefore = meterRegistry.get("gamification.event.db.statements").summary().totalAmount();
+
+        ruleService.processEvent("mr_sauron", Map.of("individual", "metrics-person"));
+
+        assertEquals(matchedBefore + 1, counter("gamification.rule.matched", "Sauron"));
+        assertEquals(penalizedBefore + 500, counter("gamification.rule.points.penalized", "Sauron"));
+        assertTrue(meterRegistry.get("gamification.rule.evaluation").tag("rule", "Sauron").timer().count() > 0);
+        assertEquals(eventsBefore + 1, meterRegistry.get("gamification.event.processing").timer().count());
+        assertTrue(meterRegistry.get("gamification.event.db.statements").summary().totalAmount() > statementsBefore);
+    }
+
+    private double counter(String name, String ruleName) {
+        var counter = meterRegistry.find(name).tag("rule", ruleName).counter();
+        return counter != null ? counter.count() : 0;
+    }
+}
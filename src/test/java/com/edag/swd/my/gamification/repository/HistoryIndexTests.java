@@ -0,0 +1,63 @@
+package com.edag.swd.my.gamification.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the history query paths of the repositories are served by the declared indexes
+ * instead of scanning the history tables.
+ */
+@SpringBootTest
+class HistoryIndexTests {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void personHistoryQueriesUseIndexes() {
+        assertIndexLookup("SELECT * FROM point_history WHERE person_id = 'person1' ORDER BY timestamp");
+        assertIndexLookup("SELECT * FROM point_history WHERE person_id = 'person1' AND rule_name = 'Hackathon Participation'");
+        assertUsesIndex("idx_point_history_person_timestamp",
+                "SELECT * FROM point_history WHERE person_id = 'person1' AND timestamp >= TIMESTAMP '2025-01-01 00:00:00'");
+        assertUsesIndex("idx_point_history_rule_timestamp",
+                "SELECT * FROM point_history WHERE rule_name = 'Hackathon Participation' " +
+                        "AND timestamp >= TIMESTAMP '2025-01-01 00:00:00'");
+        assertUsesIndex("idx_point_history_timestamp",
+                "SELECT * FROM point_history WHERE timestamp BETWEEN TIMESTAMP '2025-01-01 00:00:00' " +
+                        "AND TIMESTAMP '2025-02-01 00:00:00'");
+    }
+
+    @Test
+    void groupHistoryQueriesUseIndexes() {
+        assertIndexLookup("SELECT * FROM group_point_history WHERE group_id = 'group1' ORDER BY timestamp");
+        assertIndexLookup("SELECT * FROM group_point_history WHERE group_id = 'group1' AND rule_name = 'Hackathon Participation'");
+        assertUsesIndex("idx_group_point_history_group_timestamp",
+                "SELECT * FROM group_point_history WHERE group_id = 'group1' AND timestamp >= TIMESTAMP '2025-01-01 00:00:00'");
+        assertUsesIndex("idx_group_point_history_rule_timestamp",
+                "SELECT * FROM group_point_history WHERE rule_name = 'Hackathon Participation' " +
+                        "AND timestamp >= TIMESTAMP '2025-01-01 00:00:00'");
+        assertUsesIndex("idx_group_point_history_timestamp",
+                "SELECT * FROM group_point_history WHERE timestamp BETWEEN TIMESTAMP '2025-01-01 00:00:00' " +
+                        "AND TIMESTAMP '2025-02-01 00:00:00'");
+    }
+
+    private void assertUsesIndex(String index, String sql) {
+        String plan = explain(sql);
+        assertTrue(plan.toLowerCase().contains(index), () -> "Expected " + index + " in plan:\n" + plan);
+    }
+
+    // Lookups by person or group may also use the index H2 creates for the foreign key on the same column
+    private void assertIndexLookup(String sql) {
+        String plan = explain(sql);
+        assertFalse(plan.toLowerCase().contains("tablescan"), () -> "Expected an index lookup in plan:\n" + plan);
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+    }
+}
@@ -0,0 +1,97 @@
+package com.edag.swd.my.gamification.repository;
+
+import com.edag.swd.my.gamification.SyntheticData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Measures the history query paths over a large synthetic history and prints the plans H2 chooses for them.
+ * Run with {@code mvn test -Dtest=HistoryQueryBenchmarkTests -Dbenchmarks=true}; the number of rows per history
+ * table defaults to 10 million and can be changed with {@code -Dbenchmark.history.rows=1000000}.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class HistoryQueryBenchmarkTests {
+
+    private static final String PREFIX = "bench-history";
+    private static final int GROUPS = 50;
+    private static final int MEMBERS_PER_GROUP = 20;
+    private static final int RULES = 20;
+    private static final int SECONDS_PER_YEAR = 365 * 24 * 3600;
+    private static final int RUNS = 20;
+
+    private final long rows = Long.getLong("benchmark.history.rows", 10_000_000L);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private SyntheticData data;
+
+    @BeforeEach
+    void createHistory() {
+        data = new SyntheticData(jdbcTemplate, PREFIX);
+        data.createGroups(GROUPS, MEMBERS_PER_GROUP);
+
+        // Synthetic rows use negative IDs so they never collide with the sequences; timestamps are spread over 2025
+        long millis = data.insertRows(rows, "INSERT INTO point_history (id, points_value, reason, rule_name, timestamp, person_id) " +
+                "SELECT -X, 5, 'Benchmark', 'Benchmark Rule ' || MOD(X / 1000, " + RULES + "), " +
+                "DATEADD(SECOND, MOD(X * 7919, " + SECONDS_PER_YEAR + "), TIMESTAMP WITH TIME ZONE '2025-01-01 00:00:00+00'), " +
+                "'" + PREFIX + "-p' || MOD(X, " + GROUPS * MEMBERS_PER_GROUP + ") FROM SYSTEM_RANGE(?, ?)");
+        millis += data.insertRows(rows, "INSERT INTO group_point_history (id, points_changed, reason, rule_name, timestamp, group_id) " +
+                "SELECT -X, 5, 'Benchmark', 'Benchmark Rule ' || MOD(X / 1000, " + RULES + "), " +
+                "DATEADD(SECOND, MOD(X * 7919, " + SECONDS_PER_YEAR + "), TIMESTAMP WITH TIME ZONE '2025-01-01 00:00:00+00'), " +
+                "'" + PREFIX + "-g' || MOD(X, " + GROUPS + ") FROM SYSTEM_RANGE(?, ?)");
+        SyntheticData.report("inserted %d history rows per table in %d s", rows, millis / 1000);
+    }
+
+    @AfterEach
+    void deleteHistory() {
+        // In chunks by ID, which is faster than one delete by person or group
+        SyntheticData.forEachChunk(rows, (from, to) -> {
+            jdbcTemplate.update("DELETE FROM point_history WHERE id BETWEEN ? AND ?", -to, -from);
+            jdbcTemplate.update("DELETE FROM group_point_history WHERE id BETWEEN ? AND ?", -to, -from);
+        });
+        data.deleteAll();
+    }
+
+    @Test
+    void historyQueries() {
+        String week = "timestamp BETWEEN TIMESTAMP WITH TIME ZONE '2025-03-03 00:00:00+00' " +
+                "AND TIMESTAMP WITH TIME ZONE '2025-03-10 00:00:00+00'";
+
+        measure("person history", "SELECT * FROM point_history WHERE person_id = '" + PREFIX + "-p42' ORDER BY timestamp DESC");
+        measure("person history, one week", "SELECT * FROM point_history WHERE person_id = '" + PREFIX + "-p42' AND " + week);
+        measure("person history, one rule", "SELECT * FROM point_history WHERE person_id = '" + PREFIX + "-p42' " +
+                "AND rule_name = 'Benchmark Rule 2'");
+        measure("rule history, one week", "SELECT * FROM point_history WHERE rule_name = 'Benchmark Rule 7' AND " + week);
+        measure("history of one week", "SELECT * FROM point_history WHERE " + week);
+
+        measure("group history, one week", "SELECT * FROM group_point_history WHERE group_id = '" + PREFIX + "-g7' AND " + week);
+        measure("group history, one rule", "SELECT * FROM group_point_history WHERE group_id = '" + PREFIX + "-g7' " +
+                "AND rule_name = 'Benchmark Rule 7'");
+        measure("group rule history, one week", "SELECT * FROM group_point_history WHERE rule_name = 'Benchmark Rule 7' AND " + week);
+        measure("group history of one week", "SELECT * FROM group_point_history WHERE " + week);
+    }
+
+    private void measure(String name, String sql) {
+        long[] count = new long[1];
+        // Warm up once, then average the remaining runs
+        jdbcTemplate.query(sql, resultSet -> {
+            count[0]++;
+        });
+        long start = System.nanoTime();
+        for (int run = 0; run < RUNS; run++) {
+            jdbcTemplate.query(sql, resultSet -> {
+            });
+        }
+        long micros = (System.nanoTime() - start) / RUNS / 1000;
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+        String access = plan.lines().filter(line -> line.contains("/*")).findFirst().orElse(plan).trim();
+        SyntheticData.report("%-30s %8d rows %10d us  %s", name, count[0], micros, access);
+    }
+}
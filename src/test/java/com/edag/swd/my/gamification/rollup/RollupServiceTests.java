@@ -0,0 +1,124 @@
+package com.edag.swd.my.gamification.rollup;
+
+import com.edag.swd.my.gamification.entity.Group;
+import com.edag.swd.my.gamification.entity.Person;
+import com.edag.swd.my.gamification.repository.GroupRepository;
+import com.edag.swd.my.gamification.repository.PersonRepository;
+import com.edag.swd.my.gamification.service.RuleService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class RollupServiceTests {
+
+    private static final String GROUP_ID = "rollup-group";
+    private static final String FIRST_PERSON_ID = "rollup-person0";
+    private static final String SECOND_PERSON_ID = "rollup-person1";
+
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private RuleService ruleService;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void createGroup() {
+        Group group = groupRepository.save(new Group(GROUP_ID, "Rollup Group"));
+        personRepository.save(new Person(FIRST_PERSON_ID, "Rollup Person", group));
+        personRepository.save(new Person(SECOND_PERSON_ID, "Rollup Person", group));
+    }
+
+    @AfterEach
+    void deleteGroup() {
+        groupRepository.deleteById(GROUP_ID);
+    }
+
+    @Test
+    void eventsAreRolledUpPerPeriod() {
+        awardHackathonPoints();
+
+        for (Granularity granularity : Granularity.values()) {
+            Map<String, RollupTotal> persons = totals(granularity, SubjectType.PERSON, null);
+            assertEquals(new RollupTotal(FIRST_PERSON_ID, 15, 3), persons.get(FIRST_PERSON_ID), granularity.name());
+            assertEquals(new RollupTotal(SECOND_PERSON_ID, 5, 1), persons.get(SECOND_PERSON_ID), granularity.name());
+            assertEquals(new RollupTotal(GROUP_ID, 20, 4),
+                    totals(granularity, SubjectType.GROUP, "Join Hackathon").get(GROUP_ID), granularity.name());
+        }
+        assertTrue(totals(Granularity.WEEK, SubjectType.PERSON, "Win Team Game").isEmpty());
+
+        Instant now = Instant.now();
+        List<RollupBucket> buckets = rollupService.getBuckets(SubjectType.PERSON, FIRST_PERSON_ID, Granularity.DAY,
+                now, now.plusSeconds(1));
+        assertEquals(List.of(new RollupBucket(Granularity.DAY.bucketStart(now, ZoneId.systemDefault()),
+                "Join Hackathon", 15, 3)), buckets);
+    }
+
+    @Test
+    void rolledBackEventsAreNotRolledUp() {
+        awardHackathonPoints();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            ruleService.processEvent("join_hackathon", Map.of("individual", FIRST_PERSON_ID));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(15, totals(Granularity.DAY, SubjectType.PERSON, null).get(FIRST_PERSON_ID).points());
+        assertEquals(20, totals(Granularity.DAY, SubjectType.GROUP, null).get(GROUP_ID).points());
+    }
+
+    @Test
+    void rebuildMatchesIncrementalRollups() {
+        awardHackathonPoints();
+        Map<String, RollupTotal> persons = totals(Granularity.MONTH, SubjectType.PERSON, null);
+        Map<String, RollupTotal> groups = totals(Granularity.MONTH, SubjectType.GROUP, null);
+
+        assertTrue(rollupService.rebuild() > 0);
+
+        assertEquals(persons, totals(Granularity.MONTH, SubjectType.PERSON, null));
+        assertEquals(groups, totals(Granularity.MONTH, SubjectType.GROUP, null));
+    }
+
+    @Test
+    void deletedHistoryIsSubtracted() {
+        awardHackathonPoints();
+
+        groupRepository.deleteById(GROUP_ID);
+
+        assertFalse(totals(Granularity.WEEK, SubjectType.PERSON, null).containsKey(FIRST_PERSON_ID));
+        assertFalse(totals(Granularity.WEEK, SubjectType.GROUP, null).containsKey(GROUP_ID));
+    }
+
+    private void awardHackathonPoints() {
+        ruleService.processEvent("join_hackathon", Map.of("individual", FIRST_PERSON_ID));
+        ruleService.processEvent("join_hackathon", Map.of("individual", FIRST_PERSON_ID));
+        ruleService.processEvent("join_hackathon", Map.of("individual", SECOND_PERSON_ID));
+        ruleService.processEvent("join_hackathon", Map.of("individual", FIRST_PERSON_ID));
+    }
+
+    private Map<String, RollupTotal> totals(Granularity granularity, SubjectType subjectType, String ruleName) {
+        return rollupService.getTotals(granularity, Instant.now(), subjectType, ruleName, 1000).totals().stream()
+                .collect(Collectors.toMap(RollupTotal::subjectId, total -> total));
+    }
+}
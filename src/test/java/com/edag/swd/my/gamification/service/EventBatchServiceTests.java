@@ -0,0 +1,124 @@
+package com.edag.swd.my.gamification.service;
+
+import com.edag.swd.my.gamification.engine.GroupLockManager;
+import com.edag.swd.my.gamification.entity.Group;
+import com.edag.swd.my.gamification.entity.Person;
+import com.edag.swd.my.gamification.eventlog.EventDeduplicator;
+import com.edag.swd.my.gamification.models.BatchResult;
+import com.edag.swd.my.gamification.models.EventRequest;
+import com.edag.swd.my.gamification.models.EventResult;
+import com.edag.swd.my.gamification.repository.GroupRepository;
+import com.edag.swd.my.gamification.repository.PersonRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class EventBatchServiceTests {
+
+    private static final String GROUP_ID = "batch-group";
+    private static final String PERSON_ID = "batch-member";
+    private static final Map<String, String> PARTICIPANTS = Map.of("individual", PERSON_ID);
+
+    @Autowired
+    private RuleService ruleService;
+
+    @Autowired
+    private GroupLockManager groupLockManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EventDeduplicator eventDeduplicator;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    // Chunks of two events, so a batch spans several chunks
+    private EventBatchService eventBatchService;
+
+    @BeforeEach
+    void createGroup() {
+        Group group = groupRepository.save(new Group(GROUP_ID, "Batch Group"));
+        personRepository.save(new Person(PERSON_ID, "Batch Member", group));
+        eventBatchService = new EventBatchService(ruleService, groupLockManager, transactionManager, 2, 100);
+    }
+
+    @AfterEach
+    void deleteGroup() {
+        groupRepository.deleteById(GROUP_ID);
+    }
+
+    @Test
+    void failingChunkIsRolledBackAndRetriedEventByEvent() {
+        // A key that left the deduplication window fails the chunk's transaction at the event log
+        assertTrue(ruleService.processUniqueEvent("batch-logged", "join_hackathon", PARTICIPANTS).isPresent());
+        eventDeduplicator.release("batch-logged");
+
+        BatchResult result = eventBatchService.processBatch(List.of(
+                new EventRequest("join_hackathon", PARTICIPANTS),
+                new EventRequest("join_hackathon", PARTICIPANTS, "batch-logged"),
+                new EventRequest("join_hackathon", PARTICIPANTS),
+                new EventRequest("join_hackathon", PARTICIPANTS)));
+
+        assertEquals(List.of(EventResult.Status.PROCESSED, EventResult.Status.DUPLICATE,
+                        EventResult.Status.PROCESSED, EventResult.Status.PROCESSED),
+                result.results().stream().map(EventResult::status).toList());
+        assertEquals(3, result.processed());
+        assertEquals(0, result.failed());
+        // The first event was rolled back with its chunk and applied once more on its own: 4 events of 5 points
+        assertEquals(20, personRepository.findById(PERSON_ID).orElseThrow().getTotalAccumulatedPoints());
+    }
+
+    @Test
+    void eventsGetTheirOwnStatus() {
+        BatchResult result = eventBatchService.processBatch(Arrays.asList(
+                null,
+                new EventRequest(null, PARTICIPANTS),
+                new EventRequest(" ", PARTICIPANTS),
+                new EventRequest("join_hackathon", null),
+                new EventRequest("join_hackathon", PARTICIPANTS, "k".repeat(65)),
+                new EventRequest("no_such_action", PARTICIPANTS),
+                new EventRequest("join_hackathon", PARTICIPANTS, "batch-status"),
+                new EventRequest("join_hackathon", PARTICIPANTS, "batch-status")));
+
+        assertEquals(List.of(EventResult.Status.INVALID, EventResult.Status.INVALID, EventResult.Status.INVALID,
+                        EventResult.Status.INVALID, EventResult.Status.INVALID, EventResult.Status.NO_MATCHING_RULE,
+                        EventResult.Status.PROCESSED, EventResult.Status.DUPLICATE),
+                result.results().stream().map(EventResult::status).toList());
+        assertEquals(1, result.processed());
+        assertEquals(5, result.failed());
+        assertEquals("participants are required", result.results().get(3).message());
+        assertEquals(5, personRepository.findById(PERSON_ID).orElseThrow().getTotalAccumulatedPoints());
+    }
+
+    @Test
+    void repeatedKeyIsAppliedOnceAcrossChunks() {
+        long duplicatesBefore = eventDeduplicator.getDuplicateCount();
+
+        BatchResult result = eventBatchService.processBatch(List.of(
+                new EventRequest("join_hackathon", PARTICIPANTS, "batch-repeated"),
+                new EventRequest("join_hackathon", PARTICIPANTS),
+                new EventRequest("join_hackathon", PARTICIPANTS, "batch-repeated"),
+                new EventRequest("join_hackathon", PARTICIPANTS, "batch-repeated")));
+
+        assertEquals(List.of(EventResult.Status.PROCESSED, EventResult.Status.PROCESSED,
+                        EventResult.Status.DUPLICATE, EventResult.Status.DUPLICATE),
+                result.results().stream().map(EventResult::status).toList());
+        assertEquals(2, eventDeduplicator.getDuplicateCount() - duplicatesBefore);
+        assertEquals(10, personRepository.findById(PERSON_ID).orElseThrow().getTotalAccumulatedPoints());
+    }
+}
@@ -0,0 +1,78 @@
+package com.edag.swd.my.gamification.service;
+
+import com.edag.swd.my.gamification.engine.LockScope;
+import com.edag.swd.my.gamification.entity.Group;
+import com.edag.swd.my.gamification.entity.Person;
+import com.edag.swd.my.gamification.models.BatchResult;
+import com.edag.swd.my.gamification.models.EventRequest;
+import com.edag.swd.my.gamification.models.EventResult;
+import com.edag.swd.my.gamification.repository.GroupRepository;
+import com.edag.swd.my.gamification.repository.PersonRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class GrouplessParticipantTests {
+
+    private static final String GROUP_ID = "groupless-group";
+    private static final String MEMBER_ID = "groupless-member";
+    private static final String LONER_ID = "groupless-loner";
+
+    @Autowired
+    private RuleService ruleService;
+
+    @Autowired
+    private EventBatchService eventBatchService;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @BeforeEach
+    void createPersons() {
+        Group group = groupRepository.save(new Group(GROUP_ID, "Groupless Group"));
+        personRepository.save(new Person(MEMBER_ID, "Group Member", group));
+        personRepository.save(new Person(LONER_ID, "No Group", (Group) null));
+    }
+
+    @AfterEach
+    void deletePersons() {
+        personRepository.deleteById(LONER_ID);
+        groupRepository.deleteById(GROUP_ID);
+    }
+
+    @Test
+    void personsWithoutGroupAreNotLocked() {
+        LockScope scope = ruleService.resolveLockScope("join_hackathon", Map.of("individual", LONER_ID,
+                "other", MEMBER_ID));
+
+        assertFalse(scope.allGroups());
+        assertEquals(Set.of(GROUP_ID), scope.groupIds());
+    }
+
+    @Test
+    void eventsWithAParticipantWithoutGroupAreProcessed() {
+        assertEquals(0, ruleService.processEvent("no_such_action", Map.of("individual", LONER_ID)));
+        assertDoesNotThrow(() -> ruleService.processEvent("join_hackathon", Map.of("individual", LONER_ID)));
+
+        BatchResult result = eventBatchService.processBatch(List.of(
+                new EventRequest("no_such_action", Map.of("individual", LONER_ID)),
+                new EventRequest("join_hackathon", Map.of("individual", MEMBER_ID))));
+
+        assertEquals(List.of(EventResult.Status.NO_MATCHING_RULE, EventResult.Status.PROCESSED),
+                result.results().stream().map(EventResult::status).toList());
+        // "Join Hackathon" awards 5 points per event
+        assertEquals(5, personRepository.findById(MEMBER_ID).orElseThrow().getTotalAccumulatedPoints());
+    }
+}
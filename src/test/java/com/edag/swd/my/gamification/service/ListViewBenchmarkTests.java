@@ -0,0 +1,116 @@
+package com.edag.swd.my.gamification.service;
+
+import com.edag.swd.my.gamification.SyntheticData;
+import com.edag.swd.my.gamification.entity.Group;
+import com.edag.swd.my.gamification.entity.Person;
+import com.edag.swd.my.gamification.models.GroupCount;
+import com.edag.swd.my.gamification.models.GroupSummary;
+import com.edag.swd.my.gamification.models.PersonSummary;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares reading the data of the person and group lists as entities with reading it as projections.
+ * Run with {@code mvn test -Dtest=ListViewBenchmarkTests -Dbenchmarks=true}; the number of persons defaults to
+ * 50,000 and can be changed with {@code -Dbenchmark.list.persons=10000}.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class ListViewBenchmarkTests {
+
+    private static final String PREFIX = "bench-list";
+    private static final int MEMBERS_PER_GROUP = 50;
+    private static final int RUNS = 5;
+
+    private final int persons = Integer.getInteger("benchmark.list.persons", 50_000);
+
+    @Autowired
+    private PersonService personService;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private SyntheticData data;
+
+    @BeforeEach
+    void createPersons() {
+        data = new SyntheticData(jdbcTemplate, PREFIX);
+        data.createPersons(persons, MEMBERS_PER_GROUP, person -> person % 97);
+    }
+
+    @AfterEach
+    void deletePersons() {
+        data.deleteAll();
+    }
+
+    @Test
+    void personAndGroupLists() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        // What the list pages read before: the entities, grouped and counted in memory
+        measure("entities", () -> readOnly.execute(status -> {
+            List<Person> ranked = personService.getPersonsRankedByPoints();
+            Map<String, Long> groupCounts = ranked.stream().collect(Collectors.groupingBy(
+                    person -> person.getGroup() != null ? person.getGroup().getName() : "None", Collectors.counting()));
+            long members = 0;
+            for (Group group : groupService.getAllGroups()) {
+                members += group.getMembers().size();
+            }
+            return ranked.size() + groupCounts.size() + members;
+        }));
+
+        // What they read now: the columns they show, with the counts computed by the database
+        measure("projections", () -> {
+            List<PersonSummary> ranked = personService.getPersonSummariesRankedByPoints();
+            List<GroupCount> groupCounts = personService.countPersonsByGroup();
+            List<GroupSummary> groups = groupService.getGroupSummaries();
+            return ranked.size() + groupCounts.size() + groups.stream().mapToLong(GroupSummary::memberCount).sum();
+        });
+    }
+
+    private void measure(String name, Supplier<Long> lists) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long checksum = lists.get();
+        statistics.clear();
+
+        long nanos = 0;
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            assertEquals(checksum, lists.get());
+            nanos += System.nanoTime() - start;
+        }
+        SyntheticData.report("%s for %d persons: %d ms per view, %d JDBC statements, %d entities loaded",
+                name, persons, nanos / RUNS / 1_000_000, statistics.getPrepareStatementCount() / RUNS,
+                statistics.getEntityLoadCount() / RUNS);
+    }
+}
@@ -0,0 +1,93 @@
+package com.edag.swd.my.gamification.service;
+
+import com.edag.swd.my.gamification.models.GroupCount;
+import com.edag.swd.my.gamification.models.GroupSummary;
+import com.edag.swd.my.gamification.models.MemberPage;
+import com.edag.swd.my.gamification.models.MemberSummary;
+import com.edag.swd.my.gamification.models.PersonSummary;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ListViewTests {
+
+    private static final String GROUP_ID = "list-view-group";
+    private static final String EMPTY_GROUP_ID = "list-view-empty-group";
+    private static final int MEMBERS = 25;
+
+    @Autowired
+    private PersonService personService;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void createGroups() {
+        jdbcTemplate.update("INSERT INTO \"groups\" (id, name, total_group_points, version) VALUES (?, ?, 0, 0)",
+                GROUP_ID, "List View Group");
+        jdbcTemplate.update("INSERT INTO \"groups\" (id, name, total_group_points, version) VALUES (?, ?, 0, 0)",
+                EMPTY_GROUP_ID, "Empty List View Group");
+        List<Object[]> rows = new ArrayList<>();
+        for (int m = 0; m < MEMBERS; m++) {
+            rows.add(new Object[]{String.format("%s-member%02d", GROUP_ID, m), "List View Member " + m, m});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO persons (id, name, group_id, total_accumulated_points) " +
+                "VALUES (?, ?, '" + GROUP_ID + "', ?)", rows);
+    }
+
+    @AfterEach
+    void deleteGroups() {
+        jdbcTemplate.update("DELETE FROM persons WHERE group_id = ?", GROUP_ID);
+        jdbcTemplate.update("DELETE FROM \"groups\" WHERE id IN (?, ?)", GROUP_ID, EMPTY_GROUP_ID);
+    }
+
+    @Test
+    void summariesCountMembersAndNameGroups() {
+        List<GroupSummary> groups = groupService.getGroupSummaries();
+
+        assertEquals(MEMBERS, find(groups, GROUP_ID).memberCount());
+        assertEquals(0, find(groups, EMPTY_GROUP_ID).memberCount());
+        assertTrue(personService.countPersonsByGroup().contains(new GroupCount("List View Group", MEMBERS)));
+
+        PersonSummary person = personService.getPersonSummariesRankedByPoints().stream()
+                .filter(summary -> summary.id().equals(GROUP_ID + "-member07"))
+                .findFirst().orElseThrow();
+        assertEquals("List View Group", person.groupName());
+        assertEquals(7, person.totalAccumulatedPoints());
+    }
+
+    @Test
+    void memberPagesCoverGroupOnceById() {
+        List<MemberSummary> members = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            MemberPage page = groupService.getMembers(GROUP_ID, cursor, 10);
+            members.addAll(page.members());
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(MEMBERS, members.size());
+        assertEquals(GROUP_ID + "-member00", members.getFirst().id());
+        assertEquals(GROUP_ID + "-member24", members.getLast().id());
+        assertTrue(groupService.getMembers(EMPTY_GROUP_ID, null, 10).members().isEmpty());
+    }
+
+    private static GroupSummary find(List<GroupSummary> groups, String id) {
+        return groups.stream().filter(group -> group.id().equals(id)).findFirst().orElseThrow();
+    }
+}
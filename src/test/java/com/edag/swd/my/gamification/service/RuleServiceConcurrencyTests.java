@@ -0,0 +1,121 @@
+package com.edag.swd.my.gamification.service;
+
+import com.edag.swd.my.gamification.entity.Group;
+import com.edag.swd.my.gamification.entity.Person;
+import com.edag.swd.my.gamification.leaderboard.LeaderboardService;
+import com.edag.swd.my.gamification.repository.GroupPointHistoryEntryRepository;
+import com.edag.swd.my.gamification.repository.GroupRepository;
+import com.edag.swd.my.gamification.repository.PersonRepository;
+import com.edag.swd.my.gamification.repository.PointHistoryEntryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class RuleServiceConcurrencyTests {
+
+    private static final int GROUPS = 8;
+    private static final int MEMBERS_PER_GROUP = 4;
+    private static final int WRITERS = 32;
+    private static final int EVENTS_PER_WRITER = 50;
+
+    @Autowired
+    private RuleService ruleService;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private GroupPointHistoryEntryRepository groupPointHistoryEntryRepository;
+
+    @Autowired
+    private PointHistoryEntryRepository pointHistoryEntryRepository;
+
+    private final List<String> groupIds = new ArrayList<>();
+    private final List<String> personIds = new ArrayList<>();
+
+    @BeforeEach
+    void createGroups() {
+        for (int g = 0; g < GROUPS; g++) {
+            Group group = groupRepository.save(new Group("stress-group" + g, "Stress Group " + g));
+            groupIds.add(group.getId());
+            for (int m = 0; m < MEMBERS_PER_GROUP; m++) {
+                Person person = personRepository.save(new Person("stress-person" + g + "-" + m, "Stress Person", group));
+                personIds.add(person.getId());
+            }
+        }
+    }
+
+    @AfterEach
+    void deleteGroups() {
+        groupRepository.deleteAllById(groupIds);
+    }
+
+    @Test
+    void concurrentWritersKeepTotalsExact() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        Map<String, Integer> expectedGroupPoints = new HashMap<>();
+        Map<String, Integer> expectedPersonEntries = new HashMap<>();
+
+        for (int writer = 0; writer < WRITERS; writer++) {
+            List<String> writerPersons = new ArrayList<>();
+            for (int i = 0; i < EVENTS_PER_WRITER; i++) {
+                // Spread each writer over all groups so every group is hit by many writers at once
+                String personId = personIds.get((writer + i) % personIds.size());
+                writerPersons.add(personId);
+                expectedGroupPoints.merge(groupOf(personId), 5, Integer::sum);
+                expectedPersonEntries.merge(personId, 1, Integer::sum);
+            }
+
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (String personId : writerPersons) {
+                    ruleService.processEvent("join_hackathon", Map.of("individual", personId));
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        for (String groupId : groupIds) {
+            Group group = groupRepository.findById(groupId).orElseThrow();
+            int expected = expectedGroupPoints.getOrDefault(groupId, 0);
+            assertEquals(expected, group.getTotalGroupPoints(), "total of " + groupId);
+            assertEquals(expected / 5, groupPointHistoryEntryRepository.findByGroupId(groupId).size(),
+                    "history entries of " + groupId);
+            assertEquals(expected, leaderboardService.getGroups().get(groupId).orElseThrow().points(),
+                    "leaderboard points of " + groupId);
+        }
+        for (String personId : personIds) {
+            assertEquals(expectedPersonEntries.getOrDefault(personId, 0),
+                    pointHistoryEntryRepository.findByPersonId(personId).size(), "history entries of " + personId);
+        }
+    }
+
+    private String groupOf(String personId) {
+        return groupIds.get(personIds.indexOf(personId) / MEMBERS_PER_GROUP);
+    }
+}
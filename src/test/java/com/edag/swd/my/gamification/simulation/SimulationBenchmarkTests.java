@@ -0,0 +1,75 @@
+package com.edag.swd.my.gamification.simulation;
+
+import com.edag.swd.my.gamification.SyntheticData;
+import com.edag.swd.my.gamification.config.RuleConfig;
+import com.edag.swd.my.gamification.service.RuleService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Measures simulating a rule change against a year of synthetic events.
+ * Run with {@code mvn test -Dtest=SimulationBenchmarkTests -Dbenchmarks=true}; the number of events defaults to
+ * 1 million and can be changed with {@code -Dbenchmark.simulation.events=100000}.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class SimulationBenchmarkTests {
+
+    private static final String PREFIX = "bench-simulation";
+    private static final int GROUPS = 500;
+    private static final int MEMBERS_PER_GROUP = 20;
+
+    private final long events = Long.getLong("benchmark.simulation.events", 1_000_000L);
+
+    @Autowired
+    private SimulationService simulationService;
+
+    @Autowired
+    private RuleService ruleService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private SyntheticData data;
+
+    @BeforeEach
+    void createEventLog() {
+        data = new SyntheticData(jdbcTemplate, PREFIX);
+        data.createGroups(GROUPS, MEMBERS_PER_GROUP);
+
+        // One in a hundred events is a multi-outcome "SAP Hours" event, which is evaluated for every group
+        long millis = data.logEvents(events, GROUPS * MEMBERS_PER_GROUP, 100);
+        SyntheticData.report("logged %d events in %d ms", events, millis);
+    }
+
+    @AfterEach
+    void deleteEventLog() {
+        jdbcTemplate.update("DELETE FROM event_log");
+        data.deleteAll();
+    }
+
+    @Test
+    void simulateRuleChange() {
+        RuleConfig candidate = new ObjectMapper().convertValue(ruleService.getRules().get("Join Hackathon"),
+                RuleConfig.class);
+        candidate.getOutcomes().getFirst().setPoints(6);
+
+        SimulationResult result = simulationService.simulate(new SimulationRequest(
+                Instant.parse("2025-01-01T00:00:00Z"), Instant.parse("2026-01-01T00:00:00Z"), List.of(candidate)));
+
+        assertEquals(events, result.events());
+        SyntheticData.report("simulated %d events in %d ms, %d groups and %d persons changed",
+                result.events(), result.durationMillis(), result.groups().size(), result.persons().size());
+    }
+}
@@ -0,0 +1,113 @@
+package com.edag.swd.my.gamification.simulation;
+
+import com.edag.swd.my.gamification.config.RuleConfig;
+import com.edag.swd.my.gamification.entity.Group;
+import com.edag.swd.my.gamification.entity.Person;
+import com.edag.swd.my.gamification.repository.GroupRepository;
+import com.edag.swd.my.gamification.repository.PersonRepository;
+import com.edag.swd.my.gamification.service.RuleService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class SimulationServiceTests {
+
+    private static final List<String> GROUP_IDS = List.of("simulation-group0", "simulation-group1");
+
+    @Autowired
+    private SimulationService simulationService;
+
+    @Autowired
+    private RuleService ruleService;
+
+    @Autowired
+    private GroupRepository groupRepository;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void createGroups() {
+        // Simulate only the events of this test
+        jdbcTemplate.update("DELETE FROM event_log");
+        for (String groupId : GROUP_IDS) {
+            Group group = groupRepository.save(new Group(groupId, "Simulation Group"));
+            for (int m = 0; m < 2; m++) {
+                personRepository.save(new Person(groupId + "-member" + m, "Simulation Member", group));
+            }
+        }
+    }
+
+    @AfterEach
+    void deleteGroups() {
+        groupRepository.deleteAllById(GROUP_IDS);
+    }
+
+    @Test
+    void candidateRulesAreProjectedWithoutWrites() {
+        Instant from = Instant.now().minusSeconds(1);
+        String hacker = "simulation-group0-member0";
+        ruleService.processEvent("join_hackathon", Map.of("individual", hacker));
+        ruleService.processEvent("join_hackathon", Map.of("individual", hacker));
+        ruleService.processEvent("forum_participation", Map.of("individual", "simulation-group1-member0"));
+
+        // "Join Hackathon" awards 5 points; the candidate awards 8
+        RuleConfig candidate = new ObjectMapper().convertValue(ruleService.getRules().get("Join Hackathon"),
+                RuleConfig.class);
+        candidate.getOutcomes().getFirst().setPoints(8);
+        long eventLogSize = eventLogSize();
+
+        SimulationResult result = simulationService.simulate(
+                new SimulationRequest(from, null, List.of(candidate)));
+
+        assertEquals(3, result.events());
+        ScoreChange person = find(result.persons(), hacker).orElseThrow();
+        assertEquals(10, person.points());
+        assertEquals(6, person.delta());
+        assertEquals(16, person.projectedPoints());
+        ScoreChange group = find(result.groups(), "simulation-group0").orElseThrow();
+        assertEquals(6, group.delta());
+        assertEquals(group.points() + 6, group.projectedPoints());
+        // Unchanged rules project no change
+        assertTrue(find(result.persons(), "simulation-group1-member0").isEmpty());
+
+        // Nothing was written
+        assertEquals(10, personRepository.findById(hacker).orElseThrow().getTotalAccumulatedPoints());
+        assertEquals(5, ruleService.getRules().get("Join Hackathon").getOutcomes().getFirst().getPoints());
+        assertEquals(eventLogSize, eventLogSize());
+    }
+
+    @Test
+    void invalidRequestsAreRejected() {
+        Instant now = Instant.now();
+        assertThrows(IllegalArgumentException.class,
+                () -> simulationService.simulate(new SimulationRequest(now, now, List.of())));
+
+        RuleConfig unnamed = new RuleConfig();
+        assertThrows(IllegalArgumentException.class,
+                () -> simulationService.simulate(new SimulationRequest(now.minusSeconds(60), now, List.of(unnamed))));
+    }
+
+    private long eventLogSize() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM event_log", Long.class);
+    }
+
+    private static Optional<ScoreChange> find(List<ScoreChange> changes, String id) {
+        return changes.stream().filter(change -> change.id().equals(id)).findFirst();
+    }
+}